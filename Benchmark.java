@@ -0,0 +1,355 @@
+package MyADTS;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Random;
+/**
+ * Measures building a Builder and every Builder query on synthetic words files so changes can be
+ * compared run to run. The files (words, stop words and index) are generated from a fixed seed so the
+ * same sizes always give the same corpus: words are made from syllables and drawn with a Zipf
+ * distribution, the most common words are the stop words and there is a section every 100 lines.
+ * Every measurement is warmed up first and reports the time, the bytes allocated by the measuring
+ * thread and the garbage collections per operation.
+ * Usage: java MyADTS.Benchmark [lines...] [radix] [lazy] [freeze] [threads=n] [iterations=n]
+ * e.g. java MyADTS.Benchmark 1000 10000 100000 freeze
+ *
+ * @author Riley De Leacy
+ *
+ */
+public class Benchmark {
+	private static final long SEED = 3506;
+	private static final String[] SYLLABLES = {"a", "an", "ar", "be", "ca", "de", "do", "el", "en", "er",
+			"fo", "ga", "ha", "in", "is", "ka", "la", "li", "ma", "mo", "na", "ne", "on", "or", "pa", "qu",
+			"ra", "re", "sa", "se", "st", "ta", "te", "th", "ti", "to", "un", "ve", "wa", "yo"};
+	//number of queries of every kind, each measured operation runs all of them
+	private static final int QUERIES = 64;
+	private static final int STOP_WORDS = 24;
+	private static final int SECTION_LINES = 100;
+	//results are added up here so the queries can't be optimised away
+	private static long sink;
+	private final IndexOptions options;
+	private final boolean freeze;
+	private final int iterations;
+	private final ThreadMXBean threads;
+	private Benchmark(IndexOptions options, boolean freeze, int iterations) {
+		this.options = options;
+		this.freeze = freeze;
+		this.iterations = iterations;
+		threads = ManagementFactory.getThreadMXBean();
+	}
+	/**
+	 * Runs the benchmarks.
+	 *
+	 * @param args sizes in lines and options (see the class comment).
+	 * @throws IOException if the generated files can't be written or read.
+	 */
+	public static void main(String[] args) throws IOException {
+		IndexOptions options = new IndexOptions();
+		boolean freeze = false;
+		int iterations = 5;
+		int[] sizes = new int[args.length];
+		int sizeCount = 0;
+		for(String i:args) {
+			if(i.equals("radix")) {
+				options.setPathCompression(true);
+			}else if(i.equals("lazy")) {
+				options.setStorePrefixes(false);
+			}else if(i.equals("freeze")) {
+				freeze = true;
+			}else if(i.startsWith("threads=")) {
+				options.setThreads(Integer.parseInt(i.substring(8)));
+			}else if(i.startsWith("iterations=")) {
+				iterations = Integer.parseInt(i.substring(11));
+			}else {
+				sizes[sizeCount++] = Integer.parseInt(i);
+			}
+		}
+		if(sizeCount==0) {
+			sizes = new int[] {1000, 10000, 100000};
+			sizeCount = sizes.length;
+		}
+		Benchmark benchmark = new Benchmark(options, freeze, iterations);
+		File directory = new File(System.getProperty("java.io.tmpdir"), "trie-benchmark");
+		directory.mkdirs();
+		System.out.println(String.format("%-8s %-20s %14s %14s %10s %10s", "lines", "benchmark", "ns/op",
+				"bytes/op", "gcs", "gc ms"));
+		for(int i=0;i<sizeCount;i++) {
+			benchmark.run(directory, sizes[i]);
+		}
+	}
+	/**
+	 * Generates a corpus of the input size and measures every benchmark on it.
+	 */
+	private void run(File directory, int lines) throws IOException {
+		SyntheticCorpus corpus = new SyntheticCorpus(directory, lines);
+		Builder builder = build(corpus);
+		measure(lines, "build", 1, () -> sink += build(corpus).lineCounter);
+		Random random = new Random(SEED+1);
+		String[] words = new String[QUERIES];
+		String[] prefixes = new String[QUERIES];
+		String[] phrases = new String[QUERIES];
+		String[][] pairs = new String[QUERIES][];
+		String[][] titles = new String[QUERIES][];
+		for(int i=0;i<QUERIES;i++) {
+			words[i] = corpus.word(random);
+			prefixes[i] = words[i].substring(0, Math.min(2, words[i].length()));
+			//a phrase copied from the file so it always matches at least once
+			String[] line = builder.allLines.get(random.nextInt(builder.lineCounter)).split(" ");
+			int start = random.nextInt(Math.max(1, line.length-2));
+			phrases[i] = String.join(" ", Arrays.copyOfRange(line, start, Math.min(line.length, start+3)));
+			pairs[i] = new String[] {corpus.word(random), corpus.word(random)};
+			titles[i] = new String[] {corpus.title(random), corpus.title(random), corpus.title(random)};
+		}
+		measure(lines, "findWord", QUERIES, () -> {
+			for(String i:words) {
+				LinkedList<Values> found = builder.words.findWord(i);
+				sink += found==null?0:found.getSize();
+			}
+		});
+		measure(lines, "prefixOccurrence", QUERIES, () -> {
+			for(String i:prefixes) {
+				sink += builder.prefixOccurrence(i).getSize();
+			}
+		});
+		measure(lines, "phraseOccurrence", QUERIES, () -> {
+			for(String i:phrases) {
+				LinkedList<Values> found = builder.phraseOccurrence(i);
+				sink += found==null?0:found.getSize();
+			}
+		});
+		measure(lines, "wordsOnLine", QUERIES, () -> {
+			for(String[] i:pairs) {
+				sink += builder.wordsOnLine(i).getSize();
+			}
+		});
+		measure(lines, "wordsNotOnLine", QUERIES, () -> {
+			for(int i=0;i<QUERIES;i++) {
+				sink += builder.wordsNotOnLine(new String[] {pairs[i][0]}, new String[] {pairs[i][1]}).getSize();
+			}
+		});
+		measure(lines, "someWordsOnLine", QUERIES, () -> {
+			for(String[] i:pairs) {
+				sink += builder.someWordsOnLine(i).getSize();
+			}
+		});
+		measure(lines, "simpleAndSearch", QUERIES, () -> {
+			for(int i=0;i<QUERIES;i++) {
+				sink += builder.simpleAndSearch(pairs[i], titles[i]).getSize();
+			}
+		});
+		measure(lines, "simpleOrSearch", QUERIES, () -> {
+			for(int i=0;i<QUERIES;i++) {
+				sink += builder.simpleOrSearch(pairs[i], titles[i]).getSize();
+			}
+		});
+		measure(lines, "simpleNotSearch", QUERIES, () -> {
+			for(int i=0;i<QUERIES;i++) {
+				sink += builder.simpleNotSearch(new String[] {pairs[i][0]}, titles[i], new String[] {pairs[i][1]}).getSize();
+			}
+		});
+		measure(lines, "compoundAndOrSearch", QUERIES, () -> {
+			for(int i=0;i<QUERIES;i++) {
+				sink += builder.compoundAndOrSearch(new String[] {pairs[i][0]}, titles[i],
+						new String[] {pairs[i][1], words[i]}).getSize();
+			}
+		});
+	}
+	/**
+	 * Builds a Builder from the corpus files with the benchmark's options.
+	 */
+	private Builder build(SyntheticCorpus corpus) {
+		try {
+			Builder builder = new Builder(corpus.words.getPath(), corpus.stopWords.getPath(), corpus.index.getPath(), options);
+			if(freeze) {
+				builder.freeze();
+			}
+			return builder;
+		}catch(IOException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+	/**
+	 * Runs an operation until it is warmed up and then measures the configured number of iterations.
+	 * Each iteration runs for at least 200ms.
+	 *
+	 * @param lines size of the corpus (printed).
+	 * @param name name of the benchmark (printed).
+	 * @param operations operations done by each call of the task.
+	 * @param task the operations to be measured.
+	 */
+	private void measure(int lines, String name, int operations, Runnable task) {
+		//warm up for a second so the JIT has compiled the code being measured
+		long warmupEnd = System.nanoTime()+1000000000L;
+		long calls = 0;
+		while(System.nanoTime()<warmupEnd||calls<2) {
+			task.run();
+			calls++;
+		}
+		long time = 0;
+		long bytes = 0;
+		long gcs = 0;
+		long gcTime = 0;
+		long done = 0;
+		for(int i=0;i<iterations;i++) {
+			long startGcs = gcCount();
+			long startGcTime = gcTime();
+			long startBytes = allocatedBytes();
+			long start = System.nanoTime();
+			long end = start+200000000L;
+			long now;
+			do {
+				task.run();
+				done += operations;
+				now = System.nanoTime();
+			}while(now<end);
+			time += now-start;
+			bytes += allocatedBytes()-startBytes;
+			gcs += gcCount()-startGcs;
+			gcTime += gcTime()-startGcTime;
+		}
+		System.out.println(String.format("%-8d %-20s %14.1f %14.1f %10.3f %10d", lines, name, (double)time/done,
+				bytes<0?-1.0:(double)bytes/done, (double)gcs*operations/done, gcTime));
+	}
+	/**
+	 * run-time:O(1)
+	 * @return returns the bytes allocated by this thread so far or a negative number if it can't be measured.
+	 */
+	private long allocatedBytes() {
+		if(threads instanceof com.sun.management.ThreadMXBean) {
+			return ((com.sun.management.ThreadMXBean)threads).getThreadAllocatedBytes(Thread.currentThread().getId());
+		}
+		return Long.MIN_VALUE/2;
+	}
+	/**
+	 * run-time:O(g) g=number of garbage collectors.
+	 * @return returns the number of garbage collections so far.
+	 */
+	private static long gcCount() {
+		long count = 0;
+		for(GarbageCollectorMXBean i:ManagementFactory.getGarbageCollectorMXBeans()) {
+			count += Math.max(0, i.getCollectionCount());
+		}
+		return count;
+	}
+	/**
+	 * run-time:O(g) g=number of garbage collectors.
+	 * @return returns the milliseconds spent collecting garbage so far.
+	 */
+	private static long gcTime() {
+		long time = 0;
+		for(GarbageCollectorMXBean i:ManagementFactory.getGarbageCollectorMXBeans()) {
+			time += Math.max(0, i.getCollectionTime());
+		}
+		return time;
+	}
+	/**
+	 * A generated words file with its stop words and index files. The vocabulary grows with the number
+	 * of lines (about half as many distinct words as lines) and words are drawn with a Zipf distribution
+	 * so a few words are very common and most are rare, like natural text. Also used by StressTest.
+	 */
+	static class SyntheticCorpus {
+		final File words;
+		final File stopWords;
+		final File index;
+		private final String[] vocabulary;
+		//cumulative[i] = probability of drawing one of the first i+1 words
+		private final double[] cumulative;
+		private final int sections;
+		SyntheticCorpus(File directory, int lines) throws IOException {
+			Random random = new Random(SEED);
+			vocabulary = new String[Math.max(STOP_WORDS*4, lines/2)];
+			HashSet<String> used = new HashSet<String>();
+			for(int i=0;i<vocabulary.length;i++) {
+				String word;
+				do {
+					StringBuilder builder = new StringBuilder();
+					int syllables = 1+random.nextInt(4);
+					for(int j=0;j<syllables;j++) {
+						builder.append(SYLLABLES[random.nextInt(SYLLABLES.length)]);
+					}
+					word = builder.toString();
+				}while(!used.add(word));
+				vocabulary[i] = word;
+			}
+			cumulative = new double[vocabulary.length];
+			double total = 0;
+			for(int i=0;i<vocabulary.length;i++) {
+				total += 1.0/(i+1);
+				cumulative[i] = total;
+			}
+			for(int i=0;i<vocabulary.length;i++) {
+				cumulative[i] /= total;
+			}
+			sections = (lines+SECTION_LINES-1)/SECTION_LINES;
+			words = new File(directory, "words-"+lines+".txt");
+			stopWords = new File(directory, "stop-"+lines+".txt");
+			index = new File(directory, "index-"+lines+".txt");
+			try(PrintWriter out = new PrintWriter(new FileWriter(words))) {
+				for(int i=0;i<lines;i++) {
+					int count = 4+random.nextInt(10);
+					StringBuilder line = new StringBuilder();
+					for(int j=0;j<count;j++) {
+						if(j>0) {
+							line.append(random.nextInt(20)==0?"-":" ");
+						}
+						String word = word(random);
+						//some words are capitalised or followed by punctuation like in real text
+						if(random.nextInt(10)==0) {
+							word = Character.toUpperCase(word.charAt(0))+word.substring(1);
+						}
+						line.append(word);
+						if(random.nextInt(12)==0) {
+							line.append(random.nextBoolean()?',':'.');
+						}
+					}
+					out.println(line);
+				}
+			}
+			try(PrintWriter out = new PrintWriter(new FileWriter(stopWords))) {
+				for(int i=0;i<STOP_WORDS;i++) {
+					out.println(vocabulary[i]);
+				}
+			}
+			try(PrintWriter out = new PrintWriter(new FileWriter(index))) {
+				for(int i=0;i<sections;i++) {
+					out.println(title(i)+","+(i*SECTION_LINES+1));
+				}
+			}
+		}
+		/**
+		 * run-time:O(log(v)) v=size of the vocabulary.
+		 * @return returns a word drawn with the Zipf distribution.
+		 */
+		String word(Random random) {
+			double target = random.nextDouble();
+			int low = 0;
+			int high = cumulative.length-1;
+			while(low<high) {
+				int middle = (low+high)>>>1;
+				if(cumulative[middle]<target) {
+					low = middle+1;
+				}else {
+					high = middle;
+				}
+			}
+			return vocabulary[low];
+		}
+		/**
+		 * run-time:O(1)
+		 * @return returns the title of a random section.
+		 */
+		String title(Random random) {
+			return title(random.nextInt(sections));
+		}
+		private static String title(int section) {
+			return "SECTION "+(section+1);
+		}
+	}
+}
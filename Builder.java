@@ -3,7 +3,14 @@ package MyADTS;
 import java.io.BufferedReader;
 import java.io.FileNotFoundException;
 import java.io.FileReader;
-import java.util.Iterator;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
 
 import comp3506.assn2.utils.Pair;
 import comp3506.assn2.utils.Triple;
@@ -12,19 +19,34 @@ import comp3506.assn2.utils.Triple;
  * 
  * Memory usage: 2*n+a*s+i (n=size of words, a=average size of every non-stopword, s=number of non-stopwords,
  * i=size of index)(all words are stored twice, all prefixes are stored and the index is stored)
+ * If prefixes aren't stored (IndexOptions.setStorePrefixes(false)) the a*s term becomes s.
+ * 
+ * Once it is built a Builder can be queried by any number of threads at once without locking, queries
+ * only read the index (column counting while the words file is read is done by each thread's Tokenizer).
+ * appendLines, freeze, compressPostings and setQueryCacheBytes change the index so they must not run at the same
+ * time as queries, and a Builder should be passed to other threads safely (e.g. through a final or
+ * volatile field or an ExecutorService). The optional prefix and query caches lock briefly when used.
  * 
  * @author Riley De Leacy
  *
  */
 public class Builder {
-	Trie stopWords;
-	Trie words;
+	WordIndex<?> stopWords;
+	WordIndex<?> words;
 	LinkedList<Pair<String,Integer>> index;
 	String file;
 	//used to count the lines so they can all be stored
 	int lineCounter=0;
 	//stores all the lines in the words file
-	String[] allLines;
+	LineTable allLines;
+	//position of every word in the words file, made the first time a phrase is searched
+	volatile TokenPositions positions;
+	//section titles and the section every row is in
+	SectionIndex sections;
+	//cached query results, null if results aren't cached
+	volatile QueryCache queryCache;
+	//query metrics, null if metrics are switched off
+	volatile QueryMetrics metrics;
 	/**
 	 * Creates a new Instance of Builder with the input files.
 	 * run-time:O(2*n+i+s*q*a+n*r*e*d) n=lines in words file, i=index in index file, s=lines in stop word file
@@ -38,34 +60,151 @@ public class Builder {
 	 */
 	public Builder(String file, String stopWordsFile, String indexFile) 
 			throws FileNotFoundException, IllegalArgumentException{
+		this(file, stopWordsFile, indexFile, new IndexOptions());
+	}
+	/**
+	 * Creates a new Instance of Builder with the input files and index options.
+	 * run-time:same as Builder(file, stopWordsFile, indexFile).
+	 * 
+	 * @param file file containing words to be stored.
+	 * @param stopWordsFile file containing words that will not be stored.
+	 * @param indexFile file containing the index of the words file.
+	 * @param options how the index is stored.
+	 */
+	public Builder(String file, String stopWordsFile, String indexFile, IndexOptions options) 
+			throws FileNotFoundException, IllegalArgumentException{
+		this(file, stopWordsFile, null, indexFile, options);
+	}
+	/**
+	 * Creates a new Instance of Builder with stop words that have already been read (used by Corpus so
+	 * the stop words file is only read once). The stop word occurrences of the file are added to the
+	 * input Trie so every Builder needs its own (see Trie.copyWords).
+	 * run-time:same as Builder(file, stopWordsFile, indexFile) without reading the stop words.
+	 * 
+	 * @param file file containing words to be stored.
+	 * @param stopWords Trie of stop words without any occurrences.
+	 * @param indexFile file containing the index of the words file.
+	 * @param options how the index is stored.
+	 */
+	Builder(String file, Trie stopWords, String indexFile, IndexOptions options) 
+			throws FileNotFoundException, IllegalArgumentException{
+		this(file, null, stopWords, indexFile, options);
+	}
+	/**
+	 * Creates a new Instance of Builder, reading the stop words file if the stop words haven't been read.
+	 * Every phase is timed if metrics are switched on (see IndexOptions.setMetrics).
+	 */
+	private Builder(String file, String stopWordsFile, Trie stopWords, String indexFile, IndexOptions options) 
+			throws FileNotFoundException, IllegalArgumentException{
 		if(file==null||file.equals("")) {
 			throw new IllegalArgumentException("The input file cannot be null");
 		}
-		words = new Trie();
-		stopWords = new Trie();
+		if(options==null) {
+			throw new IllegalArgumentException("The options cannot be null");
+		}
+		QueryMetrics recorder = options.getMetrics()?new QueryMetrics():null;
+		long start = System.nanoTime();
+		if(stopWords==null) {
+			stopWords = readStopWords(stopWordsFile);
+			start = phase(recorder, "stopWords", start);
+		}
+		if(options.getPathCompression()) {
+			words = new RadixTrie(options.getStorePrefixes(), options.getPrefixCacheSize());
+		}else {
+			words = new Trie(options.getStorePrefixes(), options.getPrefixCacheSize());
+		}
+		this.stopWords = stopWords;
 		this.file = file;
-		//adds all stop words in the stopWordsFile to its respective Trie
-		addStopWords(stopWordsFile);
-		//adds all stop words in the file to its respective Trie
-		addWords(file);
-		//creates an array to store all the lines and then iterates over the file again to store it
+		//stores all the lines so the file is read once,
 		//this given constant access time when looking up lines in the phraseOccurance method
-		allLines = new String[lineCounter];
+		allLines = new LineTable(16);
 	    try {
 		       BufferedReader br = new BufferedReader(new FileReader(file));
 		       String thisLine;
-		       int tempCounter=0;
 		       while ((thisLine = br.readLine()) != null) {
-		   			allLines[tempCounter] = thisLine;
-		   			tempCounter++;
+		   			allLines.add(thisLine);
 		       }
 			   br.close();
 		    } catch(Exception e) {
 		    	throw new FileNotFoundException(file+" Could not be read");
 		    }
+	    lineCounter = allLines.getSize();
+	    start = phase(recorder, "lines", start);
+		//adds all words in the file to their respective Tries
+	    if(options.getThreads()>1&&words instanceof Trie) {
+	    	addWordsParallel(options.getThreads());
+	    }else {
+	    	addWords();
+	    }
+	    start = phase(recorder, "words", start);
 	    //add the index titles and lines into a LinkedList of pairs
 		index = new LinkedList<Pair<String,Integer>>();
 		addIndexes(indexFile);
+		sections = new SectionIndex(index, lineCounter);
+		start = phase(recorder, "index", start);
+		if(options.getFreeze()) {
+			freeze();
+			phase(recorder, "freeze", start);
+		}
+		metrics = recorder;
+		if(options.getQueryCacheBytes()>0) {
+			queryCache = new QueryCache(options.getQueryCacheBytes());
+		}
+	}
+	/**
+	 * Creates a Builder from already built parts (used by IndexFile.open).
+	 * run-time:O(1)
+	 */
+	Builder(String file, WordIndex<?> words, WordIndex<?> stopWords, LinkedList<Pair<String,Integer>> index,
+			LineTable allLines, SectionIndex sections) {
+		this.file = file;
+		this.words = words;
+		this.stopWords = stopWords;
+		this.index = index;
+		this.allLines = allLines;
+		lineCounter = allLines.getSize();
+		this.sections = sections;
+	}
+	/**
+	 * Records how long a build phase took if metrics are switched on.
+	 * run-time:O(1)
+	 * 
+	 * @param recorder metrics of the Builder or null if metrics are switched off.
+	 * @param phase name of the phase.
+	 * @param start System.nanoTime() when the phase started.
+	 * @return returns System.nanoTime() when the phase ended (the start of the next phase).
+	 */
+	private static long phase(QueryMetrics recorder, String phase, long start) {
+		if(recorder==null) {
+			return start;
+		}
+		long end = System.nanoTime();
+		recorder.recordPhase(phase, end-start);
+		return end;
+	}
+	/**
+	 * Opens an index file written by save. The index is read from the memory mapped file as it is queried
+	 * so opening it takes the same time whatever the size of the words file.
+	 * run-time:O(s) s=number of sections.
+	 * 
+	 * @param indexFile index file written by save.
+	 * @return returns a frozen Builder answering queries from the file.
+	 * @throws FileNotFoundException if the file could not be read.
+	 * @throws IllegalArgumentException if the file is not an index file or was written by another version.
+	 */
+	public static Builder open(String indexFile) throws FileNotFoundException, IllegalArgumentException {
+		return IndexFile.open(indexFile);
+	}
+	/**
+	 * Saves the Tries, lines and section index to an index file that can be opened with open.
+	 * run-time:O(n+o+c) n=number of TrieNodes, o=number of stored locations, c=characters in the words file.
+	 * 
+	 * @param indexFile file to write.
+	 * @throws IOException if the file could not be written.
+	 * @throws IllegalStateException if the words are stored in a RadixTrie.
+	 */
+	public void save(String indexFile) throws IOException {
+		IndexFile.save(this, indexFile);
 	}
 	/**
 	 * Fills the index variable with Pairs of Section title and line number Pair<String,Integer>
@@ -92,94 +231,274 @@ public class Builder {
 	/**
 	 * Creates the stopWord Trie but does not add word occurances to the Trie.
 	 * @param fileName stop words file directory.
+	 * @return returns a Trie of the stop words.
 	 * @throws FileNotFoundException 
 	 */
-	private void addStopWords(String fileName) throws FileNotFoundException {
+	static Trie readStopWords(String fileName) throws FileNotFoundException {
 		String thisLine = null;
+		Trie stopWords = new Trie();
 
 	    try {
 	       BufferedReader br = new BufferedReader(new FileReader(fileName));
 	       while ((thisLine = br.readLine()) != null) {
-	   			stopWords.addWord(thisLine.toLowerCase(),0,false,thisLine.length(),0);
+	   			stopWords.addWord(thisLine.toLowerCase(),0,1,false);
 	       }
 		   br.close();
 	    } catch(Exception e) {
 	    	throw new FileNotFoundException(fileName+" Could not be read");
 	    }
+	    return stopWords;
 	}
 	/**
 	 * Populates the words Trie adding occurrences for prefixs of words in addition to complete words.
-	 * @param fileName words file directory.
-	 * @throws FileNotFoundException 
+	 * run-time:O(n*r*e*d) n=lines in words file, r=average words on line, e=possible characters to store,
+	 * d=number of children
 	 */
-	private void addWords(String fileName) throws FileNotFoundException {
-		words.resetColumnCounter();
-		stopWords.resetColumnCounter();	
-		int rowCounter = 1;
-		String thisLine = null;
-	    try {
-	       BufferedReader br = new BufferedReader(new FileReader(fileName));
-	       while ((thisLine = br.readLine()) != null) {
-	    	   addWord(thisLine, rowCounter);
-	    	   rowCounter++;
-	    	   words.resetColumnCounter();
-	    	   stopWords.resetColumnCounter();
-	    	   lineCounter++;
-	       }
-		   br.close();
-	    } catch(Exception e) {
-	    	throw new FileNotFoundException(fileName+" Could not be read");
-	    }
+	private void addWords() {
+		addWords(words, (Trie)stopWords, 0, lineCounter);
+	}
+	/**
+	 * Adds a range of lines to the input Tries.
+	 * run-time:O(n*r*e*d) n=lines in the range, r=average words on line, e=possible characters to store,
+	 * d=number of children
+	 * 
+	 * @param words Trie for words.
+	 * @param stopWords Trie for stop words.
+	 * @param start index of the first line.
+	 * @param end index after the last line.
+	 */
+	private void addWords(WordIndex<?> words, Trie stopWords, int start, int end) {
+		Tokenizer tokens = new Tokenizer();
+		StopWordSet stopWordSet = stopWords.stopWordSet();
+		for(int i=start;i<end;i++) {
+			addWord(words, stopWordSet, tokens, allLines.get(i), i+1);
+		}
+	}
+	/**
+	 * Populates the Tries on several threads. The lines are split into one range per thread, every range
+	 * is added to its own pair of Tries (each with its own Tokenizer) and the Tries are then merged in
+	 * row order, one child of the root per task.
+	 * run-time:O((n*r*e*d)/t+m) t=threads, m=merge run-time (see Trie.merge).
+	 * 
+	 * @param threads number of threads.
+	 */
+	private void addWordsParallel(int threads) {
+		int ranges = Math.min(threads, lineCounter);
+		if(ranges<2) {
+			addWords();
+			return;
+		}
+		Trie[] partWords = new Trie[ranges];
+		Trie[] partStopWords = new Trie[ranges];
+		Future<?>[] tasks = new Future<?>[ranges];
+		ExecutorService pool = Executors.newFixedThreadPool(threads);
+		try {
+			for(int i=0;i<ranges;i++) {
+				final int start = (int)((long)lineCounter*i/ranges);
+				final int end = (int)((long)lineCounter*(i+1)/ranges);
+				final Trie rangeWords = ((Trie)words).copyWords();
+				final Trie rangeStopWords = ((Trie)stopWords).copyWords();
+				partWords[i] = rangeWords;
+				partStopWords[i] = rangeStopWords;
+				tasks[i] = pool.submit(() -> addWords(rangeWords, rangeStopWords, start, end));
+			}
+			for(Future<?> i:tasks) {
+				i.get();
+			}
+			((Trie)words).merge(partWords, pool);
+			((Trie)stopWords).merge(partStopWords, pool);
+		}catch(InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while reading "+file, e);
+		}catch(ExecutionException e) {
+			throw new IllegalStateException(file+" Could not be read", e.getCause());
+		}finally {
+			pool.shutdown();
+		}
 	}
 	/**
 	 * Adds all words and prefixes in the input string to the words Trie or just the final word 
-	 * the stopwords Trie if they are in the stopWords Trie. All words are added in lower case
+	 * the stopwords Trie if they are in the stop word set. All words are added in lower case
 	 * with preceding and following symbols removed.
+	 * run-time:O(z*e*d) z=characters in the string, e=possible characters to store, d=number of children
 	 * 
+	 * @param words Trie for words.
+	 * @param stopWords stop word set of the Trie for stop words.
+	 * @param tokens Tokenizer used to split the string (reused between lines).
 	 * @param string string of words to add (seperated by spaces and hyphons).
 	 * @param row row number the line occurs on.
 	 */
-	private void addWord(String string, int row) {
-		int leadingSymbols;
-		TrieNode tempNode;
-		String[] splitString;
-		String[] splitHyphon;
-		String tempString;
-		splitString = string.split(" ");
-		for(String i:splitString) {
-			if(i.equals("")) {words.incrementColumnCounter(1);continue;}
-			//TrieNode tempTrieNode = stopWords.find(i);
-			leadingSymbols = Trie.numLeadingSymbols(i);
-			splitHyphon = i.split("-");
-			if(splitHyphon.length>1) {
-				for(String j:splitHyphon) {
-					addWord(j, row);
-				}
-				continue;
-			}
-			tempString = Trie.formatString(i,false).toLowerCase();
-			tempNode = stopWords.find(tempString);
-			if(tempNode==null) {
+	private static void addWord(WordIndex<?> words, StopWordSet stopWords, Tokenizer tokens, String string, int row) {
+		tokens.reset(string);
+		while(tokens.next()) {
+			if(!stopWords.addOccurrence(tokens.buffer(), tokens.length(), row, tokens.column())) {
 				//not a stop word
-   				words.addWord(tempString,row,true,i.length()+1-leadingSymbols,leadingSymbols);
-   				stopWords.incrementColumnCounter(i.length()+1-leadingSymbols);
-			}else {
-				stopWords.addExistingWord(tempNode, row, words.getColumnCounter());
-				words.incrementColumnCounter(i.length()+1);
+				words.addWord(tokens.buffer(), tokens.length(), row, tokens.column()+tokens.leadingSymbols());
 			}
 		}
 	}
+	/**
+	 * Starts caching query results within a byte budget (see QueryCache), replacing any current cache.
+	 * Useful for a Builder opened from an index file.
+	 * run-time:O(1)
+	 * 
+	 * @param maxBytes byte budget of the cached results (0=don't cache results).
+	 */
+	public void setQueryCacheBytes(long maxBytes) {
+		if(maxBytes<0) {
+			throw new IllegalArgumentException("The query cache size cannot be negative");
+		}
+		queryCache = maxBytes==0?null:new QueryCache(maxBytes);
+	}
+	/**
+	 * Gets the query cache so its statistics can be read.
+	 * run-time:O(1)
+	 * 
+	 * @return returns the query cache or null if results aren't cached.
+	 */
+	public QueryCache getQueryCache() {
+		return queryCache;
+	}
+	/**
+	 * Starts or stops recording query metrics (see QueryMetrics). Starting replaces any recorded metrics,
+	 * the build phases are only timed if metrics were switched on when the Builder was built.
+	 * run-time:O(1)
+	 * 
+	 * @param enabled record query metrics (true=yes, false=no).
+	 */
+	public void setMetricsEnabled(Boolean enabled) {
+		metrics = enabled?new QueryMetrics():null;
+	}
+	/**
+	 * Gets the query metrics so they can be read or registered with JMX (see QueryMetrics.register).
+	 * run-time:O(1)
+	 * 
+	 * @return returns the query metrics or null if metrics are switched off.
+	 */
+	public QueryMetrics getMetrics() {
+		return metrics;
+	}
+	/**
+	 * Counts the locations a query is about to read in the query metrics if they are switched on.
+	 * run-time:O(1)
+	 * 
+	 * @param occurrences locations the query is about to read (may be null).
+	 * @return returns the input locations.
+	 */
+	private OccurrenceView scanned(OccurrenceView occurrences) {
+		QueryMetrics recorder = metrics;
+		if(recorder!=null&&occurrences!=null) {
+			recorder.scanned(occurrences.getSize());
+		}
+		return occurrences;
+	}
+	/**
+	 * Answers a query from the query cache if it has been cached, otherwise runs it and caches the result.
+	 * The query is timed if metrics are switched on.
+	 * run-time:O(r) r=size of the result (copied) or the query's run-time if it isn't cached.
+	 * 
+	 * @param method name of the query method the metrics are recorded under.
+	 * @param key makes the query's cache key (only called if there is a cache).
+	 * @param query runs the query.
+	 * @return returns a copy of the cached result or the result of the query.
+	 */
+	private <T> LinkedList<T> cached(String method, Supplier<String> key, Supplier<LinkedList<T>> query) {
+		QueryMetrics recorder = metrics;
+		if(recorder==null||!recorder.isEnabled()) {
+			return lookup(key, query);
+		}
+		long scanned = recorder.getScanned();
+		long start = System.nanoTime();
+		LinkedList<T> result = lookup(key, query);
+		recorder.record(method, System.nanoTime()-start, recorder.getScanned()-scanned,
+				result==null?0:result.getSize());
+		return result;
+	}
+	/**
+	 * Answers a query from the query cache if it has been cached, otherwise runs it and caches the result.
+	 * run-time:same as cached.
+	 */
+	@SuppressWarnings("unchecked")
+	private <T> LinkedList<T> lookup(Supplier<String> key, Supplier<LinkedList<T>> query) {
+		QueryCache cache = queryCache;
+		if(cache==null) {
+			return query.get();
+		}
+		String cacheKey = key.get();
+		Object found = cache.get(cacheKey);
+		if(found!=QueryCache.MISS) {
+			return found==null?null:((LinkedList<T>)found).deepCopy();
+		}
+		LinkedList<T> result = query.get();
+		cache.put(cacheKey, result==null?null:result.deepCopy());
+		return result;
+	}
+	/**
+	 * Makes the cache key of a phrase from its formatted words so phrases that are searched the same
+	 * way share a key.
+	 * run-time:O(z) z=characters in the phrase.
+	 */
+	private static String phraseKey(String phrase) {
+		if(phrase==null||phrase.equals("")) {
+			return QueryCache.key("phraseOccurrence", phrase);
+		}
+		if(phrase.split(" ").length==1) {
+			return QueryCache.key("phraseOccurrence", Tokenizer.normalize(phrase));
+		}
+		return QueryCache.key("phraseOccurrence", "", list(splitPhrase(phrase)));
+	}
+	/**
+	 * Makes part of a cache key from words whose order doesn't change a query's result, the words are
+	 * formatted and sorted.
+	 * run-time:O(n*log(n)+z) n=number of words, z=characters in the words.
+	 */
+	private static String wordSet(String[] words) {
+		if(words==null) {
+			return null;
+		}
+		String[] formatted = new String[words.length];
+		for(int i=0;i<words.length;i++) {
+			formatted[i] = Tokenizer.normalize(words[i]);
+			if(formatted[i]==null) {
+				formatted[i] = "\u0001";
+			}
+		}
+		Arrays.sort(formatted);
+		return list(formatted);
+	}
+	/**
+	 * Makes part of a cache key from strings in order.
+	 * run-time:O(z) z=characters in the strings.
+	 */
+	private static String list(String[] strings) {
+		if(strings==null) {
+			return null;
+		}
+		StringBuilder list = new StringBuilder();
+		for(String i:strings) {
+			list.append(i==null?"\u0001":i).append('\u0002');
+		}
+		return list.toString();
+	}
 	/**
 	 * Finds all occurrences of the phrase in the document.
-	 * A phrase may be a single word or a sequence of words.
-	 * run-time:O(dm+n*z)  d=number of possible characters, m=length of first word in phrase, n=number
-	 * of lines the phrase goes over, z=characters in the string.
-	 * (search Trie+format String)
+	 * A phrase may be a single word or a sequence of words. The words of a sequence are split and
+	 * formatted the same way as the words file and must follow each other in the file (a phrase can
+	 * go over more than 1 line), the location of the first word of every match is returned.
+	 * run-time:O(k*(d*m+s*log(r))) k=words in the phrase, d=number of possible characters, m=average
+	 * length of the words, s=size of the largest word's locations, r=average words on a line.
+	 * (the first sequence searched also numbers every word in the words file, see TokenPositions)
 	 * 
 	 * @param phrase phrase to be searched for
 	 * @return returns a LinkedList of Values containing the locations of all occurrences of the input phrase.
 	 */
 	public LinkedList<Values> phraseOccurrence(String phrase){
+		return cached("phraseOccurrence", () -> phraseKey(phrase), () -> computePhraseOccurrence(phrase));
+	}
+	/**
+	 * Runs phraseOccurrence without the query cache.
+	 */
+	private LinkedList<Values> computePhraseOccurrence(String phrase){
 		LinkedList<Values> returnList = new LinkedList<Values>();
 		if(phrase==null||phrase.equals("")) {
 			return new LinkedList<Values>();
@@ -187,66 +506,302 @@ public class Builder {
 		//phrase is 1 word
 		String[] splitPhrase = phrase.split(" ");
 		if(splitPhrase.length==1) {
-			return words.findWord(splitPhrase[0]);
-		}
-		//uses the first word in the phrase to search
-		LinkedList<Values> firstWordOccurances = words.findWord(splitPhrase[0]);
-		//the first word never occurs in the text or is a stop word
-		if(firstWordOccurances==null) {
-			//the first word might be a stop word
-			firstWordOccurances = stopWords.findWord(splitPhrase[0]);
-			//the first word never appears in the text
-			if(firstWordOccurances==null) {
-				return returnList;
+			OccurrenceView occurrences = scanned(words.findView(splitPhrase[0]));
+			if(occurrences==null) {
+				return null;
 			}
+			return occurrences.toList();
+		}
+		String[] phraseWords = splitPhrase(phrase);
+		if(phraseWords.length<1) {
+			return returnList;
 		}
-		//first word could be a prefix of another word stored so the node isn't null
-		if(firstWordOccurances.getSize()<1) {
-			firstWordOccurances = stopWords.findWord(splitPhrase[0]);
-			if(firstWordOccurances==null) {
+		OccurrenceView[] occurrences = new OccurrenceView[phraseWords.length];
+		for(int i=0;i<phraseWords.length;i++) {
+			if(blank(phraseWords[i])) {
+				continue;
+			}
+			occurrences[i] = phraseWordView(phraseWords[i]);
+			if(occurrences[i]==null) {
+				//the word never appears in the text so neither does the phrase
 				return returnList;
 			}
 		}
-		String thisLine = null;
-		Iterator<Node<Values>> itr = firstWordOccurances.iterator();
-		Values currentValue;
-	    try {
-			while(itr.hasNext()) {
-				currentValue = itr.next().element;
-				int rowCounter = currentValue.getRow()-1;
-				thisLine = allLines[rowCounter];
-				try {
-					//take a substring of the line starting at the first word in the phrase
-					thisLine = thisLine.substring(currentValue.getColumn()-1, thisLine.length());
-				}catch(StringIndexOutOfBoundsException e) {
-					continue;
+		return matchPhrase(phraseWords, occurrences);
+	}
+	/**
+	 * Finds where the words of a sequence follow each other in the words file. Words without any letters
+	 * aren't stored so they are matched against every such word in the file and then compared as text.
+	 * run-time:O(k*s*log(r)) k=words in the sequence, s=size of the largest word's locations (or of the
+	 * words without any letters), r=average words on a line.
+	 * 
+	 * @param phraseWords words of the sequence (see splitPhrase).
+	 * @param occurrences complete word locations of every word of the sequence in order, null for the
+	 * words without any letters.
+	 * @return returns a LinkedList of Values containing the locations of the first word of every match.
+	 */
+	private LinkedList<Values> matchPhrase(String[] phraseWords, OccurrenceView[] occurrences) {
+		LinkedList<Values> returnList = new LinkedList<Values>();
+		TokenPositions positions = getPositions();
+		int[][] ordinals = new int[occurrences.length][];
+		int[] blanks = null;
+		for(int i=0;i<occurrences.length;i++) {
+			if(occurrences[i]==null) {
+				if(blanks==null) {
+					blanks = positions.blanks();
+				}
+				ordinals[i] = blanks;
+			}else {
+				ordinals[i] = positions.ordinals(occurrences[i]);
+			}
+		}
+		int[] starts = TokenPositions.intersect(ordinals);
+		if(blanks!=null) {
+			starts = matchBlanks(phraseWords, occurrences, starts, positions);
+		}
+		if(occurrences[0]==null) {
+			//the first word isn't stored so its location comes from its position
+			for(int i:starts) {
+				returnList.add(new Values(positions.column(i), positions.row(i)));
+			}
+			return returnList;
+		}
+		//walk the first word's locations alongside the matching start positions
+		int next = 0;
+		OccurrenceCursor itr = occurrences[0].cursor();
+		while(next<starts.length&&itr.next()) {
+			if(positions.ordinal(itr.column(), itr.row())==starts[next]) {
+				returnList.add(new Values(itr.column(),itr.row()));
+				next++;
+			}
+		}
+		return returnList;
+	}
+	/**
+	 * Keeps the matches of a sequence whose words without any letters are the same as in the sequence.
+	 * run-time:O(m*k*(t+log(n))) m=number of matches, k=words in the sequence, t=length of the words,
+	 * n=lines in the words file.
+	 * 
+	 * @param starts ordinals the sequence starts at, overwritten with the matches kept.
+	 * @return returns the ascending ordinals of the matches kept.
+	 */
+	private int[] matchBlanks(String[] phraseWords, OccurrenceView[] occurrences, int[] starts,
+			TokenPositions positions) {
+		int count = 0;
+		for(int i:starts) {
+			boolean matched = true;
+			for(int j=0;j<phraseWords.length&&matched;j++) {
+				if(occurrences[j]==null) {
+					matched = positions.matches(allLines, i+j, phraseWords[j]);
 				}
-	    		String tempString;
-	    		thisLine = Trie.formatString(thisLine,true);
-	    		while(countSpaces(phrase,phrase.length())>countSpaces(thisLine,thisLine.length())) {
-	    			//the phrase goes over 1 line so the next line must be added to the current substring
-	    			if(rowCounter>=allLines.length-1) {
-	    				//there are no more lines, this is the end of the words file
-	    				break;
-	    			}else {
-	    				//add the next line to the current substring
-	    				rowCounter++;
-	    				tempString = allLines[rowCounter];
-		    			thisLine = thisLine+" "+tempString;
-		    			thisLine = Trie.formatString(thisLine,true);
-	    			}
-	    		}
-	    		//format the new string
-	    		thisLine = Trie.formatString(thisLine,true);
-	    		if(thisLine.contains(phrase)) {
-	    			returnList.add(currentValue);
-	    		}
-			}  
-		} catch(Exception e) {
-		    e.printStackTrace();
+			}
+			if(matched) {
+				starts[count] = i;
+				count++;
+			}
+		}
+		return Arrays.copyOf(starts, count);
+	}
+	/**
+	 * Answers many phrase and prefix queries together. The words of every phrase and every prefix are
+	 * collected and each distinct one is looked up once, in sorted order so words sharing a prefix share
+	 * the walk down the Trie (see WordIndex.findViews). Results aren't taken from or added to the query cache.
+	 * run-time:O(c*d+p) c=characters of the distinct words and prefixes not shared with the previous
+	 * one in sorted order, d=number of possible characters, p=run-time of matching every phrase (see phraseOccurrence).
+	 * 
+	 * @param batch queries to be answered.
+	 * @return returns a LinkedList with the result of every query in batch order, each the same as
+	 * phraseOccurrence or prefixOccurrence would return.
+	 */
+	public LinkedList<LinkedList<Values>> search(QueryBatch batch) {
+		QueryMetrics recorder = metrics;
+		if(recorder==null||!recorder.isEnabled()) {
+			return computeSearch(batch);
+		}
+		long scanned = recorder.getScanned();
+		long start = System.nanoTime();
+		LinkedList<LinkedList<Values>> result = computeSearch(batch);
+		long nanos = System.nanoTime()-start;
+		long results = 0;
+		for(Node<LinkedList<Values>> i:result) {
+			results += i.element==null?0:i.element.getSize();
+		}
+		recorder.record("search", nanos, recorder.getScanned()-scanned, results);
+		return result;
+	}
+	/**
+	 * Runs search without recording metrics.
+	 */
+	private LinkedList<LinkedList<Values>> computeSearch(QueryBatch batch) {
+		int size = batch.getSize();
+		//formatted words of every phrase (a single word isn't split), formatted prefixes
+		String[][] phraseWords = new String[size][];
+		String[] prefixes = new String[size];
+		HashMap<String,OccurrenceView> wordViews = new HashMap<String,OccurrenceView>();
+		HashMap<String,OccurrenceView> prefixViews = new HashMap<String,OccurrenceView>();
+		for(int i=0;i<size;i++) {
+			String query = batch.getQuery(i);
+			if(batch.isPrefix(i)) {
+				prefixes[i] = Tokenizer.normalize(query);
+				if(prefixes[i]!=null) {
+					prefixViews.put(prefixes[i], null);
+				}
+			}else if(query!=null&&!query.equals("")) {
+				phraseWords[i] = query.split(" ").length==1?new String[] {Tokenizer.normalize(query)}:splitPhrase(query);
+				for(String j:phraseWords[i]) {
+					if(j!=null&&!blank(j)) {
+						wordViews.put(j, null);
+					}
+				}
+			}
+		}
+		findSorted(words, wordViews, false);
+		findSorted(words, prefixViews, true);
+		//words of longer phrases that aren't stored as words might be stop words
+		HashMap<String,OccurrenceView> stopViews = new HashMap<String,OccurrenceView>();
+		for(int i=0;i<size;i++) {
+			if(phraseWords[i]!=null&&phraseWords[i].length>1) {
+				for(String j:phraseWords[i]) {
+					if(blank(j)) {
+						continue;
+					}
+					OccurrenceView occurrences = wordViews.get(j);
+					if(occurrences==null||occurrences.getSize()<1) {
+						stopViews.put(j, null);
+					}
+				}
+			}
+		}
+		findSorted(stopWords, stopViews, false);
+		LinkedList<LinkedList<Values>> returnList = new LinkedList<LinkedList<Values>>();
+		for(int i=0;i<size;i++) {
+			if(batch.isPrefix(i)) {
+				OccurrenceView occurrences = prefixes[i]==null?null:prefixViews.get(prefixes[i]);
+				returnList.add(occurrences==null?new LinkedList<Values>():occurrences.toList());
+			}else if(phraseWords[i]==null) {
+				//empty phrase
+				returnList.add(new LinkedList<Values>());
+			}else if(batch.getQuery(i).split(" ").length==1) {
+				OccurrenceView occurrences = phraseWords[i][0]==null?null:wordViews.get(phraseWords[i][0]);
+				returnList.add(occurrences==null?null:occurrences.toList());
+			}else {
+				returnList.add(batchPhrase(phraseWords[i], wordViews, stopViews));
+			}
 		}
 		return returnList;
 	}
+	/**
+	 * Matches a phrase of a batch with the locations that have already been found.
+	 * run-time:O(k*s*log(r)) see matchPhrase.
+	 */
+	private LinkedList<Values> batchPhrase(String[] phraseWords, HashMap<String,OccurrenceView> wordViews,
+			HashMap<String,OccurrenceView> stopViews) {
+		if(phraseWords.length<1) {
+			return new LinkedList<Values>();
+		}
+		OccurrenceView[] occurrences = new OccurrenceView[phraseWords.length];
+		for(int i=0;i<phraseWords.length;i++) {
+			if(blank(phraseWords[i])) {
+				continue;
+			}
+			occurrences[i] = wordViews.get(phraseWords[i]);
+			if(occurrences[i]==null||occurrences[i].getSize()<1) {
+				occurrences[i] = stopViews.get(phraseWords[i]);
+			}
+			if(occurrences[i]==null) {
+				return new LinkedList<Values>();
+			}
+		}
+		return matchPhrase(phraseWords, occurrences);
+	}
+	/**
+	 * Looks up the keys of a map in sorted order and stores the locations found as their values.
+	 * run-time:O(n*log(n)+f) n=number of keys, f=run-time of WordIndex.findViews.
+	 * 
+	 * @param index index to be searched.
+	 * @param views formatted words to be found, their values are replaced (null if not found).
+	 * @param prefixes find prefix locations (true) or word locations (false).
+	 */
+	private void findSorted(WordIndex<?> index, HashMap<String,OccurrenceView> views, Boolean prefixes) {
+		if(views.isEmpty()) {
+			return;
+		}
+		String[] sorted = views.keySet().toArray(new String[views.size()]);
+		Arrays.sort(sorted);
+		OccurrenceView[] found = index.findViews(sorted, prefixes);
+		for(int i=0;i<sorted.length;i++) {
+			views.put(sorted[i], scanned(found[i]));
+		}
+	}
+	/**
+	 * Splits a phrase into formatted words the same way lines of the words file are split. Words without
+	 * any letters (e.g. "1999") are kept as they are in the phrase so each still takes up a position.
+	 * run-time:O(z) z=characters in the phrase.
+	 * 
+	 * @param phrase phrase to be split.
+	 * @return returns every word of the phrase, formatted if it contains letters.
+	 */
+	private static String[] splitPhrase(String phrase) {
+		Tokenizer tokens = new Tokenizer();
+		tokens.reset(phrase);
+		int count = 0;
+		while(tokens.next()) {
+			count++;
+		}
+		String[] phraseWords = new String[count];
+		tokens.reset(phrase);
+		count = 0;
+		while(tokens.next()) {
+			phraseWords[count] = tokens.length()>0?tokens.word():tokens.token();
+			count++;
+		}
+		return phraseWords;
+	}
+	/**
+	 * run-time:O(1)
+	 * @param word word of a phrase (see splitPhrase).
+	 * @return returns true if the word is made of characters but no letters (formatted words start with
+	 * a letter).
+	 */
+	private static boolean blank(String word) {
+		return word.length()>0&&!Character.isLetter(word.charAt(0));
+	}
+	/**
+	 * Finds the locations of a formatted word of a phrase in either the words or the stop words.
+	 * run-time:O(d*w) d=number of possible characters that can be stored, w=length of word.
+	 * 
+	 * @param word formatted word.
+	 * @return returns the complete word locations or null if the word never appears in the text.
+	 */
+	private OccurrenceView phraseWordView(String word) {
+		OccurrenceView occurrences = scanned(words.findView(word));
+		//the word could be a prefix of another word stored so the node isn't null
+		if(occurrences==null||occurrences.getSize()<1) {
+			//the word might be a stop word
+			occurrences = scanned(stopWords.findView(word));
+		}
+		return occurrences;
+	}
+	/**
+	 * Gets the position of every word in the words file, numbering them the first time it is called.
+	 * Only the first call locks (so the words are numbered once), later calls just read the field.
+	 * run-time:O(c) c=characters in the words file (first call), O(1) after.
+	 * 
+	 * @return returns the positions of every word.
+	 */
+	private TokenPositions getPositions() {
+		TokenPositions found = positions;
+		if(found==null) {
+			synchronized(this) {
+				found = positions;
+				if(found==null) {
+					found = new TokenPositions(allLines);
+					positions = found;
+				}
+			}
+		}
+		return found;
+	}
 	/**
 	 * counts the number of times a word appears in the words file.
 	 * run-time:O(d*w) d=number of possible characters that can be stored, w=length of word.
@@ -255,60 +810,62 @@ public class Builder {
 	 * @return returns the number of times the word appears in the words file.
 	 */
 	public int wordCount(String inputWord) {
-		if(words.findWord(inputWord)==null) {
+		QueryMetrics recorder = metrics;
+		if(recorder==null||!recorder.isEnabled()) {
+			return computeWordCount(inputWord);
+		}
+		long start = System.nanoTime();
+		int count = computeWordCount(inputWord);
+		recorder.record("wordCount", System.nanoTime()-start, 0, 1);
+		return count;
+	}
+	/**
+	 * Runs wordCount without recording metrics.
+	 */
+	private int computeWordCount(String inputWord) {
+		OccurrenceView occurrences = words.findView(inputWord);
+		if(occurrences==null) {
 			return 0;
 		}
-		return words.findWord(inputWord).getSize();
+		return occurrences.getSize();
 	}
 	/**
 	 * Searches the document for lines that contain all the words in the 'words' parameter.
 	 * Implements simple "and" logic when searching for the words.
 	 * The words do not need to be contiguous on the line.
-	 * run-time: O(n*m+n*d*w) n=number of words input, m=average number of times words occur, 
-	 * d=number of possible characters that can be stored, w=length of word.
+	 * run-time: O(n*(d*w+m)+n*r*log(g)) n=number of words input, m=average number of times words occur, 
+	 * d=number of possible characters that can be stored, w=length of word, r=rows of the rarest word,
+	 * g=average rows skipped (see RowPostings.intersect).
 	 * 
 	 * @param words words to be searched
 	 * @return returns a LinkedList of all the lines all the input words occur on.
 	 */
 	public LinkedList<Integer> wordsOnLine(String[] words){
-		LinkedList<Integer> returnList = new LinkedList<Integer>();
-		Iterator<Node<Integer>> itr;
-		if(words.length==1) {
-			return getRows(this.words.findWord(words[0]));
-		}
-		//uses the rows of the first word as a comparer
-		LinkedList<Integer> first = getRows(this.words.findWord(words[0]));
-		LinkedList<LinkedList<Integer>> listOfValues = new LinkedList<LinkedList<Integer>>();
-		int counter = 0;
-		//get a list of every time all of the words in the words array appears in the words file
-		for(String i:words) {
-			if(counter>0) {
-				listOfValues.add(getRows(this.words.findWord(i)));
-			}
-			counter++;
-		}
-		itr = first.iterator();
-		Node<Integer> current;
-		Boolean found;
-		//iterate over the rows the first words occurs on
-		while(itr.hasNext()) {
-			current = itr.next();
-			found = true;
-			Iterator<Node<LinkedList<Integer>>> listItr = listOfValues.iterator();
-			Node<LinkedList<Integer>> currentList;
-			while(listItr.hasNext()) {
-				//checks every word to see if it also occurs on that line
-				currentList = listItr.next();
-				if(!currentList.element.contains(current.element)) {
-					found=false;
-				}
-			}
-			if(found&&!returnList.contains(current.element)) {
-				returnList.add(current.element);
+		return cached("wordsOnLine", () -> QueryCache.key("wordsOnLine", wordSet(words)), () -> computeWordsOnLine(words));
+	}
+	/**
+	 * Runs wordsOnLine without the query cache.
+	 */
+	private LinkedList<Integer> computeWordsOnLine(String[] words){
+		return rowsOfAll(words).toList();
+	}
+	/**
+	 * Finds the rows every input word occurs on.
+	 * run-time:same as wordsOnLine.
+	 * 
+	 * @param words words to be searched.
+	 * @return returns the rows all the input words occur on.
+	 */
+	private RowPostings rowsOfAll(String[] words) {
+		RowPostings[] lists = new RowPostings[words.length];
+		for(int i=0;i<words.length;i++) {
+			lists[i] = RowPostings.of(scanned(this.words.findView(words[i])));
+			if(lists[i].getSize()<1) {
+				//a word that never occurs can't share a line
+				return RowPostings.EMPTY;
 			}
 		}
-
-		return returnList;
+		return RowPostings.intersect(lists);
 	}
 	//TODO
 	/**
@@ -316,199 +873,249 @@ public class Builder {
 	 * and none of the words in the 'wordsExcluded' parameter.
 	 * Implements simple "not" logic when searching for the words.
 	 * The words do not need to be contiguous on the line.
-	 * run-time:O(n+i+x+y) n=words returned by wordsOnLine, i=size of list, x=wordsOnLine run-time,
-	 * y=someWordsOnLine run-time
+	 * run-time:O(x+y+a+g*c) x=wordsOnLine run-time, y=someWordsOnLine run-time, a=rows returned by
+	 * wordsOnLine, g*c=size of the difference (see RowBitmap.andNot).
 	 * 
 	 * @param words Array of words to be searched for.
 	 * @param blockWords Array not words.
 	 * @return returns a LinkedList of rows all the input words occur on that don't contain any not words.
 	 */
 	public LinkedList<Integer> wordsNotOnLine(String[] words, String[] blockWords){
-		LinkedList<Integer> wordsLocation = wordsOnLine(words);
-		LinkedList<Integer> blockWordsLocation = someWordsOnLine(blockWords);
-		LinkedList<Integer> returnList = new LinkedList<Integer>();
-		Iterator<Node<Integer>> itr = wordsLocation.iterator();
-		Node<Integer> counter;
-		while(itr.hasNext()) {
-			counter = itr.next();
-			if(!blockWordsLocation.contains(counter.element)) {
-				returnList.add(counter.element);
-			}
-		}
-		return returnList;
+		return cached("wordsNotOnLine", () -> QueryCache.key("wordsNotOnLine", wordSet(words), wordSet(blockWords)), () -> computeWordsNotOnLine(words, blockWords));
 	}
 	/**
-	 * Takes a List of Values and returns a List of just the rows those values occured on without
-	 * any duplicates.
-	 * 
-	 * @param values List of Values
-	 * @return List of rows
+	 * Runs wordsNotOnLine without the query cache.
 	 */
-	private LinkedList<Integer> getRows(LinkedList<Values> values){
-		LinkedList<Integer> rows = new LinkedList<Integer>();
-		if(values==null) {
-			return rows;
-		}
-		Iterator<Node<Values>> valuesItr = values.iterator();
-		Node<Values> current;
-		while(valuesItr.hasNext()) {
-			current = valuesItr.next();
-			if(!rows.contains(current.element.getRow())) {
-				rows.add(current.element.getRow());
-			}
-		}
-		return rows;
+	private LinkedList<Integer> computeWordsNotOnLine(String[] words, String[] blockWords){
+		RowBitmap rows = RowBitmap.of(rowsOfAll(words));
+		return rows.andNot(rowsOfAny(blockWords)).toList();
 	}
 	/**
 	 * Searches the document for lines that contain any of the words in the 'words' parameter.
 	 * Implements simple "or" logic when searching for the words.
 	 * The words do not need to be contiguous on the line.
-	 * run-time:O(n*(d+w+o)) n=number of words input, d=number of possible characters that can be stored,
-	 * w=length of word, o=number of word occurrences, o=items in the list.
+	 * run-time:O(n*(d*w+o+g*c)) n=number of words input, d=number of possible characters that can be stored,
+	 * w=length of word, o=number of word occurrences, g*c=size of the union (see RowBitmap.or).
 	 * 
 	 * @param words Array of words to be searched for.
-	 * @return returns the lines that contain at least one of the words input.
+	 * @return returns the lines that contain at least one of the words input in ascending order.
+	 */
+	public LinkedList<Integer> someWordsOnLine(String[] words){
+		return cached("someWordsOnLine", () -> QueryCache.key("someWordsOnLine", wordSet(words)), () -> computeSomeWordsOnLine(words));
+	}
+	/**
+	 * Runs someWordsOnLine without the query cache.
 	 */
-	public LinkedList<Integer> someWordsOnLine(String[] words) {
-		LinkedList<Integer> tempList = new LinkedList<Integer>();
-		Iterator<Node<Values>> itr;
-		Node<Values> tempNode;
+	private LinkedList<Integer> computeSomeWordsOnLine(String[] words){
+		return rowsOfAny(words).toList();
+	}
+	/**
+	 * Finds the rows any of the input words occur on.
+	 * run-time:same as someWordsOnLine.
+	 * 
+	 * @param words words to be searched.
+	 * @return returns the rows at least one of the input words occurs on.
+	 */
+	private RowBitmap rowsOfAny(String[] words) {
+		RowBitmap rows = new RowBitmap();
 		for(String i:words) {
-			if(this.words.findWord(i)!=null) {
-				itr = this.words.findWord(i).iterator();
-				while(itr.hasNext()) {
-					tempNode = itr.next();
-					if(!tempList.contains(tempNode.element.getRow())) {
-						tempList.add(tempNode.element.getRow());
-					}
-				}
+			OccurrenceView occurrences = scanned(this.words.findView(i));
+			if(occurrences!=null&&occurrences.getSize()>0) {
+				rows = rows.or(RowBitmap.of(occurrences));
 			}
 		}
-		return tempList;
+		return rows;
 	}
 	/**
-	 * retrieves the start and end of every (in a pair) of every index in the input indexes.
-	 * run-time:O(n*m) n=number of indexes, m=number of stored indexes
+	 * Finds the ids of the sections with the input titles.
+	 * run-time:O(n*t) n=number of titles, t=length of a title.
 	 * 
-	 * @param indexes
-	 * @return
+	 * @param indexes titles of the sections.
+	 * @return returns the ids of the sections in the order of the titles (titles that aren't found are
+	 * left out) or null if no titles were input.
 	 */
-	private LinkedList<Pair<Integer,Integer>> getIndexLines(String[] indexes){
-		LinkedList<Pair<Integer,Integer>> indexLines = new LinkedList<>();
-		if(indexes!=null) {
-			if(indexes.length>0) {
-				for(String i:indexes) {
-					for(Node<Pair<String,Integer>> y:index) {
-						if(i.equals(y.element.getLeftValue())) {
-							//found index
-							if(y.next==null) {
-								//next is null, set lower bound to end of document
-								indexLines.add(new Pair<Integer,Integer>(y.element.getRightValue(),lineCounter+1));
-							}else {
-								//next is not null, set lower bound to the end of the section
-								indexLines.add(new Pair<Integer,Integer>(y.element.getRightValue(),y.next.element.getRightValue()));
-							}
-							break;
-						}
-					}
-				}
-			}else {return null;}
-		}else {return null;}
-		return indexLines;
+	private int[] getIndexLines(String[] indexes){
+		if(indexes==null||indexes.length<1) {
+			return null;
+		}
+		int[] found = new int[indexes.length];
+		int counter = 0;
+		for(String i:indexes) {
+			int section = sections.find(i);
+			if(section>=0) {
+				found[counter] = section;
+				counter++;
+			}
+		}
+		return trim(found, counter);
 	}
 	/**
-	 * Checks if a number is between any pair of numbers within a List of Pairs but not equal to 
-	 * the latter of the pair. (e.g. pair.first<=number&&number<pair.second) true if this condition
-	 * is satisfied for any of the pairs in the input.
-	 * run-time:O(n) n=number of input indexes
+	 * Gets the ids of every section.
+	 * run-time:O(s) s=number of sections.
 	 * 
-	 * @param bounds List of Pairs.
-	 * @param number number to be compared.
-	 * @return returns true if the number of between any of the input pairs.
+	 * @return returns the ids of every section in file order.
 	 */
-	private Boolean inBounds(LinkedList<Pair<Integer,Integer>> bounds, Integer number) {
-		if(bounds==null) {
-			return true;
+	private int[] allSections() {
+		int[] all = new int[sections.getSize()];
+		for(int i=0;i<all.length;i++) {
+			all[i] = i;
+		}
+		return all;
+	}
+	/**
+	 * Marks the input sections so rows can be checked against them in constant time.
+	 * run-time:O(s) s=number of sections.
+	 * 
+	 * @param selected ids of the sections.
+	 * @return returns a flag for every section or null if every row is allowed (no sections were input
+	 * or none of the input titles were found).
+	 */
+	private boolean[] sectionMask(int[] selected) {
+		if(selected==null||selected.length<1) {
+			return null;
 		}
-		if(bounds.getSize()<1) {
+		boolean[] mask = new boolean[sections.getSize()];
+		for(int i:selected) {
+			mask[i] = true;
+		}
+		return mask;
+	}
+	/**
+	 * Checks if a row is in any of the marked sections.
+	 * run-time:O(1)
+	 * 
+	 * @param mask flags of the allowed sections, null allows every row.
+	 * @param row row to be checked.
+	 * @return returns true if the row is in an allowed section.
+	 */
+	private Boolean inBounds(boolean[] mask, int row) {
+		if(mask==null) {
 			return true;
 		}
-		if(number==null) {
-			return false;
+		int section = sections.sectionOf(row);
+		return section>=0&&mask[section];
+	}
+	/**
+	 * Marks the sections a word occurs in.
+	 * run-time:O(d*w+o+s) d=number of possible characters that can be stored, w=length of word,
+	 * o=number of occurrences, s=number of sections.
+	 * 
+	 * @param word word to be searched.
+	 * @return returns a flag for every section that is true if the word occurs in it.
+	 */
+	private boolean[] sectionsOf(String word) {
+		boolean[] found = new boolean[sections.getSize()];
+		OccurrenceView occurrences = scanned(words.findView(word));
+		if(occurrences!=null) {
+			OccurrenceCursor itr = occurrences.cursor();
+			while(itr.next()) {
+				int section = sections.sectionOf(itr.row());
+				if(section>=0) {
+					found[section] = true;
+				}
+			}
 		}
-		Iterator<Node<Pair<Integer,Integer>>> itr = bounds.iterator();
-		Node<Pair<Integer,Integer>> tempNode;
-		while(itr.hasNext()) {
-			tempNode = itr.next();
-			if(withinBound(tempNode.element,number)) {
-			//if(tempNode.element.getLeftValue()<number&&number<tempNode.element.getRightValue()) {
-				return true;
+		return found;
+	}
+	/**
+	 * Marks the sections the input rows are in.
+	 * run-time:O(r+s) r=number of rows, s=number of sections.
+	 * 
+	 * @param rows rows to be looked up.
+	 * @return returns a flag for every section that is true if one of the rows is in it.
+	 */
+	private boolean[] sectionsOf(LinkedList<Integer> rows) {
+		boolean[] found = new boolean[sections.getSize()];
+		for(Node<Integer> i:rows) {
+			int section = sections.sectionOf(i.element);
+			if(section>=0) {
+				found[section] = true;
 			}
 		}
-		return false;
+		return found;
 	}
 	/**
-	 * check if a number is between a pair of numbers.
-	 * run-time:O(1)
+	 * Keeps the sections that are (or aren't) marked.
+	 * run-time:O(c) c=number of candidate sections.
 	 * 
-	 * @param bound pair of numbers.
-	 * @param number Integer to check.
-	 * @return returns true if the Integer is between the pair of Integers but not equal to the latter
-	 * Integer
+	 * @param candidates ids of the sections to be filtered.
+	 * @param marked flag for every section.
+	 * @param keepMarked keep the marked sections (true) or the unmarked sections (false).
+	 * @return returns the ids of the kept sections in the same order.
 	 */
-	private Boolean withinBound(Pair<Integer,Integer> bound, Integer number) {
-		if(bound.getLeftValue()<=number&&number<bound.getRightValue()) {
-			return true;
+	private int[] filterSections(int[] candidates, boolean[] marked, Boolean keepMarked) {
+		int[] kept = new int[candidates.length];
+		int counter = 0;
+		for(int i:candidates) {
+			if(marked[i]==keepMarked) {
+				kept[counter] = i;
+				counter++;
+			}
 		}
-		return false;
+		return trim(kept, counter);
+	}
+	/**
+	 * Keeps the sections every word occurs in.
+	 * run-time:O(n*(d*w+o+s)) n=number of words input, d=number of possible characters that can be stored,
+	 * w=length of word, o=average number of times the words occurred, s=number of sections.
+	 * 
+	 * @param words words that must all be in a section.
+	 * @param candidates ids of the sections to be filtered, null for every section.
+	 * @return returns the ids of the sections that contain every word.
+	 */
+	private int[] sectionsWithAll(String[] words, int[] candidates) {
+		int[] kept = candidates==null?allSections():candidates;
+		for(String i:words) {
+			if(kept.length<1) {
+				break;
+			}
+			kept = filterSections(kept, sectionsOf(i), true);
+		}
+		return kept;
+	}
+	/**
+	 * Shortens an array.
+	 * run-time:O(n) n=length kept.
+	 * 
+	 * @param array array to be shortened.
+	 * @param length number of items to keep.
+	 * @return returns the array if nothing is removed or a copy of the first length items.
+	 */
+	private static int[] trim(int[] array, int length) {
+		if(length==array.length) {
+			return array;
+		}
+		int[] trimmed = new int[length];
+		System.arraycopy(array, 0, trimmed, 0, length);
+		return trimmed;
 	}
 	/**
 	 * Searches the document for sections that contain all the words in the 'words' parameter.
 	 * Implements simple "and" logic when searching for the words.
 	 * The words do not need to be on the same lines.
-	 * run-time:O(g+n*d*w+i*o+s) g=getIndexLines run-time, n=number of words input,
+	 * run-time:O(g+n*(d*w+o+i)+s) g=getIndexLines run-time, n=number of words input,
 	 * d=number of possible characters that can be stored, w=length of word
 	 * i=number of index entries, o=average number of times the words occurred
 	 * s=run-time of simpleOrSearch.
-	 * (getIndexLines, search for every word input, iterate over every index and words rows,simpleOrSearch)
+	 * (getIndexLines, mark the sections of every word input, filter the sections, simpleOrSearch)
 	 * 
 	 * @param words
-	 * @param indexes
+	 * @param indexes titles of the sections to search (null searches every section).
 	 * @return
 	 */
 	public LinkedList<Triple<Integer,Integer,String>> simpleAndSearch(String[] words, String[] indexes){
-		LinkedList<Pair<Integer,Integer>> indexLines = getIndexLines(indexes);
-		return simpleAndSearch(words,indexLines);
+		return cached("simpleAndSearch", () -> QueryCache.key("simpleAndSearch", list(words), list(indexes)), () -> computeSimpleAndSearch(words, indexes));
+	}
+	/**
+	 * Runs simpleAndSearch without the query cache.
+	 */
+	private LinkedList<Triple<Integer,Integer,String>> computeSimpleAndSearch(String[] words, String[] indexes){
+		return simpleAndSearch(words,getIndexLines(indexes));
 	}
 
-	private LinkedList<Triple<Integer,Integer,String>> simpleAndSearch(String[] words, LinkedList<Pair<Integer,Integer>> indexes){
-		LinkedList<Pair<Integer,Integer>> newIndexLines = new LinkedList<>();
-		LinkedList<LinkedList<Integer>> values = new LinkedList<LinkedList<Integer>>();
-		for(String j:words) {
-			values.add(getRows(this.words.findWord(j)));
-		}
-		Boolean wordWithin = false;
-		Boolean wordsWithin = true;
-		for(Node<Pair<Integer,Integer>> i:indexes) {
-			wordsWithin=true;
-			for(Node<LinkedList<Integer>> m:values) {
-				for(Node<Integer> q:m.element) {
-					if(withinBound(i.element,q.element)) {
-						wordWithin = true;
-						break;
-					}
-				}
-				if(!wordWithin) {
-					wordsWithin = false;
-					break;
-				}
-				wordWithin = false;
-			}
-			if(wordsWithin) {
-				newIndexLines.add(i.element);
-			}
-		}
-		if(newIndexLines.getSize()<1) {
+	private LinkedList<Triple<Integer,Integer,String>> simpleAndSearch(String[] words, int[] indexes){
+		int[] newIndexLines = sectionsWithAll(words, indexes);
+		if(newIndexLines.length<1) {
 			return new LinkedList<Triple<Integer,Integer,String>>();
 		}
 		return simpleOrSearch(words,newIndexLines);
@@ -517,36 +1124,40 @@ public class Builder {
 	 * Searches the document for sections that contain any of the words in the 'words' parameter.
 	 * Implements simple "or" logic when searching for the words.
 	 * The words do not need to be on the same lines.
-	 * run-time:O(g+n*(d*w+i)) g=getIndexLines run-time, n=number of words input,
+	 * run-time:O(g+i+n*(d*w+o)) g=getIndexLines run-time, n=number of words input,
 	 * d=number of possible characters that can be stored, w=length of word
-	 * i=number of indexes
-	 * (getIndexLines, search for n words, run Inbounds n times)
+	 * i=number of indexes, o=average number of times the words occurred
+	 * (getIndexLines, mark the indexes, search for n words and look up the section of every occurrence)
 	 * 
 	 * @param words Array of words to be searched.
 	 * @param indexes array of indexes.
 	 * @return returns all occurrences of the words in words within the specified indexes.
 	 */
 	public LinkedList<Triple<Integer,Integer,String>> simpleOrSearch(String[] words, String[] indexes){
-		LinkedList<Pair<Integer,Integer>> indexLines = getIndexLines(indexes);
-		return simpleOrSearch(words,indexLines);
+		return cached("simpleOrSearch", () -> QueryCache.key("simpleOrSearch", list(words), list(indexes)), () -> computeSimpleOrSearch(words, indexes));
+	}
+	/**
+	 * Runs simpleOrSearch without the query cache.
+	 */
+	private LinkedList<Triple<Integer,Integer,String>> computeSimpleOrSearch(String[] words, String[] indexes){
+		return simpleOrSearch(words,getIndexLines(indexes));
 	}
 
-	private LinkedList<Triple<Integer,Integer,String>> simpleOrSearch(String[] words, LinkedList<Pair<Integer,Integer>> indexes){
+	private LinkedList<Triple<Integer,Integer,String>> simpleOrSearch(String[] words, int[] indexes){
 		LinkedList<Triple<Integer,Integer,String>> returnList = new LinkedList<>();
-		LinkedList<Pair<Integer,Integer>> indexLines = indexes;
-		Iterator<Node<Values>> itr;
-		Node<Values> tempNode;
+		boolean[] mask = sectionMask(indexes);
+		OccurrenceCursor itr;
+		OccurrenceView occurrences;
 		for(String i:words) {
-			TrieNode tempTrieNode = this.words.find(i);
-			if(tempTrieNode!=null) {
-				itr = tempTrieNode.getCompleteWords().iterator();
+			occurrences = scanned(this.words.findView(i));
+			if(occurrences!=null) {
+				itr = occurrences.cursor();
 			}else {
 				continue;
 			}
-			while(itr.hasNext()) {
-				tempNode = itr.next();
-				if(inBounds(indexLines,tempNode.element.getRow())) {
-					returnList.add(new Triple<Integer,Integer,String>(tempNode.element.getRow(),tempNode.element.getColumn(),i));
+			while(itr.next()) {
+				if(inBounds(mask,itr.row())) {
+					returnList.add(new Triple<Integer,Integer,String>(itr.row(),itr.column(),i));
 				}
 			}
 		}
@@ -557,37 +1168,28 @@ public class Builder {
 	 * and none of the words in the 'wordsExcluded' parameter.
 	 * Implements simple "not" logic when searching for the words.
 	 * The words do not need to be on the same lines.
-	 * run-time:O(s+g+i*w) s=someWordsOnLine run-time, g=getIndexLines run-time, i=number of indexes,
-	 * w=number of rows returned from someWordsOnLine
-	 * (someWordsOnLine run-time, getIndexLines run-time, iterate over every Index and every row returned by someWordsOnLine)
+	 * run-time:O(s+g+i+w+a) s=someWordsOnLine run-time, g=getIndexLines run-time, i=number of indexes,
+	 * w=number of rows returned from someWordsOnLine, a=simpleAndSearch run-time
+	 * (someWordsOnLine run-time, getIndexLines run-time, mark the section of every row returned by
+	 * someWordsOnLine, filter the indexes, simpleAndSearch)
 	 * 
 	 * @param words
-	 * @param indexes
+	 * @param indexes titles of the sections to search (null searches every section).
 	 * @param excludedWords
 	 * @return
 	 */
 	public LinkedList<Triple<Integer,Integer,String>> simpleNotSearch(String[] words, String[] indexes, String[] excludedWords){
+		return cached("simpleNotSearch", () -> QueryCache.key("simpleNotSearch", list(words), list(indexes), list(excludedWords)), () -> computeSimpleNotSearch(words, indexes, excludedWords));
+	}
+	/**
+	 * Runs simpleNotSearch without the query cache.
+	 */
+	private LinkedList<Triple<Integer,Integer,String>> computeSimpleNotSearch(String[] words, String[] indexes, String[] excludedWords){
 		//simpleAndSearch will exclude all titles that contain a word in excludedWords
 		LinkedList<Integer> rows = someWordsOnLine(excludedWords);
-		LinkedList<Pair<Integer,Integer>> indexLines = getIndexLines(indexes);
-		if(rows!=null) {
-			if(rows.getSize()>0) {
-				LinkedList<Pair<Integer,Integer>> tempIndexLines = new LinkedList<>();
-				Boolean between = false;
-				for(Node<Pair<Integer,Integer>> i:indexLines) {
-					for(Node<Integer> j:rows) {
-						if(withinBound(i.element,j.element)) {
-							between = true;
-							break;
-						}
-					}
-					if(!between) {
-						tempIndexLines.add(i.element);
-					}
-					between = false;
-				}
-				indexLines = tempIndexLines;
-			}
+		int[] indexLines = getIndexLines(indexes);
+		if(rows.getSize()>0) {
+			indexLines = filterSections(indexLines==null?allSections():indexLines, sectionsOf(rows), false);
 		}
 		return simpleAndSearch(words,indexLines);
 	}
@@ -596,70 +1198,36 @@ public class Builder {
 	 * and at least one of the words in the 'orWords' parameter.
 	 * Implements simple compound "and/or" logic when searching for the words.
 	 * The words do not need to be on the same lines.
-	 * run-time:O(s+g+i*w+i*o+n*d*w+e) s=someWordsOnLine run-time, g=getIndexLines run-time,
+	 * run-time:O(s+g+i+w+n*(d*w+o+i)+e) s=someWordsOnLine run-time, g=getIndexLines run-time,
 	 * i=number of index entries, o=average number of times the words occurred,
 	 * n=number of words input, d=number of possible characters that can be stored, w=length of word,
 	 * w=number of Integers returned from someWordsOnline, e=number of results at the end)
 	 * 
-	 * (someWordsOnLine run-time, getIndexLines run-time, Iterate over the indexes and rows returned by someWordsOnLine,
-	 * find values for every input word, iterate over every index and result of finding all values for all input words,
-	 * iterate over results to copy)
+	 * (someWordsOnLine run-time, getIndexLines run-time, mark the section of every row returned by
+	 * someWordsOnLine, mark the sections of every input word, filter the indexes, simpleOrSearch)
 	 * 
 	 * @param words
-	 * @param indexes
+	 * @param indexes titles of the sections to search (null searches every section).
 	 * @param orWords
 	 * @return
 	 */
 	public LinkedList<Triple<Integer,Integer,String>> compoundAndOrSearch(String[] words, String[] indexes, String[] orWords){
+		return cached("compoundAndOrSearch", () -> QueryCache.key("compoundAndOrSearch", list(words), list(indexes), list(orWords)), () -> computeCompoundAndOrSearch(words, indexes, orWords));
+	}
+	/**
+	 * Runs compoundAndOrSearch without the query cache.
+	 */
+	private LinkedList<Triple<Integer,Integer,String>> computeCompoundAndOrSearch(String[] words, String[] indexes, String[] orWords){
 		LinkedList<Integer> rows = someWordsOnLine(orWords);
-		LinkedList<Pair<Integer,Integer>> indexLines = getIndexLines(indexes);
+		int[] indexLines = getIndexLines(indexes);
 		//or algorithm
-		LinkedList<Pair<Integer,Integer>> tempIndexLines;
-		if(rows!=null) {
-			if(rows.getSize()>0) {
-				tempIndexLines = new LinkedList<>();
-				Boolean between = false;
-				for(Node<Pair<Integer,Integer>> i:indexLines) {
-					for(Node<Integer> j:rows) {
-						if(withinBound(i.element,j.element)) {
-							between = true;
-							break;
-						}
-					}
-					if(between) {
-						tempIndexLines.add(i.element);
-					}
-					between = false;
-				}
-				indexLines = tempIndexLines;
-			}
+		if(rows.getSize()>0) {
+			indexLines = filterSections(indexLines==null?allSections():indexLines, sectionsOf(rows), true);
 		}
 		//and algorithm
-		LinkedList<LinkedList<Integer>> values = new LinkedList<LinkedList<Integer>>();
-		for(String j:words) {
-			values.add(getRows(this.words.findWord(j)));
-		}
-		Boolean wordWithin = false;
-		Boolean wordsWithin = true;
-		tempIndexLines = new LinkedList<>();
-		for(Node<Pair<Integer,Integer>> i:indexLines) {
-			wordsWithin=true;
-			for(Node<LinkedList<Integer>> m:values) {
-				for(Node<Integer> q:m.element) {
-					if(withinBound(i.element,q.element)) {
-						wordWithin = true;
-						break;
-					}
-				}
-				if(!wordWithin) {
-					wordsWithin = false;
-					break;
-				}
-				wordWithin = false;
-			}
-			if(wordsWithin) {
-				tempIndexLines.add(i.element);
-			}
+		int[] tempIndexLines = sectionsWithAll(words, indexLines);
+		if(tempIndexLines.length<1) {
+			return new LinkedList<Triple<Integer,Integer,String>>();
 		}
 		//build new array to return
 		LinkedList<String> tempLinkedList = new LinkedList<>();
@@ -682,38 +1250,163 @@ public class Builder {
 		//the titles have been limited to only those that contain at least 1 of the words in orWords
 		return simpleOrSearch(tempArray,tempIndexLines);
 	}
-	/**
-	 * Counts the number of spaces that are not touching other spaces in a string.
-	 * @param string String to be counted.
-	 * @param index index to stop at.
-	 * @return returns the number of spaces not touching other spaces in the input string.
-	 */
-	private int countSpaces(String string, int index) {
-		char[] wordArray = string.toCharArray();
-		int counter = 0;
-		Boolean lastSpace = false;
-		for(int i=0;i<index&&i<wordArray.length;i++) {
-			if(wordArray[i]==' '&&!lastSpace) {
-				counter++;
-				lastSpace=true;
-			}else {
-				lastSpace=false;
-			}
-		}
-		return counter;
-	}
 	/**
 	 * Returns prefix occurrences.
-	 * run-time:O(d*w) d=number of possible characters that can be stored, w=length of word.
+	 * run-time:O(d*w) d=number of possible characters that can be stored, w=length of word
+	 * (plus merging the words below the prefix if prefixes aren't stored).
 	 * 
 	 * @param string prefix to be searched.
 	 * @return returns a LinkedList of values containing the starting points of all prefix occurences.
 	 */
 	public LinkedList<Values> prefixOccurrence(String string){
-		TrieNode tempNode = words.find(string);
-		if(tempNode==null) {
+		return cached("prefixOccurrence", () -> QueryCache.key("prefixOccurrence", Tokenizer.normalize(string)), () -> computePrefixOccurrence(string));
+	}
+	/**
+	 * Runs prefixOccurrence without the query cache.
+	 */
+	private LinkedList<Values> computePrefixOccurrence(String string){
+		OccurrenceView occurrences = scanned(words.prefixView(string));
+		if(occurrences==null) {
 			return new LinkedList<Values>();
 		}
-		return tempNode.getValues();
+		return occurrences.toList();
+	}
+	/**
+	 * Finds the words within an edit distance of a word (see TermSearch.fuzzy), so misspelt words can
+	 * still be found. Stop words aren't matched.
+	 * run-time:O(v*m) v=TrieNodes within the edit distance of a prefix of the word, m=length of the word.
+	 * 
+	 * @param word word to be searched for.
+	 * @param maxDistance largest number of inserted, removed or changed characters.
+	 * @return returns a LinkedList of the matching words and their locations, closest first.
+	 */
+	public LinkedList<TermMatch> fuzzyOccurrence(String word, int maxDistance){
+		return cached("fuzzyOccurrence", () -> QueryCache.key("fuzzyOccurrence", Tokenizer.normalize(word), String.valueOf(maxDistance)),
+				() -> TermSearch.fuzzy(words, word, maxDistance));
+	}
+	/**
+	 * Finds the most frequent words starting with a prefix (see TermSearch.complete), e.g. to suggest
+	 * words as they are typed. Stop words aren't suggested.
+	 * run-time:O(p*log(d)+k*d*log(k*d)) p=length of the prefix, d=number of possible characters.
+	 * 
+	 * @param prefix prefix of the words.
+	 * @param k most words to return.
+	 * @return returns a LinkedList of up to k words and their locations, most frequent first.
+	 */
+	public LinkedList<TermMatch> topCompletions(String prefix, int k){
+		return cached("topCompletions", () -> QueryCache.key("topCompletions", Tokenizer.normalize(prefix), String.valueOf(k)),
+				() -> TermSearch.complete(words, prefix, k));
+	}
+	/**
+	 * Finds the words matching a wildcard pattern such as "inter*tion", "?at" or "[bc]at" (see
+	 * TermSearch.match for the syntax). Stop words aren't matched.
+	 * run-time:O(v*p) v=TrieNodes on a path the pattern can still match, p=length of the pattern.
+	 * 
+	 * @param pattern pattern of the words.
+	 * @return returns a LinkedList of the matching words and their locations in word order.
+	 */
+	public LinkedList<TermMatch> patternOccurrence(String pattern){
+		return cached("patternOccurrence", () -> QueryCache.key("patternOccurrence", pattern==null?null:pattern.toLowerCase()),
+				() -> TermSearch.match(words, pattern));
+	}
+	/**
+	 * Expands a wildcard pattern into the words it matches so they can be searched with the other
+	 * queries, e.g. someWordsOnLine(expandPattern("inter*")) finds the lines with any word starting
+	 * with "inter" and simpleOrSearch(expandPattern("?at"), indexes) finds them within sections.
+	 * run-time:same as patternOccurrence.
+	 * 
+	 * @param pattern pattern of the words.
+	 * @return returns the matching formatted words in word order.
+	 */
+	public String[] expandPattern(String pattern) {
+		LinkedList<TermMatch> matches = patternOccurrence(pattern);
+		String[] terms = new String[matches.getSize()];
+		int counter = 0;
+		for(Node<TermMatch> i:matches) {
+			terms[counter] = i.element.getTerm();
+			counter++;
+		}
+		return terms;
+	}
+	/**
+	 * Estimates the heap used by the words and stop words Tries, the lines of the words file and the
+	 * section index (see FootprintReport). Each Trie is measured in one walk without copying it, so
+	 * this is cheap enough to run on a built Builder, but it must not run at the same time as appendLines.
+	 * run-time:O(n+l+s) n=number of Trie nodes, l=lines in the words file, s=number of sections.
+	 * 
+	 * @return returns the footprint of the Builder.
+	 */
+	public FootprintReport footprint() {
+		//front, end and size of the list and a Node, Pair and Integer for every section (the titles are shared)
+		long indexBytes = IndexFootprint.objectBytes(2*IndexFootprint.REFERENCE+4)+index.getSize()
+				*(IndexFootprint.objectBytes(3*IndexFootprint.REFERENCE)+IndexFootprint.objectBytes(2*IndexFootprint.REFERENCE)
+				+IndexFootprint.objectBytes(4));
+		return new FootprintReport(IndexFootprint.of(words), IndexFootprint.of(stopWords), allLines.heapBytes(),
+				sections.heapBytes()+indexBytes);
+	}
+	/**
+	 * Compresses the stored prefix and word locations of both Tries. Useful once the words file has been
+	 * read as the index is no longer added to.
+	 * run-time:O(n) n=number of stored locations.
+	 */
+	public void compressPostings() {
+		words.compressPostings();
+		stopWords.compressPostings();
+	}
+	/**
+	 * Freezes both Tries into FrozenTries (see Trie.freeze) which answer the same queries with far less
+	 * heap. Nothing can be added to the index afterwards.
+	 * run-time:O(n+o) n=number of TrieNodes, o=number of stored locations.
+	 * 
+	 * @throws IllegalStateException if the words are stored in a RadixTrie.
+	 */
+	public void freeze() {
+		if(words instanceof FrozenTrie) {
+			return;
+		}
+		if(!(words instanceof Trie)) {
+			throw new IllegalStateException("Only a Trie can be frozen");
+		}
+		words = ((Trie)words).freeze();
+		stopWords = ((Trie)stopWords).freeze();
+	}
+	/**
+	 * Adds lines to the end of the words file without reading it again. The new lines are numbered after
+	 * the existing lines, their words are added to the Tries and the last section grows to cover them.
+	 * Cached query results are cleared. Can't be used once the index is frozen.
+	 * run-time:O(z*e*d) z=characters in the new lines, e=possible characters to store, d=number of children
+	 * (plus numbering the new words if phrases have been searched).
+	 * 
+	 * @param lines lines to be added in order.
+	 * @throws IllegalArgumentException if a line is null or contains a line break.
+	 * @throws IllegalStateException if the index is frozen.
+	 */
+	public void appendLines(String[] lines) {
+		if(lines==null) {
+			throw new IllegalArgumentException("The lines cannot be null");
+		}
+		for(String i:lines) {
+			if(i==null||i.indexOf('\n')>=0||i.indexOf('\r')>=0) {
+				throw new IllegalArgumentException("A line cannot be null or contain a line break");
+			}
+		}
+		if(words instanceof FrozenTrie||stopWords instanceof FrozenTrie) {
+			throw new IllegalStateException("A frozen index cannot be added to");
+		}
+		int first = lineCounter;
+		Tokenizer tokens = new Tokenizer();
+		StopWordSet stopWordSet = ((Trie)stopWords).stopWordSet();
+		for(String i:lines) {
+			allLines.add(i);
+			lineCounter++;
+			addWord(words, stopWordSet, tokens, i, lineCounter);
+		}
+		sections.addLines(lineCounter);
+		if(positions!=null) {
+			positions.addLines(allLines, first);
+		}
+		if(queryCache!=null) {
+			queryCache.clear();
+		}
 	}
 }
@@ -0,0 +1,364 @@
+package MyADTS;
+
+import java.io.FileNotFoundException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+
+import comp3506.assn2.utils.Pair;
+import comp3506.assn2.utils.Triple;
+/**
+ * Indexes many words files (documents) with one set of stop words and answers every Builder query over
+ * all of them at once. Each document is stored in its own Builder and gets an id (0, 1, 2...) in the
+ * order it was added. The stop words file is read once, every document only gets a copy of the stop
+ * word Trie's nodes to hold its own stop word occurrences.
+ * Queries are run on every document in parallel on a ForkJoinPool and the results are returned as
+ * Pairs of document id and result, ordered by document id and then in the order the Builder returns them.
+ * Like Builder, any number of threads can query a Corpus at once but documents must not be added at
+ * the same time as queries.
+ * memory-usage:O(d+b) d=number of documents, b=memory usage of every Builder.
+ *
+ * @author Riley De Leacy
+ *
+ */
+public class Corpus {
+	//stop words without occurrences, copied for every document
+	private final Trie stopWords;
+	private final IndexOptions options;
+	private final ForkJoinPool pool;
+	//documents by id
+	private Builder[] documents;
+	private int size;
+	/**
+	 * Creates a new instance of Corpus with the default index options and one thread per processor.
+	 * run-time:O(s*q*a) s=lines in stop word file, q=length of word, a=possible characters to store.
+	 *
+	 * @param stopWordsFile file containing words that will not be stored.
+	 * @throws FileNotFoundException if the stop words file could not be read.
+	 */
+	public Corpus(String stopWordsFile) throws FileNotFoundException {
+		this(stopWordsFile, new IndexOptions(), Runtime.getRuntime().availableProcessors());
+	}
+	/**
+	 * Creates a new instance of Corpus.
+	 * run-time:O(s*q*a) s=lines in stop word file, q=length of word, a=possible characters to store.
+	 *
+	 * @param stopWordsFile file containing words that will not be stored.
+	 * @param options how the index of every document is stored.
+	 * @param parallelism number of threads documents are added and queried on.
+	 * @throws FileNotFoundException if the stop words file could not be read.
+	 */
+	public Corpus(String stopWordsFile, IndexOptions options, int parallelism) throws FileNotFoundException {
+		if(options==null) {
+			throw new IllegalArgumentException("The options cannot be null");
+		}
+		if(parallelism<1) {
+			throw new IllegalArgumentException("The parallelism must be at least 1");
+		}
+		stopWords = Builder.readStopWords(stopWordsFile);
+		this.options = options;
+		pool = new ForkJoinPool(parallelism);
+		documents = new Builder[16];
+		size = 0;
+	}
+	/**
+	 * Adds a document.
+	 * run-time:same as Builder(file, stopWordsFile, indexFile) without reading the stop words.
+	 *
+	 * @param file file containing words to be stored.
+	 * @param indexFile file containing the index of the words file (may be null).
+	 * @return returns the id of the document.
+	 * @throws FileNotFoundException if a file could not be read.
+	 */
+	public int addDocument(String file, String indexFile) throws FileNotFoundException {
+		return addDocument(new Builder(file, stopWords.copyWords(), indexFile, options));
+	}
+	/**
+	 * Adds a document that has already been built (e.g. opened with Builder.open).
+	 * run-time:O(1) amortised.
+	 *
+	 * @param document document to be added.
+	 * @return returns the id of the document.
+	 */
+	public synchronized int addDocument(Builder document) {
+		if(document==null) {
+			throw new IllegalArgumentException("The document cannot be null");
+		}
+		Builder[] current = documents;
+		if(size==current.length) {
+			Builder[] newDocuments = new Builder[current.length*2];
+			System.arraycopy(current, 0, newDocuments, 0, size);
+			current = newDocuments;
+		}
+		current[size] = document;
+		size++;
+		documents = current;
+		return size-1;
+	}
+	/**
+	 * Adds several documents, building them in parallel.
+	 * run-time:O(b/t) b=run-time of building every document, t=parallelism.
+	 *
+	 * @param files files containing words to be stored.
+	 * @param indexFiles files containing the index of each words file (may be null or hold nulls).
+	 * @return returns the id of the first document, the others follow in order.
+	 * @throws FileNotFoundException if a file could not be read, no documents are added.
+	 */
+	public int addDocuments(String[] files, String[] indexFiles) throws FileNotFoundException {
+		if(files==null||(indexFiles!=null&&indexFiles.length!=files.length)) {
+			throw new IllegalArgumentException("There must be one index file for every file");
+		}
+		FileNotFoundException[] errors = new FileNotFoundException[files.length];
+		Builder[] built = new Builder[files.length];
+		pool.invoke(new FanOut<Builder>(built, 0, files.length, threshold(files.length), i -> {
+			try {
+				return new Builder(files[i], stopWords.copyWords(), indexFiles==null?null:indexFiles[i], options);
+			}catch(FileNotFoundException e) {
+				errors[i] = e;
+				return null;
+			}
+		}));
+		for(FileNotFoundException i:errors) {
+			if(i!=null) {
+				throw i;
+			}
+		}
+		synchronized(this) {
+			int first = size;
+			for(Builder i:built) {
+				addDocument(i);
+			}
+			return first;
+		}
+	}
+	/**
+	 * run-time:O(1)
+	 * @param document id of the document.
+	 * @return returns the Builder storing the document.
+	 */
+	public synchronized Builder getDocument(int document) {
+		if(document<0||document>=size) {
+			throw new IndexOutOfBoundsException("There is no document "+document);
+		}
+		return documents[document];
+	}
+	/**
+	 * run-time:O(1)
+	 * @return returns the number of documents.
+	 */
+	public synchronized int getSize() {
+		return size;
+	}
+	/**
+	 * Stops the threads queries are run on, the Corpus can't be queried afterwards.
+	 * run-time:O(1)
+	 */
+	public void shutdown() {
+		pool.shutdown();
+	}
+	/**
+	 * Finds the locations of a phrase in every document (see Builder.phraseOccurrence).
+	 * run-time:O(q/t) q=run-time of the query on every document, t=parallelism.
+	 *
+	 * @param phrase phrase to be searched for.
+	 * @return returns Pairs of document id and location.
+	 */
+	public LinkedList<Pair<Integer,Values>> phraseOccurrence(String phrase) {
+		return query(document -> document.phraseOccurrence(phrase));
+	}
+	/**
+	 * Finds the locations of words starting with a prefix in every document (see Builder.prefixOccurrence).
+	 * run-time:O(q/t) q=run-time of the query on every document, t=parallelism.
+	 *
+	 * @param string prefix to be searched for.
+	 * @return returns Pairs of document id and location.
+	 */
+	public LinkedList<Pair<Integer,Values>> prefixOccurrence(String string) {
+		return query(document -> document.prefixOccurrence(string));
+	}
+	/**
+	 * Counts the occurrences of a word in every document (see Builder.wordCount).
+	 * run-time:O(q/t+d) q=run-time of the query on every document, t=parallelism, d=number of documents.
+	 *
+	 * @param inputWord word to be counted.
+	 * @return returns Pairs of document id and count for every document the word occurs in.
+	 */
+	public LinkedList<Pair<Integer,Integer>> wordCount(String inputWord) {
+		Builder[] current = snapshot();
+		Integer[] counts = new Integer[current.length];
+		fanOut(counts, i -> current[i].wordCount(inputWord));
+		LinkedList<Pair<Integer,Integer>> returnList = new LinkedList<Pair<Integer,Integer>>();
+		for(int i=0;i<counts.length;i++) {
+			if(counts[i]>0) {
+				returnList.add(new Pair<Integer,Integer>(i, counts[i]));
+			}
+		}
+		return returnList;
+	}
+	/**
+	 * Finds the lines containing every word in every document (see Builder.wordsOnLine).
+	 * run-time:O(q/t) q=run-time of the query on every document, t=parallelism.
+	 *
+	 * @param words words to be searched for.
+	 * @return returns Pairs of document id and line number.
+	 */
+	public LinkedList<Pair<Integer,Integer>> wordsOnLine(String[] words) {
+		return query(document -> document.wordsOnLine(words));
+	}
+	/**
+	 * Finds the lines containing every word and none of the blocked words in every document
+	 * (see Builder.wordsNotOnLine).
+	 * run-time:O(q/t) q=run-time of the query on every document, t=parallelism.
+	 *
+	 * @param words words to be searched for.
+	 * @param blockWords words that can't be on the lines.
+	 * @return returns Pairs of document id and line number.
+	 */
+	public LinkedList<Pair<Integer,Integer>> wordsNotOnLine(String[] words, String[] blockWords) {
+		return query(document -> document.wordsNotOnLine(words, blockWords));
+	}
+	/**
+	 * Finds the lines containing any of the words in every document (see Builder.someWordsOnLine).
+	 * run-time:O(q/t) q=run-time of the query on every document, t=parallelism.
+	 *
+	 * @param words words to be searched for.
+	 * @return returns Pairs of document id and line number.
+	 */
+	public LinkedList<Pair<Integer,Integer>> someWordsOnLine(String[] words) {
+		return query(document -> document.someWordsOnLine(words));
+	}
+	/**
+	 * Runs Builder.simpleAndSearch on every document.
+	 * run-time:O(q/t) q=run-time of the query on every document, t=parallelism.
+	 *
+	 * @param words words that must all be in a section.
+	 * @param indexes titles of the sections to search (null=every section).
+	 * @return returns Pairs of document id and (row, column, word).
+	 */
+	public LinkedList<Pair<Integer,Triple<Integer,Integer,String>>> simpleAndSearch(String[] words, String[] indexes) {
+		return query(document -> document.simpleAndSearch(words, indexes));
+	}
+	/**
+	 * Runs Builder.simpleOrSearch on every document.
+	 * run-time:O(q/t) q=run-time of the query on every document, t=parallelism.
+	 *
+	 * @param words words that may be in a section.
+	 * @param indexes titles of the sections to search (null=every section).
+	 * @return returns Pairs of document id and (row, column, word).
+	 */
+	public LinkedList<Pair<Integer,Triple<Integer,Integer,String>>> simpleOrSearch(String[] words, String[] indexes) {
+		return query(document -> document.simpleOrSearch(words, indexes));
+	}
+	/**
+	 * Runs Builder.simpleNotSearch on every document.
+	 * run-time:O(q/t) q=run-time of the query on every document, t=parallelism.
+	 *
+	 * @param words words that must all be in a section.
+	 * @param indexes titles of the sections to search (null=every section).
+	 * @param excludedWords words that can't be in a section.
+	 * @return returns Pairs of document id and (row, column, word).
+	 */
+	public LinkedList<Pair<Integer,Triple<Integer,Integer,String>>> simpleNotSearch(String[] words, String[] indexes,
+			String[] excludedWords) {
+		return query(document -> document.simpleNotSearch(words, indexes, excludedWords));
+	}
+	/**
+	 * Runs Builder.compoundAndOrSearch on every document.
+	 * run-time:O(q/t) q=run-time of the query on every document, t=parallelism.
+	 *
+	 * @param words words that must all be in a section.
+	 * @param indexes titles of the sections to search (null=every section).
+	 * @param orWords words of which at least one must be in a section.
+	 * @return returns Pairs of document id and (row, column, word).
+	 */
+	public LinkedList<Pair<Integer,Triple<Integer,Integer,String>>> compoundAndOrSearch(String[] words, String[] indexes,
+			String[] orWords) {
+		return query(document -> document.compoundAndOrSearch(words, indexes, orWords));
+	}
+	/**
+	 * Runs a query on every document in parallel and tags every result with its document id.
+	 * run-time:O(q/t+r) q=run-time of the query on every document, t=parallelism, r=size of the results.
+	 *
+	 * @param query query to run on a document.
+	 * @return returns Pairs of document id and result in document id order.
+	 */
+	private <T> LinkedList<Pair<Integer,T>> query(Function<Builder,LinkedList<T>> query) {
+		Builder[] current = snapshot();
+		@SuppressWarnings("unchecked")
+		LinkedList<T>[] results = (LinkedList<T>[])new LinkedList<?>[current.length];
+		fanOut(results, i -> query.apply(current[i]));
+		LinkedList<Pair<Integer,T>> returnList = new LinkedList<Pair<Integer,T>>();
+		for(int i=0;i<results.length;i++) {
+			if(results[i]==null) {
+				continue;
+			}
+			for(Node<T> j:results[i]) {
+				returnList.add(new Pair<Integer,T>(i, j.element));
+			}
+		}
+		return returnList;
+	}
+	/**
+	 * Runs a task for every index of an array on the pool and stores the results in the array.
+	 * run-time:O(r/t) r=run-time of every task, t=parallelism.
+	 */
+	private <T> void fanOut(T[] results, IntFunction<T> task) {
+		if(results.length==0) {
+			return;
+		}
+		pool.invoke(new FanOut<T>(results, 0, results.length, threshold(results.length), task));
+	}
+	/**
+	 * run-time:O(1)
+	 * @return returns the number of documents a task is split down to so every thread gets several tasks.
+	 */
+	private int threshold(int documents) {
+		return Math.max(1, documents/(pool.getParallelism()*4));
+	}
+	/**
+	 * run-time:O(d) d=number of documents.
+	 * @return returns the documents that have been added so far.
+	 */
+	private Builder[] snapshot() {
+		Builder[] current;
+		int count;
+		synchronized(this) {
+			current = documents;
+			count = size;
+		}
+		Builder[] copy = new Builder[count];
+		System.arraycopy(current, 0, copy, 0, count);
+		return copy;
+	}
+	/**
+	 * Runs a task for a range of indexes, splitting the range in half until it is below the threshold.
+	 */
+	private static class FanOut<T> extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+		private final T[] results;
+		private final int start;
+		private final int end;
+		private final int threshold;
+		private final IntFunction<T> task;
+		private FanOut(T[] results, int start, int end, int threshold, IntFunction<T> task) {
+			this.results = results;
+			this.start = start;
+			this.end = end;
+			this.threshold = threshold;
+			this.task = task;
+		}
+		@Override
+		protected void compute() {
+			if(end-start<=threshold) {
+				for(int i=start;i<end;i++) {
+					results[i] = task.apply(i);
+				}
+				return;
+			}
+			int middle = (start+end)>>>1;
+			invokeAll(new FanOut<T>(results, start, middle, threshold, task),
+					new FanOut<T>(results, middle, end, threshold, task));
+		}
+	}
+}
@@ -0,0 +1,76 @@
+package MyADTS;
+/**
+ * The estimated heap used by each part of a Builder (see Builder.footprint and IndexFootprint) so the
+ * part that is growing can be found and the heap needed for a words file can be forecast.
+ * memory-usage:O(h+f) h=depth of the Tries, f=most children of a node.
+ *
+ * @author Riley De Leacy
+ *
+ */
+public class FootprintReport {
+	private final IndexFootprint words;
+	private final IndexFootprint stopWords;
+	private final long lineBytes;
+	private final long sectionBytes;
+	/**
+	 * Creates a new instance of FootprintReport.
+	 * run-time:O(1)
+	 *
+	 * @param words footprint of the words index.
+	 * @param stopWords footprint of the stop words index.
+	 * @param lineBytes estimated bytes of the stored lines.
+	 * @param sectionBytes estimated bytes of the section index.
+	 */
+	FootprintReport(IndexFootprint words, IndexFootprint stopWords, long lineBytes, long sectionBytes) {
+		this.words = words;
+		this.stopWords = stopWords;
+		this.lineBytes = lineBytes;
+		this.sectionBytes = sectionBytes;
+	}
+	/**
+	 * run-time:O(1)
+	 * @return returns the footprint of the words index.
+	 */
+	public IndexFootprint getWords() {
+		return words;
+	}
+	/**
+	 * run-time:O(1)
+	 * @return returns the footprint of the stop words index.
+	 */
+	public IndexFootprint getStopWords() {
+		return stopWords;
+	}
+	/**
+	 * run-time:O(1)
+	 * @return returns the estimated bytes of the stored lines of the words file.
+	 */
+	public long getLineBytes() {
+		return lineBytes;
+	}
+	/**
+	 * run-time:O(1)
+	 * @return returns the estimated bytes of the section titles, their rows and the section of every row.
+	 */
+	public long getSectionBytes() {
+		return sectionBytes;
+	}
+	/**
+	 * run-time:O(1)
+	 * @return returns the estimated bytes of every part.
+	 */
+	public long getEstimatedBytes() {
+		return words.getEstimatedBytes()+stopWords.getEstimatedBytes()+lineBytes+sectionBytes;
+	}
+	/**
+	 * String representation of FootprintReport. Every part is on its own line, the indexes in the format
+	 * of IndexFootprint.toString.
+	 * run-time:O(h+f) h=depth of the Tries, f=most children of a node.
+	 *
+	 * @return returns the string representation of FootprintReport.
+	 */
+	public String toString() {
+		return "words="+words+"\nstopWords="+stopWords+"\nlines="+lineBytes+"\nsections="+sectionBytes
+				+"\ntotal="+getEstimatedBytes();
+	}
+}
@@ -0,0 +1,696 @@
+package MyADTS;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.IntBuffer;
+/**
+ * An immutable Trie stored as parallel arrays instead of TrieNode objects. Made from a built Trie with
+ * Trie.freeze() and answers the same queries with far fewer objects for the garbage collector and
+ * lookups that stay within a few contiguous arrays.
+ * 
+ * Nodes are numbered in breadth first order (the root is 0) so the children of node i are the nodes
+ * firstChild[i] to firstChild[i+1]-1, sorted by label. Word locations are stored as column,row pairs in
+ * one shared array in depth first order, node i owns pairs wordStart[i] to wordEnd[i]-1 and the words
+ * below it continue to subtreeEnd[i]-1. If the Trie stored prefix locations they are kept the same way
+ * (prefixStart[i] to prefixStart[i+1]-1), otherwise they are merged from the words below the prefix.
+ * The arrays are held in buffers so they can also be read straight from a memory mapped file.
+ * 
+ * memory-usage:O(n+o) n=number of nodes, o=number of stored locations.
+ * 
+ * @author Riley De Leacy
+ *
+ */
+public class FrozenTrie implements WordIndex<Integer> {
+	private final CharBuffer labels;
+	private final IntBuffer firstChild;
+	private final IntBuffer wordStart;
+	private final IntBuffer wordEnd;
+	private final IntBuffer subtreeEnd;
+	private final IntBuffer wordPostings;
+	//null if prefix locations are merged when asked for
+	private final IntBuffer prefixStart;
+	private final IntBuffer prefixPostings;
+	private final int nodeCount;
+	private final PrefixCache prefixCache;
+	//most word locations of any word at or below each node, worked out the first time it is asked for
+	private volatile int[] maxFrequency;
+	/**
+	 * Creates a new instance of FrozenTrie over already filled buffers.
+	 * run-time:O(1)
+	 * 
+	 * @param labels character of every node.
+	 * @param firstChild first child of every node (nodeCount+1 entries).
+	 * @param wordStart first word pair of every node.
+	 * @param wordEnd end of the word pairs of every node.
+	 * @param subtreeEnd end of the word pairs below every node.
+	 * @param wordPostings column,row pairs of every word location.
+	 * @param prefixStart first prefix pair of every node (nodeCount+1 entries) or null.
+	 * @param prefixPostings column,row pairs of every prefix location or null.
+	 * @param prefixCacheSize number of merged prefixes to cache when prefixes aren't stored (0=no cache).
+	 */
+	FrozenTrie(CharBuffer labels, IntBuffer firstChild, IntBuffer wordStart, IntBuffer wordEnd,
+			IntBuffer subtreeEnd, IntBuffer wordPostings, IntBuffer prefixStart, IntBuffer prefixPostings,
+			int prefixCacheSize) {
+		this.labels = labels;
+		this.firstChild = firstChild;
+		this.wordStart = wordStart;
+		this.wordEnd = wordEnd;
+		this.subtreeEnd = subtreeEnd;
+		this.wordPostings = wordPostings;
+		this.prefixStart = prefixStart;
+		this.prefixPostings = prefixPostings;
+		this.nodeCount = labels.limit();
+		if(prefixStart==null&&prefixCacheSize>0) {
+			prefixCache = new PrefixCache(prefixCacheSize);
+		}else {
+			prefixCache = null;
+		}
+	}
+	/**
+	 * Freezes a Trie.
+	 * run-time:O(n+o) n=number of TrieNodes, o=number of stored locations.
+	 * 
+	 * @param trie built Trie to be frozen, it isn't changed.
+	 * @param root root of the Trie.
+	 * @param storePrefixes whether the Trie stores prefix locations.
+	 * @param prefixCacheSize number of merged prefixes to cache when prefixes aren't stored.
+	 * @return returns a FrozenTrie answering the same queries as the Trie.
+	 */
+	static FrozenTrie freeze(TrieNode root, Boolean storePrefixes, int prefixCacheSize) {
+		//number the nodes breadth first
+		TrieNode[] nodes = new TrieNode[16];
+		int count = 1;
+		nodes[0] = root;
+		int words = 0;
+		int prefixes = 0;
+		for(int i=0;i<count;i++) {
+			TrieNode node = nodes[i];
+			words += node.getWordCount();
+			prefixes += node.getPrefixView().getSize();
+			if(count+node.getChildCount()>nodes.length) {
+				TrieNode[] newNodes = new TrieNode[Math.max(nodes.length*2, count+node.getChildCount())];
+				System.arraycopy(nodes, 0, newNodes, 0, count);
+				nodes = newNodes;
+			}
+			for(int j=0;j<node.getChildCount();j++) {
+				nodes[count++] = node.getChild(j);
+			}
+		}
+		char[] labels = new char[count];
+		int[] firstChild = new int[count+1];
+		int next = 1;
+		for(int i=0;i<count;i++) {
+			labels[i] = nodes[i].getChar();
+			firstChild[i] = next;
+			next += nodes[i].getChildCount();
+		}
+		firstChild[count] = next;
+		//lay the word locations out depth first so every subtree is one range
+		int[] wordStart = new int[count];
+		int[] wordEnd = new int[count];
+		int[] subtreeEnd = new int[count];
+		int[] wordPostings = new int[words*2];
+		int written = 0;
+		int[] stack = new int[16];
+		//negative entries mark a node whose subtree has been written
+		int stackSize = 0;
+		stack[stackSize++] = 0;
+		while(stackSize>0) {
+			int id = stack[--stackSize];
+			if(id<0) {
+				subtreeEnd[-id-1] = written;
+				continue;
+			}
+			wordStart[id] = written;
+			written = copy(nodes[id].getWordView(), wordPostings, written);
+			wordEnd[id] = written;
+			int children = firstChild[id+1]-firstChild[id];
+			if(stackSize+children+1>stack.length) {
+				int[] newStack = new int[Math.max(stack.length*2, stackSize+children+1)];
+				System.arraycopy(stack, 0, newStack, 0, stackSize);
+				stack = newStack;
+			}
+			stack[stackSize++] = -id-1;
+			//push in reverse so the first child is written first
+			for(int j=firstChild[id+1]-1;j>=firstChild[id];j--) {
+				stack[stackSize++] = j;
+			}
+		}
+		IntBuffer prefixStartBuffer = null;
+		IntBuffer prefixPostingsBuffer = null;
+		if(storePrefixes) {
+			int[] prefixStart = new int[count+1];
+			int[] prefixPostings = new int[prefixes*2];
+			written = 0;
+			for(int i=0;i<count;i++) {
+				prefixStart[i] = written;
+				written = copy(nodes[i].getPrefixView(), prefixPostings, written);
+			}
+			prefixStart[count] = written;
+			prefixStartBuffer = IntBuffer.wrap(prefixStart);
+			prefixPostingsBuffer = IntBuffer.wrap(prefixPostings);
+		}
+		return new FrozenTrie(CharBuffer.wrap(labels), IntBuffer.wrap(firstChild), IntBuffer.wrap(wordStart),
+				IntBuffer.wrap(wordEnd), IntBuffer.wrap(subtreeEnd), IntBuffer.wrap(wordPostings),
+				prefixStartBuffer, prefixPostingsBuffer, prefixCacheSize);
+	}
+	/**
+	 * Copies the occurrences of a view into an array of column,row pairs.
+	 * run-time:O(o) o=occurrences in the view.
+	 * 
+	 * @return returns the index of the pair after the last one written.
+	 */
+	private static int copy(OccurrenceView view, int[] pairs, int written) {
+		OccurrenceCursor cursor = view.cursor();
+		while(cursor.next()) {
+			pairs[written*2] = cursor.column();
+			pairs[written*2+1] = cursor.row();
+			written++;
+		}
+		return written;
+	}
+	/**
+	 * Finds the child of a node with the input label.
+	 * run-time:O(log(d)) d=number of children.
+	 * 
+	 * @param node node id.
+	 * @param c label to be searched for.
+	 * @return returns the id of the child or -1 if there isn't one.
+	 */
+	public int child(int node, char c) {
+		int low = firstChild.get(node);
+		int high = firstChild.get(node+1)-1;
+		while(low<=high) {
+			int mid = (low+high)>>>1;
+			char label = labels.get(mid);
+			if(label<c) {
+				low = mid+1;
+			}else if(label>c) {
+				high = mid-1;
+			}else {
+				return mid;
+			}
+		}
+		return -1;
+	}
+	/**
+	 * The children of a node are the nodes childStart(node) to childEnd(node)-1, sorted by label, so
+	 * they can be walked by id without boxing them (see TermSearch).
+	 * run-time:O(1)
+	 * 
+	 * @param node node id.
+	 * @return returns the id of the first child of the node.
+	 */
+	public int childStart(int node) {
+		return firstChild.get(node);
+	}
+	/**
+	 * run-time:O(1)
+	 * @param node node id.
+	 * @return returns the id after the last child of the node.
+	 */
+	public int childEnd(int node) {
+		return firstChild.get(node+1);
+	}
+	/**
+	 * run-time:O(1)
+	 * @param node node id.
+	 * @return returns the label of the node.
+	 */
+	public char label(int node) {
+		return labels.get(node);
+	}
+	/**
+	 * run-time:O(1)
+	 * @param node node id.
+	 * @return returns the number of word locations stored at the node.
+	 */
+	public int wordCount(int node) {
+		return wordEnd.get(node)-wordStart.get(node);
+	}
+	/**
+	 * run-time:O(1), O(n) n=number of nodes the first time it is called.
+	 * @param node node id.
+	 * @return returns the most times any word at or below the node occurs.
+	 */
+	public int maxWordCount(int node) {
+		int[] found = maxFrequency;
+		if(found==null) {
+			synchronized(this) {
+				found = maxFrequency;
+				if(found==null) {
+					//children are numbered after their parents so every child is done before its parent
+					found = new int[nodeCount];
+					for(int i=nodeCount-1;i>=0;i--) {
+						int frequency = wordEnd.get(i)-wordStart.get(i);
+						for(int j=firstChild.get(i);j<firstChild.get(i+1);j++) {
+							frequency = Math.max(frequency, found[j]);
+						}
+						found[i] = frequency;
+					}
+					maxFrequency = found;
+				}
+			}
+		}
+		return found[node];
+	}
+	/**
+	 * Follows the characters of an already formatted word down from the root.
+	 * run-time:O(m*log(d)) m=size of word, d=number of acceptable characters.
+	 * 
+	 * @return returns the id of the node the word finishes at or -1 if the path doesn't exist.
+	 */
+	private int walk(String word) {
+		if(word==null) {
+			return -1;
+		}
+		int current = 0;
+		for(int i=0;i<word.length()&&current>=0;i++) {
+			current = child(current, word.charAt(i));
+		}
+		return current;
+	}
+	/**
+	 * Always throws, a FrozenTrie can't be changed.
+	 */
+	@Override
+	public void addWord(String word, int row, int column, Boolean addOcc) {
+		throw new UnsupportedOperationException("A FrozenTrie cannot be changed");
+	}
+	/**
+	 * Always throws, a FrozenTrie can't be changed.
+	 */
+	@Override
+	public void addWord(char[] word, int length, int row, int column) {
+		throw new UnsupportedOperationException("A FrozenTrie cannot be changed");
+	}
+	/**
+	 * Always throws, a FrozenTrie can't be changed.
+	 */
+	@Override
+	public void addExistingWord(Integer word, int row, int column) {
+		throw new UnsupportedOperationException("A FrozenTrie cannot be changed");
+	}
+	/**
+	 * Finds a word in the FrozenTrie.
+	 * run-time:O(m*log(d)) m=size of word, d=number of acceptable characters.
+	 * 
+	 * @param search word to be searched for.
+	 * @return returns the id of the node the word finishes at or null if the word was not found.
+	 */
+	@Override
+	public Integer find(String search) {
+		int node = walk(Tokenizer.normalize(search));
+		if(node<0) {
+			return null;
+		}
+		return node;
+	}
+	/**
+	 * Finds an already formatted word without creating a String.
+	 * run-time:O(m*log(d)) m=size of word, d=number of acceptable characters.
+	 * 
+	 * @param word buffer holding the formatted word.
+	 * @param length length of the word in the buffer.
+	 * @return returns the id of the node the word finishes at or null if the word was not found.
+	 */
+	@Override
+	public Integer find(char[] word, int length) {
+		int current = 0;
+		for(int i=0;i<length&&current>=0;i++) {
+			current = child(current, word[i]);
+		}
+		if(current<0) {
+			return null;
+		}
+		return current;
+	}
+	/**
+	 * finds an input word.
+	 * run-time:O(m*log(d)+o) m=size of word, d=number of acceptable characters, o=occurrences.
+	 * 
+	 * @param search word to be searched for.
+	 * @return returns a LinkedList of Values containing the locations of all words matching the input.
+	 */
+	@Override
+	public LinkedList<Values> findWord(String search) {
+		OccurrenceView occurrences = findView(search);
+		if(occurrences==null) {
+			return null;
+		}
+		return occurrences.toList();
+	}
+	/**
+	 * Returns a read-only view of the word locations of a node.
+	 * run-time:O(1)
+	 * 
+	 * @param node node id.
+	 * @return returns an OccurrenceView of the word locations.
+	 */
+	public OccurrenceView wordView(int node) {
+		int start = wordStart.get(node);
+		return new PackedView(wordPostings, start, wordEnd.get(node)-start);
+	}
+	@Override
+	public OccurrenceView findView(String search) {
+		int node = walk(Tokenizer.normalize(search));
+		if(node<0) {
+			return null;
+		}
+		return wordView(node);
+	}
+	/**
+	 * finds the prefix locations of an input prefix without copying them. If prefixes weren't stored the
+	 * word locations below the prefix are merged in row and column order (or taken from the cache).
+	 * run-time:O(m*log(d)) m=size of prefix, d=number of acceptable characters if prefixes are stored
+	 * O(m*log(d)+s+o*log(w)) s=nodes below the prefix, o=occurrences, w=distinct words below the prefix otherwise.
+	 * 
+	 * @param prefix prefix to be searched for.
+	 * @return returns a read-only view of the prefix locations or null if the prefix was not found.
+	 */
+	@Override
+	public OccurrenceView prefixView(String prefix) {
+		String formatted = Tokenizer.normalize(prefix);
+		int node = walk(formatted);
+		if(node<0) {
+			return null;
+		}
+		return prefixView(node, formatted);
+	}
+	/**
+	 * run-time:O(1)
+	 * @return returns the id of the root node (0).
+	 */
+	@Override
+	public Integer getRoot() {
+		return 0;
+	}
+	/**
+	 * run-time:O(1)
+	 * @return returns the number of children of the node.
+	 */
+	@Override
+	public int getChildCount(Integer node) {
+		return childEnd(node)-childStart(node);
+	}
+	/**
+	 * run-time:O(1)
+	 * @return returns the id of the child of the node at the index (in label order).
+	 */
+	@Override
+	public Integer getChild(Integer node, int index) {
+		return childStart(node)+index;
+	}
+	/**
+	 * run-time:O(1)
+	 * @return returns 1, or 0 for the root.
+	 */
+	@Override
+	public int getLabelLength(Integer node) {
+		return node==0?0:1;
+	}
+	/**
+	 * run-time:O(1)
+	 * @return returns the label of the node.
+	 */
+	@Override
+	public char getLabelChar(Integer node, int index) {
+		return label(node);
+	}
+	/**
+	 * run-time:O(1)
+	 * @return returns a read-only view of the word locations of the node.
+	 */
+	@Override
+	public OccurrenceView getWordView(Integer node) {
+		return wordView(node);
+	}
+	/**
+	 * run-time:O(1)
+	 * @return returns the number of word locations stored at the node.
+	 */
+	@Override
+	public int getWordCount(Integer node) {
+		return wordCount(node);
+	}
+	/**
+	 * run-time:O(1)
+	 * @return returns the number of prefix locations stored at the node (0 if they are merged when asked for).
+	 */
+	@Override
+	public int getPrefixCount(Integer node) {
+		if(prefixStart==null) {
+			return 0;
+		}
+		return prefixStart.get(node+1)-prefixStart.get(node);
+	}
+	/**
+	 * Estimates the heap used by the node's entries of the arrays, the root also counts the array headers.
+	 * Arrays memory mapped from an index file aren't on the heap so they count as 0.
+	 * run-time:O(1)
+	 * @return returns the estimated bytes of the node.
+	 */
+	@Override
+	public long getNodeBytes(Integer node) {
+		long bytes = maxFrequency==null?0:4;
+		if(labels.isDirect()) {
+			return bytes;
+		}
+		//label, firstChild, wordStart, wordEnd, subtreeEnd and prefixStart
+		bytes += 2+4*4+(prefixStart==null?0:4);
+		if(node==0) {
+			//headers of every array, with the extra last entry of firstChild and prefixStart
+			bytes += (prefixStart==null?6:8)*IndexFootprint.arrayBytes(1, 4);
+		}
+		return bytes;
+	}
+	/**
+	 * run-time:O(1)
+	 * @return returns the estimated heap bytes of the node's column,row pairs (0 if memory mapped).
+	 */
+	@Override
+	public long getPostingBytes(Integer node) {
+		if(labels.isDirect()) {
+			return 0;
+		}
+		return 8L*(getWordCount(node)+getPrefixCount(node));
+	}
+	/**
+	 * run-time:O(1), O(n) n=number of nodes the first time it is called.
+	 * @return returns the most times any word at or below the node occurs.
+	 */
+	@Override
+	public int getMaxFrequency(Integer node) {
+		return maxWordCount(node);
+	}
+	/**
+	 * Counts the levels of the FrozenTrie. Nodes are in breadth first order so the children of a level
+	 * are the next level and run from the first child of its first node to the first child after its last.
+	 * run-time:O(h) h=depth of the FrozenTrie.
+	 * 
+	 * @return returns the number of characters from the root to the deepest node.
+	 */
+	@Override
+	public int getMaxDepth() {
+		int depth = 0;
+		int start = 0;
+		int end = 1;
+		while(firstChild.get(start)<firstChild.get(end)) {
+			int next = firstChild.get(end);
+			start = firstChild.get(start);
+			end = next;
+			depth++;
+		}
+		return depth;
+	}
+	/**
+	 * Gets the prefix locations of a node, merging the word locations below it if prefixes weren't stored.
+	 * run-time:O(1) if prefixes were stored, O(s+o*log(w)) otherwise (see prefixView).
+	 * 
+	 * @param node node id of the prefix.
+	 * @param formatted the formatted prefix (the prefix cache key).
+	 * @return returns a read-only view of the prefix locations.
+	 */
+	private OccurrenceView prefixView(int node, String formatted) {
+		if(prefixStart!=null) {
+			int start = prefixStart.get(node);
+			return new PackedView(prefixPostings, start, prefixStart.get(node+1)-start);
+		}
+		if(node==0) {
+			return PostingList.EMPTY_VIEW;
+		}
+		OccurrenceView merged;
+		if(prefixCache!=null) {
+			merged = prefixCache.get(formatted);
+			if(merged!=null) {
+				return merged;
+			}
+		}
+		merged = mergeWords(node);
+		if(prefixCache!=null) {
+			prefixCache.put(formatted, merged);
+		}
+		return merged;
+	}
+	/**
+	 * finds the word or prefix locations of many formatted words at once. The nodes on the path of the
+	 * previous word are kept so a word only walks down from where it stops sharing a prefix with it.
+	 * run-time:O(c*log(d)) c=characters not shared with the previous word, d=number of acceptable characters
+	 * (plus merging the words below each prefix if prefixes weren't stored).
+	 * 
+	 * @param words formatted words in ascending order (null words are never found).
+	 * @param prefixes find prefix locations (true) or word locations (false).
+	 * @return returns the locations of every word in the input order, null where a word was not found.
+	 */
+	@Override
+	public OccurrenceView[] findViews(String[] words, Boolean prefixes) {
+		OccurrenceView[] views = new OccurrenceView[words.length];
+		//path[i] is the node of the first i characters of the previous word, for i<=depth
+		int[] path = new int[16];
+		int depth = 0;
+		String previous = "";
+		for(int i=0;i<words.length;i++) {
+			String word = words[i];
+			if(word==null) {
+				continue;
+			}
+			int shared = 0;
+			int limit = Math.min(depth, word.length());
+			while(shared<limit&&previous.charAt(shared)==word.charAt(shared)) {
+				shared++;
+			}
+			depth = shared;
+			previous = word;
+			int current = path[depth];
+			while(depth<word.length()&&current>=0) {
+				current = child(current, word.charAt(depth));
+				if(current>=0) {
+					depth++;
+					if(depth==path.length) {
+						int[] newPath = new int[path.length*2];
+						System.arraycopy(path, 0, newPath, 0, depth);
+						path = newPath;
+					}
+					path[depth] = current;
+				}
+			}
+			if(current>=0) {
+				views[i] = prefixes?prefixView(current, word):wordView(current);
+			}
+		}
+		return views;
+	}
+	/**
+	 * Merges the word locations of a node and all its descendants in row then column order.
+	 * run-time:O(s+o*log(w)) s=nodes below the input, o=occurrences, w=nodes with word locations.
+	 */
+	private OccurrenceView mergeWords(int start) {
+		int total = subtreeEnd.get(start)-wordStart.get(start);
+		OccurrenceView[] found = new OccurrenceView[8];
+		int foundCount = 0;
+		int[] stack = new int[16];
+		int stackSize = 0;
+		stack[stackSize++] = start;
+		while(stackSize>0&&total>0) {
+			int node = stack[--stackSize];
+			if(wordEnd.get(node)>wordStart.get(node)) {
+				if(foundCount==found.length) {
+					OccurrenceView[] newFound = new OccurrenceView[found.length*2];
+					System.arraycopy(found, 0, newFound, 0, foundCount);
+					found = newFound;
+				}
+				found[foundCount++] = wordView(node);
+			}
+			int first = firstChild.get(node);
+			int last = firstChild.get(node+1);
+			for(int i=first;i<last;i++) {
+				if(subtreeEnd.get(i)==wordStart.get(i)) {
+					//no words below this child
+					continue;
+				}
+				if(stackSize==stack.length) {
+					int[] newStack = new int[stack.length*2];
+					System.arraycopy(stack, 0, newStack, 0, stackSize);
+					stack = newStack;
+				}
+				stack[stackSize++] = i;
+			}
+		}
+		return PostingList.merge(found, foundCount, total);
+	}
+	/**
+	 * Does nothing, a FrozenTrie's locations are already packed.
+	 * run-time:O(1)
+	 */
+	@Override
+	public void compressPostings() {
+	}
+	/**
+	 * Writes the FrozenTrie as its sizes followed by every array (see IndexFile).
+	 * run-time:O(n+o) n=number of nodes, o=number of stored locations.
+	 * 
+	 * @param out stream to write to.
+	 */
+	void write(DataOutputStream out) throws IOException {
+		out.writeInt(nodeCount);
+		out.writeInt(wordPostings.limit());
+		if(prefixStart==null) {
+			out.writeInt(-1);
+		}else {
+			out.writeInt(prefixPostings.limit());
+		}
+		for(int i=0;i<nodeCount;i++) {
+			out.writeChar(labels.get(i));
+		}
+		if(nodeCount%2==1) {
+			out.writeChar(0);
+		}
+		IndexFile.writeInts(out, firstChild);
+		IndexFile.writeInts(out, wordStart);
+		IndexFile.writeInts(out, wordEnd);
+		IndexFile.writeInts(out, subtreeEnd);
+		IndexFile.writeInts(out, wordPostings);
+		if(prefixStart!=null) {
+			IndexFile.writeInts(out, prefixStart);
+			IndexFile.writeInts(out, prefixPostings);
+		}
+	}
+	/**
+	 * Reads a FrozenTrie written by write without copying its arrays.
+	 * run-time:O(1)
+	 * 
+	 * @param buffer buffer holding the written FrozenTrie from its position, moved past it.
+	 * @param prefixCacheSize number of merged prefixes to cache when prefixes weren't stored.
+	 * @return returns a FrozenTrie reading from the buffer.
+	 */
+	static FrozenTrie map(ByteBuffer buffer, int prefixCacheSize) {
+		int count = buffer.getInt();
+		int wordInts = buffer.getInt();
+		int prefixInts = buffer.getInt();
+		CharBuffer labels = IndexFile.chars(buffer, count);
+		IntBuffer firstChild = IndexFile.ints(buffer, count+1);
+		IntBuffer wordStart = IndexFile.ints(buffer, count);
+		IntBuffer wordEnd = IndexFile.ints(buffer, count);
+		IntBuffer subtreeEnd = IndexFile.ints(buffer, count);
+		IntBuffer wordPostings = IndexFile.ints(buffer, wordInts);
+		IntBuffer prefixStart = null;
+		IntBuffer prefixPostings = null;
+		if(prefixInts>=0) {
+			prefixStart = IndexFile.ints(buffer, count+1);
+			prefixPostings = IndexFile.ints(buffer, prefixInts);
+		}
+		return new FrozenTrie(labels, firstChild, wordStart, wordEnd, subtreeEnd, wordPostings,
+				prefixStart, prefixPostings, prefixCacheSize);
+	}
+	/**
+	 * The number of nodes.
+	 * run-time:O(1)
+	 * 
+	 * @return returns the number of nodes including the root.
+	 */
+	public int getNodeCount() {
+		return nodeCount;
+	}
+}
@@ -0,0 +1,173 @@
+package MyADTS;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+import comp3506.assn2.utils.Pair;
+/**
+ * Saves a built Builder to a binary index file and opens it again by memory mapping the file, so the
+ * index is served straight from the mapped buffers and opening it doesn't depend on the corpus size.
+ * 
+ * File layout (big endian, every part padded to a multiple of 4 bytes):
+ * magic, version, words file name, lines (LineTable.write), section count followed by every
+ * section title and start row, the section of every row (SectionIndex.write), words Trie (FrozenTrie.write), stop words Trie (FrozenTrie.write).
+ * A single file can be at most 2GB as it is mapped as one buffer.
+ * 
+ * @author Riley De Leacy
+ *
+ */
+public class IndexFile {
+	//"TRIX"
+	private static final int MAGIC = 0x54524958;
+	private static final int VERSION = 2;
+	/**
+	 * Saves a Builder to an index file. The Builder's Tries are frozen copies if they aren't frozen already.
+	 * run-time:O(n+o+c) n=number of TrieNodes, o=number of stored locations, c=characters in the words file.
+	 * 
+	 * @param builder Builder to be saved.
+	 * @param fileName index file to write.
+	 * @throws IOException if the file could not be written.
+	 * @throws IllegalStateException if the words are stored in a RadixTrie.
+	 */
+	public static void save(Builder builder, String fileName) throws IOException {
+		FrozenTrie words = frozen(builder.words);
+		FrozenTrie stopWords = frozen(builder.stopWords);
+		DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(fileName)));
+		try {
+			out.writeInt(MAGIC);
+			out.writeInt(VERSION);
+			writeString(out, builder.file);
+			builder.allLines.write(out);
+			out.writeInt(builder.index.getSize());
+			for(Node<Pair<String,Integer>> i:builder.index) {
+				writeString(out, i.element.getLeftValue());
+				out.writeInt(i.element.getRightValue());
+			}
+			builder.sections.write(out);
+			words.write(out);
+			stopWords.write(out);
+		}finally {
+			out.close();
+		}
+	}
+	/**
+	 * Opens an index file written by save.
+	 * run-time:O(s) s=number of sections (everything else is read from the mapped file when queried).
+	 * 
+	 * @param fileName index file to open.
+	 * @return returns a Builder answering queries from the mapped file.
+	 * @throws FileNotFoundException if the file could not be read.
+	 * @throws IllegalArgumentException if the file is not an index file of this version.
+	 */
+	public static Builder open(String fileName) throws FileNotFoundException, IllegalArgumentException {
+		ByteBuffer buffer;
+		try {
+			RandomAccessFile file = new RandomAccessFile(fileName, "r");
+			try {
+				FileChannel channel = file.getChannel();
+				MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+				buffer = mapped;
+			}finally {
+				//the mapping stays valid after the file is closed
+				file.close();
+			}
+		}catch(IOException e) {
+			throw new FileNotFoundException(fileName+" Could not be read");
+		}
+		if(buffer.remaining()<8||buffer.getInt()!=MAGIC) {
+			throw new IllegalArgumentException(fileName+" is not an index file");
+		}
+		int version = buffer.getInt();
+		if(version!=VERSION) {
+			throw new IllegalArgumentException(fileName+" is index file version "+version+", expected "+VERSION);
+		}
+		String file = readString(buffer);
+		LineTable lines = LineTable.map(buffer);
+		LinkedList<Pair<String,Integer>> index = new LinkedList<Pair<String,Integer>>();
+		int sections = buffer.getInt();
+		for(int i=0;i<sections;i++) {
+			String title = readString(buffer);
+			index.add(new Pair<String,Integer>(title, buffer.getInt()));
+		}
+		SectionIndex sectionIndex = SectionIndex.map(index, buffer);
+		FrozenTrie words = FrozenTrie.map(buffer, 0);
+		FrozenTrie stopWords = FrozenTrie.map(buffer, 0);
+		return new Builder(file, words, stopWords, index, lines, sectionIndex);
+	}
+	/**
+	 * Returns the input index frozen.
+	 * run-time:O(n+o) n=number of TrieNodes, o=number of stored locations (O(1) if already frozen).
+	 */
+	private static FrozenTrie frozen(WordIndex<?> index) {
+		if(index instanceof FrozenTrie) {
+			return (FrozenTrie)index;
+		}
+		if(index instanceof Trie) {
+			return ((Trie)index).freeze();
+		}
+		throw new IllegalStateException("Only a Trie can be saved");
+	}
+	/**
+	 * Writes a String as its length and characters padded to a multiple of 4 bytes.
+	 * run-time:O(l) l=length of the String.
+	 */
+	private static void writeString(DataOutputStream out, String string) throws IOException {
+		out.writeInt(string.length());
+		out.writeChars(string);
+		if(string.length()%2==1) {
+			out.writeChar(0);
+		}
+	}
+	/**
+	 * Reads a String written by writeString.
+	 * run-time:O(l) l=length of the String.
+	 */
+	private static String readString(ByteBuffer buffer) {
+		int length = buffer.getInt();
+		return chars(buffer, length).toString();
+	}
+	/**
+	 * Writes every int in a buffer.
+	 * run-time:O(n) n=ints in the buffer.
+	 */
+	static void writeInts(DataOutputStream out, IntBuffer ints) throws IOException {
+		for(int i=0;i<ints.limit();i++) {
+			out.writeInt(ints.get(i));
+		}
+	}
+	/**
+	 * Takes the next count ints of a buffer as an IntBuffer without copying them.
+	 * run-time:O(1)
+	 * 
+	 * @param buffer buffer to read from, moved past the ints.
+	 * @param count number of ints.
+	 * @return returns an IntBuffer over the ints.
+	 */
+	static IntBuffer ints(ByteBuffer buffer, int count) {
+		IntBuffer ints = buffer.slice(buffer.position(), count*4).asIntBuffer();
+		buffer.position(buffer.position()+count*4);
+		return ints;
+	}
+	/**
+	 * Takes the next count chars (and padding) of a buffer as a CharBuffer without copying them.
+	 * run-time:O(1)
+	 * 
+	 * @param buffer buffer to read from, moved past the chars and padding.
+	 * @param count number of chars.
+	 * @return returns a CharBuffer over the chars.
+	 */
+	static CharBuffer chars(ByteBuffer buffer, int count) {
+		CharBuffer chars = buffer.slice(buffer.position(), count*2).asCharBuffer();
+		buffer.position(buffer.position()+count*2+(count%2)*2);
+		return chars;
+	}
+}
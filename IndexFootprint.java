@@ -0,0 +1,220 @@
+package MyADTS;
+
+import java.util.Arrays;
+/**
+ * The shape and estimated heap size of a WordIndex: how many nodes it has, how deep they are, how many
+ * children they have, how many locations they store and how many bytes the nodes and locations take.
+ * Made by of(index) in one walk of the index that keeps a stack of the nodes left to visit, nothing is
+ * copied.
+ *
+ * Bytes are estimated for a 64 bit JVM with compressed references (12 byte object headers, 16 byte
+ * array headers, 4 byte references, objects padded to 8 bytes) and Strings of 1 byte characters.
+ * Caches (see PrefixCache) and parts of a FrozenTrie memory mapped from an index file aren't counted.
+ * memory-usage:O(h+f) h=depth of the index, f=most children of a node.
+ *
+ * @author Riley De Leacy
+ *
+ */
+public class IndexFootprint {
+	private static final int OBJECT_HEADER = 12;
+	private static final int ARRAY_HEADER = 16;
+	static final int REFERENCE = 4;
+	private long nodeCount;
+	//number of nodes at each depth (the root is at depth 0) and with each number of children
+	private long[] depths;
+	private long[] fanOuts;
+	private long prefixPostings;
+	private long wordPostings;
+	private long nodeBytes;
+	private long postingBytes;
+	/**
+	 * Creates a new empty instance of IndexFootprint.
+	 * run-time:O(1)
+	 */
+	private IndexFootprint() {
+		depths = new long[16];
+		fanOuts = new long[16];
+	}
+	/**
+	 * Measures a WordIndex. The index must not be added to while it is measured.
+	 * run-time:O(n) n=number of nodes.
+	 *
+	 * @param index index to be measured.
+	 * @return returns the footprint of the index.
+	 */
+	public static <N> IndexFootprint of(WordIndex<N> index) {
+		IndexFootprint footprint = new IndexFootprint();
+		//nodes left to visit and their depths, the stack holds the unvisited children of the current path
+		Object[] stack = new Object[16];
+		int[] stackDepths = new int[16];
+		int stackSize = 0;
+		stack[stackSize] = index.getRoot();
+		stackDepths[stackSize++] = 0;
+		while(stackSize>0) {
+			stackSize--;
+			@SuppressWarnings("unchecked")
+			N node = (N)stack[stackSize];
+			int depth = stackDepths[stackSize];
+			stack[stackSize] = null;
+			int children = index.getChildCount(node);
+			footprint.add(depth, children, index.getPrefixCount(node), index.getWordCount(node),
+					index.getNodeBytes(node), index.getPostingBytes(node));
+			if(stackSize+children>stack.length) {
+				int capacity = Math.max(stack.length*2, stackSize+children);
+				Object[] newStack = new Object[capacity];
+				int[] newDepths = new int[capacity];
+				System.arraycopy(stack, 0, newStack, 0, stackSize);
+				System.arraycopy(stackDepths, 0, newDepths, 0, stackSize);
+				stack = newStack;
+				stackDepths = newDepths;
+			}
+			for(int i=0;i<children;i++) {
+				stack[stackSize] = index.getChild(node, i);
+				stackDepths[stackSize++] = depth+1;
+			}
+		}
+		return footprint;
+	}
+	/**
+	 * Counts a node.
+	 * run-time:O(1) amortised.
+	 */
+	private void add(int depth, int children, long prefixes, long words, long bytes, long postings) {
+		nodeCount++;
+		depths = count(depths, depth);
+		fanOuts = count(fanOuts, children);
+		prefixPostings += prefixes;
+		wordPostings += words;
+		nodeBytes += bytes;
+		postingBytes += postings;
+	}
+	/**
+	 * Adds 1 to an entry of a histogram, growing it if the entry is past the end.
+	 * run-time:O(1) amortised.
+	 *
+	 * @return returns the histogram (a larger copy if it grew).
+	 */
+	private static long[] count(long[] histogram, int index) {
+		if(index>=histogram.length) {
+			long[] newHistogram = new long[Math.max(histogram.length*2, index+1)];
+			System.arraycopy(histogram, 0, newHistogram, 0, histogram.length);
+			histogram = newHistogram;
+		}
+		histogram[index]++;
+		return histogram;
+	}
+	/**
+	 * run-time:O(1)
+	 * @return returns the estimated bytes of an object with fields taking the input bytes.
+	 */
+	static long objectBytes(int fieldBytes) {
+		return pad(OBJECT_HEADER+fieldBytes);
+	}
+	/**
+	 * run-time:O(1)
+	 * @return returns the estimated bytes of an array.
+	 */
+	static long arrayBytes(long length, int elementBytes) {
+		return pad(ARRAY_HEADER+length*elementBytes);
+	}
+	/**
+	 * run-time:O(1)
+	 * @return returns the estimated bytes of a String and its characters (0 for null).
+	 */
+	static long stringBytes(String string) {
+		if(string==null) {
+			return 0;
+		}
+		//value, hash, coder and hashIsZero
+		return objectBytes(REFERENCE+4+1+1)+arrayBytes(string.length(), 1);
+	}
+	/**
+	 * run-time:O(1)
+	 * @return returns the bytes padded to a multiple of 8.
+	 */
+	private static long pad(long bytes) {
+		return (bytes+7)&~7L;
+	}
+	/**
+	 * run-time:O(1)
+	 * @return returns the number of nodes (including the root).
+	 */
+	public long getNodeCount() {
+		return nodeCount;
+	}
+	/**
+	 * run-time:O(h) h=depth of the index.
+	 * @return returns the number of nodes at every depth (index 0 is the root), up to the deepest node.
+	 */
+	public long[] getDepthHistogram() {
+		return trim(depths);
+	}
+	/**
+	 * run-time:O(f) f=most children of a node.
+	 * @return returns the number of nodes with every number of children (index 0 is the leaves), up to
+	 * the most children of a node.
+	 */
+	public long[] getFanOutHistogram() {
+		return trim(fanOuts);
+	}
+	/**
+	 * run-time:O(n) n=length of the histogram.
+	 * @return returns a copy of a histogram without the empty entries at its end.
+	 */
+	private static long[] trim(long[] histogram) {
+		int length = histogram.length;
+		while(length>0&&histogram[length-1]==0) {
+			length--;
+		}
+		long[] trimmed = new long[length];
+		System.arraycopy(histogram, 0, trimmed, 0, length);
+		return trimmed;
+	}
+	/**
+	 * run-time:O(1)
+	 * @return returns the number of stored prefix locations (0 if prefix locations aren't stored).
+	 */
+	public long getPrefixPostings() {
+		return prefixPostings;
+	}
+	/**
+	 * run-time:O(1)
+	 * @return returns the number of stored word locations.
+	 */
+	public long getWordPostings() {
+		return wordPostings;
+	}
+	/**
+	 * run-time:O(1)
+	 * @return returns the estimated bytes of the nodes and their child tables.
+	 */
+	public long getNodeBytes() {
+		return nodeBytes;
+	}
+	/**
+	 * run-time:O(1)
+	 * @return returns the estimated bytes of the stored prefix and word locations.
+	 */
+	public long getPostingBytes() {
+		return postingBytes;
+	}
+	/**
+	 * run-time:O(1)
+	 * @return returns the estimated bytes of the whole index.
+	 */
+	public long getEstimatedBytes() {
+		return nodeBytes+postingBytes;
+	}
+	/**
+	 * String representation of IndexFootprint. The String is of format
+	 * "nodes:prefixPostings:wordPostings:nodeBytes:postingBytes depths=[...] fanOuts=[...]".
+	 * run-time:O(h+f) h=depth of the index, f=most children of a node.
+	 *
+	 * @return returns the string representation of IndexFootprint.
+	 */
+	public String toString() {
+		return nodeCount+":"+prefixPostings+":"+wordPostings+":"+nodeBytes+":"+postingBytes
+				+" depths="+Arrays.toString(getDepthHistogram())
+				+" fanOuts="+Arrays.toString(getFanOutHistogram());
+	}
+}
@@ -0,0 +1,174 @@
+package MyADTS;
+/**
+ * Options controlling how a Builder stores its index. Every setter returns the same IndexOptions so
+ * options can be chained (e.g. new IndexOptions().setStorePrefixes(false).setPrefixCacheSize(64)).
+ * memory-usage:O(1)
+ * 
+ * @author Riley De Leacy
+ *
+ */
+public class IndexOptions {
+	private Boolean storePrefixes;
+	private int prefixCacheSize;
+	private Boolean pathCompression;
+	private Boolean freeze;
+	private int threads;
+	private long queryCacheBytes;
+	private Boolean metrics;
+	/**
+	 * Creates a new instance of IndexOptions with the default options (prefix occurrences stored at
+	 * every TrieNode, no prefix cache, one TrieNode per character, no query cache, no metrics).
+	 * run-time:O(1)
+	 */
+	public IndexOptions() {
+		storePrefixes = true;
+		prefixCacheSize = 0;
+		pathCompression = false;
+		freeze = false;
+		threads = 1;
+		queryCacheBytes = 0;
+		metrics = false;
+	}
+	/**
+	 * Sets whether prefix occurrences are stored at every TrieNode. If they aren't, prefix occurrences are
+	 * merged from the word occurrences below the prefix when they're asked for.
+	 * run-time:O(1)
+	 * 
+	 * @param storePrefixes store prefix occurrences (true=yes, false=no).
+	 * @return returns these options.
+	 */
+	public IndexOptions setStorePrefixes(Boolean storePrefixes) {
+		this.storePrefixes = storePrefixes;
+		return this;
+	}
+	/**
+	 * Sets how many merged prefixes are cached when prefix occurrences aren't stored (0=no cache).
+	 * run-time:O(1)
+	 * 
+	 * @param prefixCacheSize maximum number of cached prefixes.
+	 * @return returns these options.
+	 */
+	public IndexOptions setPrefixCacheSize(int prefixCacheSize) {
+		if(prefixCacheSize<0) {
+			throw new IllegalArgumentException("The prefix cache size cannot be negative");
+		}
+		this.prefixCacheSize = prefixCacheSize;
+		return this;
+	}
+	/**
+	 * Sets whether the words are stored in a path compressed RadixTrie instead of a Trie. Useful for large
+	 * vocabularies of long or unique words.
+	 * run-time:O(1)
+	 * 
+	 * @param pathCompression store words in a RadixTrie (true=yes, false=no).
+	 * @return returns these options.
+	 */
+	public IndexOptions setPathCompression(Boolean pathCompression) {
+		this.pathCompression = pathCompression;
+		return this;
+	}
+	/**
+	 * Sets whether the Tries are frozen into FrozenTries once the words file has been read. A frozen index
+	 * answers the same queries but can't be added to. Can't be used with path compression.
+	 * run-time:O(1)
+	 * 
+	 * @param freeze freeze the Tries after they are built (true=yes, false=no).
+	 * @return returns these options.
+	 */
+	public IndexOptions setFreeze(Boolean freeze) {
+		this.freeze = freeze;
+		return this;
+	}
+	/**
+	 * Sets how many threads read the words file. With more than 1 thread the lines are split into ranges,
+	 * each range is added to its own Tries and the Tries are merged in row order. Path compressed indexes
+	 * are always read on 1 thread.
+	 * run-time:O(1)
+	 * 
+	 * @param threads number of threads (at least 1).
+	 * @return returns these options.
+	 */
+	public IndexOptions setThreads(int threads) {
+		if(threads<1) {
+			throw new IllegalArgumentException("At least 1 thread is needed");
+		}
+		this.threads = threads;
+		return this;
+	}
+	/**
+	 * Sets the byte budget of the Builder's query result cache (0=results aren't cached). Repeated queries
+	 * are answered from the cache while their results fit the budget, see QueryCache.
+	 * run-time:O(1)
+	 * 
+	 * @param queryCacheBytes estimated bytes the cached results can use.
+	 * @return returns these options.
+	 */
+	public IndexOptions setQueryCacheBytes(long queryCacheBytes) {
+		if(queryCacheBytes<0) {
+			throw new IllegalArgumentException("The query cache size cannot be negative");
+		}
+		this.queryCacheBytes = queryCacheBytes;
+		return this;
+	}
+	/**
+	 * Sets whether the Builder records query metrics and how long each phase of building it took (see
+	 * QueryMetrics). Metrics can also be switched on and off later with Builder.setMetricsEnabled.
+	 * run-time:O(1)
+	 * 
+	 * @param metrics record metrics (true=yes, false=no).
+	 * @return returns these options.
+	 */
+	public IndexOptions setMetrics(Boolean metrics) {
+		this.metrics = metrics;
+		return this;
+	}
+	/**
+	 * run-time:O(1)
+	 * @return returns true if prefix occurrences are stored at every TrieNode.
+	 */
+	public Boolean getStorePrefixes() {
+		return storePrefixes;
+	}
+	/**
+	 * run-time:O(1)
+	 * @return returns the maximum number of cached prefixes.
+	 */
+	public int getPrefixCacheSize() {
+		return prefixCacheSize;
+	}
+	/**
+	 * run-time:O(1)
+	 * @return returns true if words are stored in a RadixTrie.
+	 */
+	public Boolean getPathCompression() {
+		return pathCompression;
+	}
+	/**
+	 * run-time:O(1)
+	 * @return returns true if the Tries are frozen after they are built.
+	 */
+	public Boolean getFreeze() {
+		return freeze;
+	}
+	/**
+	 * run-time:O(1)
+	 * @return returns the number of threads used to read the words file.
+	 */
+	public int getThreads() {
+		return threads;
+	}
+	/**
+	 * run-time:O(1)
+	 * @return returns the byte budget of the query result cache.
+	 */
+	public long getQueryCacheBytes() {
+		return queryCacheBytes;
+	}
+	/**
+	 * run-time:O(1)
+	 * @return returns true if the Builder records metrics.
+	 */
+	public Boolean getMetrics() {
+		return metrics;
+	}
+}
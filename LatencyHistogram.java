@@ -0,0 +1,139 @@
+package MyADTS;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+/**
+ * Counts latencies in buckets that get wider as the latency gets larger (like an HDR histogram) so
+ * percentiles are within 1/32 of the recorded latency whatever its size, in a fixed amount of memory.
+ * Latencies below 64ns have their own bucket, every doubling above that is split into 32 buckets.
+ * Latencies can be recorded by many threads at once without locking.
+ * memory-usage:O(1) (about 9KB).
+ *
+ * @author Riley De Leacy
+ *
+ */
+public class LatencyHistogram {
+	private static final int SUB_BUCKETS = 64;
+	private static final int HALF = SUB_BUCKETS/2;
+	//latencies are capped at 2^MAX_EXPONENT-1 nanoseconds (about 18 minutes)
+	private static final int MAX_EXPONENT = 40;
+	private static final int BUCKETS = SUB_BUCKETS+(MAX_EXPONENT-6)*HALF;
+	private final AtomicLongArray counts;
+	private final LongAdder count;
+	private final LongAdder total;
+	private final AtomicLong max;
+	/**
+	 * Creates a new empty instance of LatencyHistogram.
+	 * run-time:O(1)
+	 */
+	public LatencyHistogram() {
+		counts = new AtomicLongArray(BUCKETS);
+		count = new LongAdder();
+		total = new LongAdder();
+		max = new AtomicLong();
+	}
+	/**
+	 * Records a latency.
+	 * run-time:O(1)
+	 *
+	 * @param nanos latency in nanoseconds (negative latencies are recorded as 0).
+	 */
+	public void record(long nanos) {
+		nanos = Math.max(0, Math.min(nanos, (1L<<MAX_EXPONENT)-1));
+		counts.incrementAndGet(bucket(nanos));
+		count.increment();
+		total.add(nanos);
+		long largest = max.get();
+		while(nanos>largest&&!max.compareAndSet(largest, nanos)) {
+			largest = max.get();
+		}
+	}
+	/**
+	 * run-time:O(1)
+	 * @return returns the bucket a latency is counted in.
+	 */
+	private static int bucket(long nanos) {
+		if(nanos<SUB_BUCKETS) {
+			return (int)nanos;
+		}
+		int exponent = 63-Long.numberOfLeadingZeros(nanos);
+		int top = (int)(nanos>>>(exponent-5));
+		return SUB_BUCKETS+(exponent-6)*HALF+top-HALF;
+	}
+	/**
+	 * run-time:O(1)
+	 * @return returns the largest latency counted in a bucket.
+	 */
+	private static long highest(int bucket) {
+		if(bucket<SUB_BUCKETS) {
+			return bucket;
+		}
+		int exponent = (bucket-SUB_BUCKETS)/HALF+6;
+		long top = (bucket-SUB_BUCKETS)%HALF+HALF;
+		return ((top+1)<<(exponent-5))-1;
+	}
+	/**
+	 * run-time:O(1)
+	 * @return returns the number of recorded latencies.
+	 */
+	public long getCount() {
+		return count.sum();
+	}
+	/**
+	 * run-time:O(1)
+	 * @return returns the largest recorded latency in nanoseconds (0 if none are recorded).
+	 */
+	public long getMax() {
+		return max.get();
+	}
+	/**
+	 * run-time:O(1)
+	 * @return returns the mean recorded latency in nanoseconds (0 if none are recorded).
+	 */
+	public double getMean() {
+		long recorded = count.sum();
+		return recorded==0?0:(double)total.sum()/recorded;
+	}
+	/**
+	 * Finds the latency a percentage of the recorded latencies are at or below. The latency is the top of
+	 * the bucket it is counted in (never more than the largest recorded latency).
+	 * run-time:O(1) (the number of buckets is fixed).
+	 *
+	 * @param percentile percentage from 0 to 100.
+	 * @return returns the latency in nanoseconds (0 if none are recorded).
+	 */
+	public long getValueAtPercentile(double percentile) {
+		if(percentile<0||percentile>100) {
+			throw new IllegalArgumentException("The percentile must be from 0 to 100");
+		}
+		long recorded = 0;
+		for(int i=0;i<BUCKETS;i++) {
+			recorded += counts.get(i);
+		}
+		if(recorded==0) {
+			return 0;
+		}
+		long rank = Math.max(1, (long)Math.ceil(percentile/100*recorded));
+		long seen = 0;
+		for(int i=0;i<BUCKETS;i++) {
+			seen += counts.get(i);
+			if(seen>=rank) {
+				return Math.min(highest(i), max.get());
+			}
+		}
+		return max.get();
+	}
+	/**
+	 * Removes every recorded latency. Latencies recorded while resetting may be partly kept.
+	 * run-time:O(1) (the number of buckets is fixed).
+	 */
+	public void reset() {
+		for(int i=0;i<BUCKETS;i++) {
+			counts.set(i, 0);
+		}
+		count.reset();
+		total.reset();
+		max.set(0);
+	}
+}
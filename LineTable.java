@@ -0,0 +1,146 @@
+package MyADTS;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.IntBuffer;
+/**
+ * Stores every line of the words file so lines can be looked up by index in constant time.
+ * Lines are either held as Strings (while a Builder reads the words file) or read from a buffer of
+ * characters and line offsets (when a Builder is opened from an index file).
+ * memory-usage:O(c) c=characters in the words file.
+ * 
+ * @author Riley De Leacy
+ *
+ */
+public class LineTable {
+	private String[] lines;
+	private int size;
+	//only used when the lines are read from buffers, line i is chars offsets[i] to offsets[i+1]-1
+	private CharBuffer chars;
+	private IntBuffer offsets;
+	/**
+	 * Creates a new empty LineTable.
+	 * run-time:O(1)
+	 * 
+	 * @param capacity expected number of lines.
+	 */
+	public LineTable(int capacity) {
+		lines = new String[Math.max(capacity, 1)];
+		size = 0;
+	}
+	/**
+	 * Creates a read-only LineTable over buffers.
+	 * run-time:O(1)
+	 * 
+	 * @param chars characters of every line.
+	 * @param offsets start of every line in chars (number of lines+1 entries).
+	 */
+	private LineTable(CharBuffer chars, IntBuffer offsets) {
+		this.chars = chars;
+		this.offsets = offsets;
+		size = offsets.limit()-1;
+	}
+	/**
+	 * Adds a line to the end of the table.
+	 * run-time:O(1) amortised.
+	 * 
+	 * @param line line to be added.
+	 */
+	public void add(String line) {
+		if(lines==null) {
+			throw new UnsupportedOperationException("Lines read from an index file cannot be changed");
+		}
+		if(size==lines.length) {
+			String[] newLines = new String[lines.length*2];
+			System.arraycopy(lines, 0, newLines, 0, size);
+			lines = newLines;
+		}
+		lines[size] = line;
+		size++;
+	}
+	/**
+	 * Retrieves a line.
+	 * run-time:O(1) (O(l) l=length of the line if read from a buffer).
+	 * 
+	 * @param index index of the line (row-1).
+	 * @return returns the line.
+	 */
+	public String get(int index) {
+		if(index<0||index>=size) {
+			throw new ArrayIndexOutOfBoundsException(index);
+		}
+		if(lines!=null) {
+			return lines[index];
+		}
+		int start = offsets.get(index);
+		char[] line = new char[offsets.get(index+1)-start];
+		chars.get(start, line);
+		return new String(line);
+	}
+	/**
+	 * The number of lines.
+	 * run-time:O(1)
+	 * 
+	 * @return returns the number of lines stored.
+	 */
+	public int getSize() {
+		return size;
+	}
+	/**
+	 * Estimates the heap used by the lines (see IndexFootprint). Lines memory mapped from an index file
+	 * aren't on the heap so they count as 0.
+	 * run-time:O(n) n=number of lines.
+	 * 
+	 * @return returns the estimated bytes of the LineTable.
+	 */
+	public long heapBytes() {
+		//lines, size, chars and offsets
+		long bytes = IndexFootprint.objectBytes(4*IndexFootprint.REFERENCE);
+		if(lines!=null) {
+			bytes += IndexFootprint.arrayBytes(lines.length, IndexFootprint.REFERENCE);
+			for(int i=0;i<size;i++) {
+				bytes += IndexFootprint.stringBytes(lines[i]);
+			}
+		}else if(!chars.isDirect()) {
+			bytes += IndexFootprint.arrayBytes(chars.capacity(), 2)+IndexFootprint.arrayBytes(offsets.capacity(), 4);
+		}
+		return bytes;
+	}
+	/**
+	 * Writes the lines as a count, line offsets and characters padded to a multiple of 4 bytes.
+	 * run-time:O(c) c=characters in every line.
+	 * 
+	 * @param out stream to write to.
+	 */
+	void write(DataOutputStream out) throws IOException {
+		out.writeInt(size);
+		int offset = 0;
+		out.writeInt(offset);
+		for(int i=0;i<size;i++) {
+			offset += get(i).length();
+			out.writeInt(offset);
+		}
+		for(int i=0;i<size;i++) {
+			out.writeChars(get(i));
+		}
+		if(offset%2==1) {
+			out.writeChar(0);
+		}
+	}
+	/**
+	 * Reads lines written by write without copying them.
+	 * run-time:O(1)
+	 * 
+	 * @param buffer buffer holding the written lines from its position, moved past them.
+	 * @return returns a read-only LineTable over the buffer.
+	 */
+	static LineTable map(ByteBuffer buffer) {
+		int count = buffer.getInt();
+		IntBuffer offsets = IndexFile.ints(buffer, count+1);
+		int characters = offsets.get(count);
+		CharBuffer chars = IndexFile.chars(buffer, characters);
+		return new LineTable(chars, offsets);
+	}
+}
@@ -0,0 +1,114 @@
+package MyADTS;
+/**
+ * The metrics of one Builder query method at the time QueryMetrics.getMethods was called. Latencies are
+ * in nanoseconds, percentiles are the top of the LatencyHistogram bucket they fall in.
+ * memory-usage:O(1)
+ *
+ * @author Riley De Leacy
+ *
+ */
+public class MethodSnapshot {
+	private final String name;
+	private final long calls;
+	private final long postingsScanned;
+	private final long resultsReturned;
+	private final double meanNanos;
+	private final long p50Nanos;
+	private final long p90Nanos;
+	private final long p99Nanos;
+	private final long maxNanos;
+	/**
+	 * Creates a new instance of MethodSnapshot.
+	 * run-time:O(1)
+	 *
+	 * @param name name of the query method.
+	 * @param calls number of timed calls.
+	 * @param postingsScanned word locations read from the Tries by the calls.
+	 * @param resultsReturned items in the returned results.
+	 * @param latency latencies of the calls.
+	 */
+	MethodSnapshot(String name, long calls, long postingsScanned, long resultsReturned, LatencyHistogram latency) {
+		this.name = name;
+		this.calls = calls;
+		this.postingsScanned = postingsScanned;
+		this.resultsReturned = resultsReturned;
+		meanNanos = latency.getMean();
+		p50Nanos = latency.getValueAtPercentile(50);
+		p90Nanos = latency.getValueAtPercentile(90);
+		p99Nanos = latency.getValueAtPercentile(99);
+		maxNanos = latency.getMax();
+	}
+	/**
+	 * run-time:O(1)
+	 * @return returns the name of the query method.
+	 */
+	public String getName() {
+		return name;
+	}
+	/**
+	 * run-time:O(1)
+	 * @return returns the number of timed calls.
+	 */
+	public long getCalls() {
+		return calls;
+	}
+	/**
+	 * run-time:O(1)
+	 * @return returns the number of word locations read from the Tries (0 for cached results).
+	 */
+	public long getPostingsScanned() {
+		return postingsScanned;
+	}
+	/**
+	 * run-time:O(1)
+	 * @return returns the number of items in the returned results.
+	 */
+	public long getResultsReturned() {
+		return resultsReturned;
+	}
+	/**
+	 * run-time:O(1)
+	 * @return returns the mean latency.
+	 */
+	public double getMeanNanos() {
+		return meanNanos;
+	}
+	/**
+	 * run-time:O(1)
+	 * @return returns the median latency.
+	 */
+	public long getP50Nanos() {
+		return p50Nanos;
+	}
+	/**
+	 * run-time:O(1)
+	 * @return returns the 90th percentile latency.
+	 */
+	public long getP90Nanos() {
+		return p90Nanos;
+	}
+	/**
+	 * run-time:O(1)
+	 * @return returns the 99th percentile latency.
+	 */
+	public long getP99Nanos() {
+		return p99Nanos;
+	}
+	/**
+	 * run-time:O(1)
+	 * @return returns the largest latency.
+	 */
+	public long getMaxNanos() {
+		return maxNanos;
+	}
+	/**
+	 * String representation of MethodSnapshot. The String is of format
+	 * "name:calls:postingsScanned:resultsReturned:p50:p99:max".
+	 * run-time:O(1)
+	 *
+	 * @return returns the string representation of MethodSnapshot.
+	 */
+	public String toString() {
+		return name+":"+calls+":"+postingsScanned+":"+resultsReturned+":"+p50Nanos+":"+p99Nanos+":"+maxNanos;
+	}
+}
@@ -0,0 +1,28 @@
+package MyADTS;
+/**
+ * Moves through a sequence of (column, row) occurrences without allocating. next() must be called
+ * before reading the first occurrence.
+ * 
+ * @author Riley De Leacy
+ *
+ */
+public interface OccurrenceCursor {
+	/**
+	 * Moves to the next occurrence.
+	 * 
+	 * @return true if there was another occurrence, false if the end was reached.
+	 */
+	public boolean next();
+	/**
+	 * The row of the current occurrence.
+	 * 
+	 * @return returns the row of the current occurrence.
+	 */
+	public int row();
+	/**
+	 * The column of the current occurrence.
+	 * 
+	 * @return returns the column of the current occurrence.
+	 */
+	public int column();
+}
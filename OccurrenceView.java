@@ -0,0 +1,32 @@
+package MyADTS;
+/**
+ * A read-only view of the occurrences stored for a word or prefix. Views are handed out instead of
+ * copies so a query only pays for the occurrences it reads. A view never changes after it is created,
+ * occurrences added to the index afterwards are not seen by it.
+ * 
+ * @author Riley De Leacy
+ *
+ */
+public interface OccurrenceView {
+	/**
+	 * The number of occurrences in the view.
+	 * run-time:O(1)
+	 * 
+	 * @return returns the number of occurrences.
+	 */
+	public int getSize();
+	/**
+	 * Creates a new cursor positioned before the first occurrence.
+	 * run-time:O(1)
+	 * 
+	 * @return returns a new OccurrenceCursor over the view.
+	 */
+	public OccurrenceCursor cursor();
+	/**
+	 * Copies the view into a new LinkedList of Values.
+	 * run-time:O(n) n=number of occurrences.
+	 * 
+	 * @return returns a new LinkedList containing a Values for every occurrence in order.
+	 */
+	public LinkedList<Values> toList();
+}
@@ -0,0 +1,71 @@
+package MyADTS;
+
+import java.nio.IntBuffer;
+/**
+ * Read-only view of a range of (column, row) pairs packed into an IntBuffer. Used by FrozenTrie where
+ * all occurrences are stored in shared buffers (which may be memory mapped).
+ * memory-usage:O(1)
+ * 
+ * @author Riley De Leacy
+ *
+ */
+public class PackedView implements OccurrenceView {
+	private final IntBuffer data;
+	private final int start;
+	private final int size;
+	/**
+	 * Creates a new instance of PackedView.
+	 * run-time:O(1)
+	 * 
+	 * @param data buffer of column,row pairs.
+	 * @param start index of the first pair in the view.
+	 * @param size number of pairs in the view.
+	 */
+	public PackedView(IntBuffer data, int start, int size) {
+		this.data = data;
+		this.start = start;
+		this.size = size;
+	}
+	@Override
+	public int getSize() {
+		return size;
+	}
+	@Override
+	public OccurrenceCursor cursor() {
+		return new PackedCursor();
+	}
+	@Override
+	public LinkedList<Values> toList() {
+		return PostingList.toList(cursor());
+	}
+	@Override
+	public String toString() {
+		return toList().toString();
+	}
+	/**
+	 * Cursor over the pairs of a PackedView, reads the buffer by absolute index so it never changes it.
+	 * memory-usage:O(1)
+	 * 
+	 * @author Riley De Leacy
+	 *
+	 */
+	private class PackedCursor implements OccurrenceCursor {
+		private int index = start-1;
+		@Override
+		public boolean next() {
+			if(index+1>=start+size) {
+				return false;
+			}
+			index++;
+			return true;
+		}
+		@Override
+		public int row() {
+			return data.get(index*2+1);
+		}
+		@Override
+		public int column() {
+			return data.get(index*2);
+		}
+	}
+}
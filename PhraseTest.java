@@ -0,0 +1,110 @@
+package MyADTS;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+/**
+ * Checks phrases with words without any letters (e.g. "1999") in them. Those words aren't stored in the
+ * Tries but still take up a position so a phrase must not match across them, and when they are in the
+ * phrase they must be the same in the words file. Every phrase is searched with phraseOccurrence and
+ * with a QueryBatch in every index mode and compared with the expected locations.
+ * Exits with status 1 if any result differs.
+ * Usage: java MyADTS.PhraseTest
+ *
+ * @author Riley De Leacy
+ *
+ */
+public class PhraseTest {
+	private static final String[] LINES = {"born in the city", "born in 1999 the city", "we met at 10 pm", "we met at pm"};
+	private static final String[] STOP_WORDS = {"the", "in", "at"};
+	//phrases and the locations (column-row) expected for them
+	private static final String[][] PHRASES = {
+			{"born in 1999", "1-2"},
+			{"in 1999 the", "6-2"},
+			{"at 10 pm", "8-3"},
+			{"1999 the city", "9-2"},
+			{"10 pm", "11-3"},
+			{"born in the", "1-1"},
+			{"met at pm", "4-4"},
+			{"born in 2000", ""},
+			{"at 1 pm", ""},
+			{"in 199 the", ""}};
+	/**
+	 * Runs the phrase checks.
+	 *
+	 * @param args not used.
+	 * @throws IOException if the files can't be written or read.
+	 */
+	public static void main(String[] args) throws IOException {
+		File directory = new File(System.getProperty("java.io.tmpdir"), "trie-phrase");
+		directory.mkdirs();
+		String words = write(new File(directory, "words.txt"), LINES);
+		String stopWords = write(new File(directory, "stop.txt"), STOP_WORDS);
+		String index = write(new File(directory, "index.txt"), new String[] {"Phrases,1"});
+		String saved = new File(directory, "phrase.idx").getPath();
+		new Builder(words, stopWords, index).save(saved);
+		String[] modes = {"trie", "radix", "lazy", "freeze", "reopen"};
+		Builder[] builders = {new Builder(words, stopWords, index),
+				new Builder(words, stopWords, index, new IndexOptions().setPathCompression(true)),
+				new Builder(words, stopWords, index, new IndexOptions().setStorePrefixes(false)),
+				new Builder(words, stopWords, index, new IndexOptions().setFreeze(true)),
+				Builder.open(saved)};
+		int failures = 0;
+		for(int i=0;i<builders.length;i++) {
+			QueryBatch batch = new QueryBatch();
+			for(String[] j:PHRASES) {
+				batch.addPhrase(j[0]);
+			}
+			LinkedList<LinkedList<Values>> batched = builders[i].search(batch);
+			int query = 0;
+			for(Node<LinkedList<Values>> j:batched) {
+				String phrase = PHRASES[query][0];
+				String expected = PHRASES[query][1];
+				failures += check(modes[i]+" phraseOccurrence", phrase, render(builders[i].phraseOccurrence(phrase)), expected);
+				failures += check(modes[i]+" search", phrase, render(j.element), expected);
+				query++;
+			}
+		}
+		System.out.println(failures==0?"OK":"FAILED "+failures+" phrases");
+		System.exit(failures==0?0:1);
+	}
+	/**
+	 * Compares a result with the expected locations, printing it if it differs.
+	 *
+	 * @return returns 1 if the result differs, 0 otherwise.
+	 */
+	private static int check(String name, String phrase, String result, String expected) {
+		if(result.equals(expected)) {
+			return 0;
+		}
+		System.out.println(name+" \""+phrase+"\" returned ["+result+"] expected ["+expected+"]");
+		return 1;
+	}
+	/**
+	 * run-time:O(r) r=size of the result.
+	 * @return returns the locations of a result separated by spaces.
+	 */
+	private static String render(LinkedList<Values> result) {
+		StringBuilder string = new StringBuilder();
+		if(result!=null) {
+			for(Node<Values> i:result) {
+				string.append(string.length()>0?" ":"").append(i.element);
+			}
+		}
+		return string.toString();
+	}
+	/**
+	 * Writes lines to a file.
+	 *
+	 * @return returns the path of the file.
+	 */
+	private static String write(File file, String[] lines) throws IOException {
+		try(PrintWriter out = new PrintWriter(new FileWriter(file))) {
+			for(String i:lines) {
+				out.println(i);
+			}
+		}
+		return file.getPath();
+	}
+}
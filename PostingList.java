@@ -0,0 +1,523 @@
+package MyADTS;
+/**
+ * Stores (column, row) occurrences in growable primitive arrays instead of one Node and one Values
+ * object per occurrence. Occurrences must be added in row order (and column order within a row) which
+ * is the order the words file is read in.
+ *
+ * Occurrences are appended to a raw int array. compress() moves every full block of BLOCK_SIZE raw
+ * occurrences into a byte array where each block is delta and varint encoded, later occurrences keep
+ * being appended to the raw array. Cursors read compressed blocks and then the raw tail.
+ *
+ * view() hands out a read-only OccurrenceView of the occurrences added so far without copying them.
+ *
+ * memory-usage:O(n) n=number of occurrences (2 ints per raw occurrence, 2-4 bytes per compressed one).
+ *
+ * @author Riley De Leacy
+ *
+ */
+public class PostingList {
+	//number of occurrences in every compressed block
+	private static final int BLOCK_SIZE = 128;
+	//view with no occurrences, shared by every TrieNode that has none
+	public static final OccurrenceView EMPTY_VIEW = new PostingList().view();
+	//raw occurrences stored as column,row pairs
+	private int[] raw;
+	private int rawCount;
+	//compressed blocks, block i starts at blockOffsets[i]
+	private byte[] blocks;
+	private int blockBytes;
+	private int[] blockOffsets;
+	private int blockCount;
+	/**
+	 * Creates a new empty PostingList.
+	 * run-time:O(1)
+	 */
+	public PostingList() {
+		rawCount = 0;
+		blockBytes = 0;
+		blockCount = 0;
+	}
+	/**
+	 * Adds an occurrence to the end of the list.
+	 * run-time:O(1) amortised.
+	 *
+	 * @param column column the occurrence starts at.
+	 * @param row row the occurrence is on.
+	 */
+	public void add(int column, int row) {
+		if(raw==null) {
+			raw = new int[4];
+		}else if(rawCount*2==raw.length) {
+			int[] newRaw = new int[raw.length*2];
+			System.arraycopy(raw, 0, newRaw, 0, raw.length);
+			raw = newRaw;
+		}
+		raw[rawCount*2] = column;
+		raw[rawCount*2+1] = row;
+		rawCount++;
+	}
+	/**
+	 * Adds every occurrence of a view to the end of the list. The view's occurrences must come after
+	 * the occurrences already in the list.
+	 * run-time:O(n) n=number of occurrences in the view.
+	 *
+	 * @param occurrences occurrences to be added.
+	 */
+	public void addAll(OccurrenceView occurrences) {
+		OccurrenceCursor cursor = occurrences.cursor();
+		while(cursor.next()) {
+			add(cursor.column(), cursor.row());
+		}
+	}
+	/**
+	 * The number of occurrences stored.
+	 * run-time:O(1)
+	 *
+	 * @return returns the number of occurrences in the list.
+	 */
+	public int getSize() {
+		return blockCount*BLOCK_SIZE+rawCount;
+	}
+	/**
+	 * Creates a copy of the list holding the same occurrences.
+	 * run-time:O(n) n=number of occurrences.
+	 *
+	 * @return returns a new PostingList with the same occurrences.
+	 */
+	public PostingList copy() {
+		PostingList copy = new PostingList();
+		if(raw!=null) {
+			copy.raw = raw.clone();
+		}
+		copy.rawCount = rawCount;
+		if(blocks!=null) {
+			copy.blocks = blocks.clone();
+			copy.blockOffsets = blockOffsets.clone();
+		}
+		copy.blockBytes = blockBytes;
+		copy.blockCount = blockCount;
+		return copy;
+	}
+	/**
+	 * Compresses every full block of raw occurrences and trims the raw array to the remaining tail.
+	 * run-time:O(n) n=number of raw occurrences.
+	 */
+	public void compress() {
+		int fullBlocks = rawCount/BLOCK_SIZE;
+		if(fullBlocks>0) {
+			if(blockOffsets==null) {
+				blockOffsets = new int[fullBlocks];
+				//worst case is 10 bytes per occurrence, most occurrences take 2
+				blocks = new byte[fullBlocks*BLOCK_SIZE*4];
+			}else {
+				int[] newOffsets = new int[blockCount+fullBlocks];
+				System.arraycopy(blockOffsets, 0, newOffsets, 0, blockCount);
+				blockOffsets = newOffsets;
+			}
+			for(int i=0;i<fullBlocks;i++) {
+				blockOffsets[blockCount] = blockBytes;
+				encodeBlock(i*BLOCK_SIZE);
+				blockCount++;
+			}
+			rawCount -= fullBlocks*BLOCK_SIZE;
+			System.arraycopy(raw, fullBlocks*BLOCK_SIZE*2, raw, 0, rawCount*2);
+			byte[] trimmedBlocks = new byte[blockBytes];
+			System.arraycopy(blocks, 0, trimmedBlocks, 0, blockBytes);
+			blocks = trimmedBlocks;
+		}
+		if(raw!=null) {
+			int[] trimmedRaw = new int[Math.max(rawCount*2, 2)];
+			System.arraycopy(raw, 0, trimmedRaw, 0, rawCount*2);
+			raw = trimmedRaw;
+		}
+	}
+	/**
+	 * Encodes BLOCK_SIZE raw occurrences starting at the input occurrence. The first occurrence is stored
+	 * as is, every following occurrence stores its row delta then its column delta (same row) or column.
+	 * run-time:O(BLOCK_SIZE)
+	 *
+	 * @param start index of the first raw occurrence in the block.
+	 */
+	private void encodeBlock(int start) {
+		int lastRow = 0;
+		int lastColumn = 0;
+		for(int i=start;i<start+BLOCK_SIZE;i++) {
+			int column = raw[i*2];
+			int row = raw[i*2+1];
+			int rowDelta = row-lastRow;
+			writeVarint(rowDelta);
+			if(rowDelta==0) {
+				writeVarint(zigzag(column-lastColumn));
+			}else {
+				writeVarint(zigzag(column));
+			}
+			lastRow = row;
+			lastColumn = column;
+		}
+	}
+	/**
+	 * Writes an int as a variable length sequence of 7 bit groups.
+	 * run-time:O(1)
+	 *
+	 * @param value value to be written (treated as unsigned).
+	 */
+	private void writeVarint(int value) {
+		if(blockBytes+5>blocks.length) {
+			byte[] newBlocks = new byte[blocks.length*2+5];
+			System.arraycopy(blocks, 0, newBlocks, 0, blockBytes);
+			blocks = newBlocks;
+		}
+		while((value&~0x7F)!=0) {
+			blocks[blockBytes++] = (byte)((value&0x7F)|0x80);
+			value >>>= 7;
+		}
+		blocks[blockBytes++] = (byte)value;
+	}
+	/**
+	 * Maps signed ints to unsigned so small negative deltas stay small.
+	 * run-time:O(1)
+	 */
+	private static int zigzag(int value) {
+		return (value<<1)^(value>>31);
+	}
+	/**
+	 * Reverses zigzag.
+	 * run-time:O(1)
+	 */
+	private static int unzigzag(int value) {
+		return (value>>>1)^-(value&1);
+	}
+	/**
+	 * Whether any blocks have been compressed.
+	 * run-time:O(1)
+	 *
+	 * @return true if the list holds compressed blocks, false otherwise.
+	 */
+	public Boolean isCompressed() {
+		return blockCount>0;
+	}
+	/**
+	 * Estimates the heap used by this list including its arrays (see IndexFootprint).
+	 * run-time:O(1)
+	 *
+	 * @return returns the estimated bytes of the list.
+	 */
+	public long heapBytes() {
+		//raw, rawCount, blocks, blockBytes, blockOffsets and blockCount
+		long bytes = IndexFootprint.objectBytes(6*4);
+		if(raw!=null) {
+			bytes += IndexFootprint.arrayBytes(raw.length, 4);
+		}
+		if(blocks!=null) {
+			bytes += IndexFootprint.arrayBytes(blocks.length, 1)+IndexFootprint.arrayBytes(blockOffsets.length, 4);
+		}
+		return bytes;
+	}
+	/**
+	 * Estimates the bytes of primitive storage used by this list.
+	 * run-time:O(1)
+	 *
+	 * @return returns the length of the raw and compressed arrays in bytes.
+	 */
+	public long storageBytes() {
+		long bytes = 0;
+		if(raw!=null) {
+			bytes += raw.length*4L;
+		}
+		if(blocks!=null) {
+			bytes += blocks.length+blockOffsets.length*4L;
+		}
+		return bytes;
+	}
+	/**
+	 * Creates a LinkedList of Values holding every occurrence.
+	 * run-time:O(n) n=number of occurrences.
+	 *
+	 * @return returns a new LinkedList containing a Values for every occurrence in order.
+	 */
+	public LinkedList<Values> toList() {
+		return toList(cursor());
+	}
+	/**
+	 * Copies the occurrences left in a cursor into a LinkedList of Values.
+	 * run-time:O(n) n=number of occurrences left in the cursor.
+	 *
+	 * @param cursor cursor to be read.
+	 * @return returns a new LinkedList containing a Values for every occurrence in order.
+	 */
+	static LinkedList<Values> toList(OccurrenceCursor cursor) {
+		LinkedList<Values> list = new LinkedList<Values>();
+		while(cursor.next()) {
+			list.add(new Values(cursor.column(), cursor.row()));
+		}
+		return list;
+	}
+	/**
+	 * Creates a new Cursor positioned before the first occurrence.
+	 * run-time:O(1)
+	 *
+	 * @return returns a new Cursor over this list.
+	 */
+	public Cursor cursor() {
+		return new Cursor(this);
+	}
+	/**
+	 * Creates a read-only view of the occurrences currently in the list.
+	 * run-time:O(1)
+	 *
+	 * @return returns an OccurrenceView of the first getSize() occurrences.
+	 */
+	public OccurrenceView view() {
+		return new View(this, getSize());
+	}
+	/**
+	 * Merges views whose occurrences are each in row then column order into one view in row then column
+	 * order using a binary heap of cursors.
+	 * run-time:O(o*log(w)) o=total occurrences, w=number of views.
+	 *
+	 * @param found views to be merged, only the first foundCount are used.
+	 * @param foundCount number of views to be merged.
+	 * @param total total number of occurrences in the views.
+	 * @return returns a view of every occurrence in the views.
+	 */
+	static OccurrenceView merge(OccurrenceView[] found, int foundCount, int total) {
+		if(foundCount==0) {
+			return PostingList.EMPTY_VIEW;
+		}
+		if(foundCount==1) {
+			//only one view so its occurrences are already in order
+			return found[0];
+		}
+		//k-way merge using a binary heap of cursors ordered by their current row and column
+		OccurrenceCursor[] heap = new OccurrenceCursor[foundCount];
+		int heapSize = 0;
+		for(int i=0;i<foundCount;i++) {
+			OccurrenceCursor cursor = found[i].cursor();
+			cursor.next();
+			heap[heapSize] = cursor;
+			siftUp(heap, heapSize);
+			heapSize++;
+		}
+		PostingList merged = new PostingList();
+		for(int i=0;i<total;i++) {
+			OccurrenceCursor smallest = heap[0];
+			merged.add(smallest.column(), smallest.row());
+			if(!smallest.next()) {
+				heapSize--;
+				heap[0] = heap[heapSize];
+			}
+			siftDown(heap, heapSize);
+		}
+		return merged.view();
+	}
+	/**
+	 * Moves a cursor up a heap until its parent is before it.
+	 * run-time:O(log(n)) n=size of the heap.
+	 */
+	private static void siftUp(OccurrenceCursor[] heap, int index) {
+		OccurrenceCursor moving = heap[index];
+		while(index>0) {
+			int parent = (index-1)/2;
+			if(!before(moving, heap[parent])) {
+				break;
+			}
+			heap[index] = heap[parent];
+			index = parent;
+		}
+		heap[index] = moving;
+	}
+	/**
+	 * Moves the top cursor of a heap down until its children are after it.
+	 * run-time:O(log(n)) n=size of the heap.
+	 */
+	private static void siftDown(OccurrenceCursor[] heap, int heapSize) {
+		if(heapSize==0) {
+			return;
+		}
+		OccurrenceCursor moving = heap[0];
+		int index = 0;
+		while(index*2+1<heapSize) {
+			int child = index*2+1;
+			if(child+1<heapSize&&before(heap[child+1], heap[child])) {
+				child++;
+			}
+			if(!before(heap[child], moving)) {
+				break;
+			}
+			heap[index] = heap[child];
+			index = child;
+		}
+		heap[index] = moving;
+	}
+	/**
+	 * Whether the current occurrence of one cursor comes before the current occurrence of another.
+	 * run-time:O(1)
+	 */
+	private static boolean before(OccurrenceCursor first, OccurrenceCursor second) {
+		if(first.row()!=second.row()) {
+			return first.row()<second.row();
+		}
+		return first.column()<second.column();
+	}
+	/**
+	 * Read-only view of the first limit occurrences of a PostingList. Occurrences are only ever appended
+	 * and compressing keeps their order so the view stays the same as the list grows.
+	 * memory-usage:O(1)
+	 *
+	 * @author Riley De Leacy
+	 *
+	 */
+	private static class View implements OccurrenceView {
+		private final PostingList list;
+		private final int limit;
+		/**
+		 * Creates a new View of the first limit occurrences of a list.
+		 * run-time:O(1)
+		 *
+		 * @param list list to be viewed.
+		 * @param limit number of occurrences in the view.
+		 */
+		public View(PostingList list, int limit) {
+			this.list = list;
+			this.limit = limit;
+		}
+		@Override
+		public int getSize() {
+			return limit;
+		}
+		@Override
+		public OccurrenceCursor cursor() {
+			Cursor cursor = new Cursor(list);
+			cursor.limit = limit;
+			return cursor;
+		}
+		@Override
+		public LinkedList<Values> toList() {
+			return PostingList.toList(cursor());
+		}
+		@Override
+		public String toString() {
+			return toList().toString();
+		}
+	}
+	/**
+	 * Moves through the occurrences of a PostingList without allocating. next() must be called before
+	 * reading the first occurrence. A Cursor can be reused for another list with reset.
+	 * memory-usage:O(1)
+	 *
+	 * @author Riley De Leacy
+	 *
+	 */
+	public static class Cursor implements OccurrenceCursor {
+		private PostingList list;
+		//number of occurrences the cursor may read
+		private int limit;
+		private int read;
+		private int block;
+		private int inBlock;
+		private int position;
+		private int rawIndex;
+		private int row;
+		private int column;
+		/**
+		 * Creates a new Cursor over the input list.
+		 * run-time:O(1)
+		 *
+		 * @param list list to move through.
+		 */
+		public Cursor(PostingList list) {
+			reset(list);
+		}
+		/**
+		 * Moves the Cursor back before the first occurrence of the input list.
+		 * run-time:O(1)
+		 *
+		 * @param list list to move through.
+		 */
+		public void reset(PostingList list) {
+			this.list = list;
+			limit = Integer.MAX_VALUE;
+			read = 0;
+			block = 0;
+			inBlock = 0;
+			position = 0;
+			rawIndex = 0;
+			row = 0;
+			column = 0;
+		}
+		/**
+		 * Moves to the next occurrence.
+		 * run-time:O(1)
+		 *
+		 * @return true if there was another occurrence, false if the end of the list was reached.
+		 */
+		@Override
+		public boolean next() {
+			if(read==limit) {
+				return false;
+			}
+			read++;
+			if(block<list.blockCount) {
+				if(inBlock==0) {
+					position = list.blockOffsets[block];
+					row = 0;
+					column = 0;
+				}
+				int rowDelta = readVarint();
+				int value = unzigzag(readVarint());
+				row += rowDelta;
+				column = rowDelta==0?column+value:value;
+				inBlock++;
+				if(inBlock==BLOCK_SIZE) {
+					inBlock = 0;
+					block++;
+				}
+				return true;
+			}
+			if(rawIndex<list.rawCount) {
+				column = list.raw[rawIndex*2];
+				row = list.raw[rawIndex*2+1];
+				rawIndex++;
+				return true;
+			}
+			read--;
+			return false;
+		}
+		/**
+		 * Reads a varint from the current block position.
+		 * run-time:O(1)
+		 */
+		private int readVarint() {
+			byte[] bytes = list.blocks;
+			int value = 0;
+			int shift = 0;
+			byte current;
+			do {
+				current = bytes[position++];
+				value |= (current&0x7F)<<shift;
+				shift += 7;
+			}while(current<0);
+			return value;
+		}
+		/**
+		 * The row of the current occurrence.
+		 * run-time:O(1)
+		 *
+		 * @return returns the row of the current occurrence.
+		 */
+		@Override
+		public int row() {
+			return row;
+		}
+		/**
+		 * The column of the current occurrence.
+		 * run-time:O(1)
+		 *
+		 * @return returns the column of the current occurrence.
+		 */
+		@Override
+		public int column() {
+			return column;
+		}
+	}
+}
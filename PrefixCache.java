@@ -0,0 +1,83 @@
+package MyADTS;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+/**
+ * A bounded least recently used cache of merged prefix occurrences. Used by a Trie that doesn't store
+ * prefix occurrences so hot prefixes don't have their subtree merged on every lookup.
+ * memory-usage:O(c) c=occurrences held by the cached views.
+ * 
+ * @author Riley De Leacy
+ *
+ */
+public class PrefixCache {
+	private final int capacity;
+	private final LinkedHashMap<String,OccurrenceView> entries;
+	/**
+	 * Creates a new instance of PrefixCache.
+	 * run-time:O(1)
+	 * 
+	 * @param capacity maximum number of prefixes to keep.
+	 */
+	public PrefixCache(int capacity) {
+		if(capacity<1) {
+			throw new IllegalArgumentException("The capacity must be at least 1");
+		}
+		this.capacity = capacity;
+		//access ordered so the eldest entry is the least recently used one
+		entries = new LinkedHashMap<String,OccurrenceView>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String,OccurrenceView> eldest) {
+				return size()>PrefixCache.this.capacity;
+			}
+		};
+	}
+	/**
+	 * Retrieves the cached occurrences of a prefix.
+	 * run-time:O(1)
+	 * 
+	 * @param prefix formatted prefix.
+	 * @return returns the cached view or null if the prefix isn't cached.
+	 */
+	public synchronized OccurrenceView get(String prefix) {
+		return entries.get(prefix);
+	}
+	/**
+	 * Caches the occurrences of a prefix, removing the least recently used prefix if the cache is full.
+	 * run-time:O(1)
+	 * 
+	 * @param prefix formatted prefix.
+	 * @param occurrences view to be cached.
+	 */
+	public synchronized void put(String prefix, OccurrenceView occurrences) {
+		entries.put(prefix, occurrences);
+	}
+	/**
+	 * Removes every cached prefix.
+	 * run-time:O(n) n=number of cached prefixes.
+	 */
+	public synchronized void clear() {
+		if(!entries.isEmpty()) {
+			entries.clear();
+		}
+	}
+	/**
+	 * The maximum number of cached prefixes.
+	 * run-time:O(1)
+	 * 
+	 * @return returns the capacity of the cache.
+	 */
+	public int getCapacity() {
+		return capacity;
+	}
+	/**
+	 * The number of cached prefixes.
+	 * run-time:O(1)
+	 * 
+	 * @return returns the number of cached prefixes.
+	 */
+	public synchronized int getSize() {
+		return entries.size();
+	}
+}
@@ -0,0 +1,92 @@
+package MyADTS;
+/**
+ * A list of phrase and prefix queries to be answered together by Builder.search. Every setter returns
+ * the same QueryBatch so queries can be chained (e.g. new QueryBatch().addPhrase("the cat").addPrefix("ca")).
+ * A single word is searched as a phrase of 1 word.
+ * memory-usage:O(q) q=number of queries.
+ *
+ * @author Riley De Leacy
+ *
+ */
+public class QueryBatch {
+	private String[] queries;
+	//true where the query is a prefix, false where it is a phrase
+	private boolean[] prefixes;
+	private int size;
+	/**
+	 * Creates a new empty instance of QueryBatch.
+	 * run-time:O(1)
+	 */
+	public QueryBatch() {
+		queries = new String[16];
+		prefixes = new boolean[16];
+		size = 0;
+	}
+	/**
+	 * Adds a query answered the same way as Builder.phraseOccurrence.
+	 * run-time:O(1) amortised.
+	 *
+	 * @param phrase phrase to be searched for.
+	 * @return returns this QueryBatch.
+	 */
+	public QueryBatch addPhrase(String phrase) {
+		return add(phrase, false);
+	}
+	/**
+	 * Adds a query answered the same way as Builder.prefixOccurrence.
+	 * run-time:O(1) amortised.
+	 *
+	 * @param prefix prefix to be searched for.
+	 * @return returns this QueryBatch.
+	 */
+	public QueryBatch addPrefix(String prefix) {
+		return add(prefix, true);
+	}
+	/**
+	 * Adds a query to the end of the batch.
+	 * run-time:O(1) amortised.
+	 */
+	private QueryBatch add(String query, boolean prefix) {
+		if(size==queries.length) {
+			String[] newQueries = new String[size*2];
+			boolean[] newPrefixes = new boolean[size*2];
+			System.arraycopy(queries, 0, newQueries, 0, size);
+			System.arraycopy(prefixes, 0, newPrefixes, 0, size);
+			queries = newQueries;
+			prefixes = newPrefixes;
+		}
+		queries[size] = query;
+		prefixes[size] = prefix;
+		size++;
+		return this;
+	}
+	/**
+	 * run-time:O(1)
+	 * @return returns the number of queries.
+	 */
+	public int getSize() {
+		return size;
+	}
+	/**
+	 * run-time:O(1)
+	 * @param index index of the query.
+	 * @return returns the phrase or prefix searched for.
+	 */
+	public String getQuery(int index) {
+		if(index<0||index>=size) {
+			throw new IndexOutOfBoundsException("There is no query "+index);
+		}
+		return queries[index];
+	}
+	/**
+	 * run-time:O(1)
+	 * @param index index of the query.
+	 * @return returns true if the query is a prefix, false if it is a phrase.
+	 */
+	public Boolean isPrefix(int index) {
+		if(index<0||index>=size) {
+			throw new IndexOutOfBoundsException("There is no query "+index);
+		}
+		return prefixes[index];
+	}
+}
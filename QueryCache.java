@@ -0,0 +1,277 @@
+package MyADTS;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+/**
+ * A cache of query results held within a budget of (estimated) bytes. Used by a Builder so repeated
+ * queries aren't recomputed, the Builder clears it when lines are appended so results never go stale.
+ * Entries are kept in least recently used order. When a new result doesn't fit, the least recently used
+ * entries are only evicted for it if it has been asked for more often than each of them (TinyLFU
+ * admission), query frequencies are estimated by a count-min sketch that is halved as it fills so old
+ * popularity fades.
+ * Cached lists are copied in and out, the elements of the lists are shared and shouldn't be changed.
+ * memory-usage:O(b+w) b=byte budget, w=width of the frequency sketch.
+ *
+ * @author Riley De Leacy
+ *
+ */
+public class QueryCache {
+	//returned by get when the key isn't cached (null is a valid cached result)
+	static final Object MISS = new Object();
+	//estimated bytes of an entry, its key and its list without elements
+	private static final int ENTRY_BYTES = 120;
+	//estimated bytes of a list node and the element it holds
+	private static final int ELEMENT_BYTES = 56;
+	private final long maxBytes;
+	private long bytes;
+	private final LinkedHashMap<String,Entry> entries;
+	private final FrequencySketch sketch;
+	private long hits;
+	private long misses;
+	private long evictions;
+	private long rejections;
+	/**
+	 * A cached result and its estimated size.
+	 */
+	private static class Entry {
+		private final LinkedList<?> result;
+		private final long bytes;
+		private Entry(LinkedList<?> result, long bytes) {
+			this.result = result;
+			this.bytes = bytes;
+		}
+	}
+	/**
+	 * Creates a new instance of QueryCache.
+	 * run-time:O(w) w=width of the frequency sketch.
+	 *
+	 * @param maxBytes byte budget of the cached results.
+	 */
+	public QueryCache(long maxBytes) {
+		if(maxBytes<1) {
+			throw new IllegalArgumentException("The byte budget must be at least 1");
+		}
+		this.maxBytes = maxBytes;
+		//access ordered so the eldest entry is the least recently used one
+		entries = new LinkedHashMap<String,Entry>(16, 0.75f, true);
+		//enough counters for about 4 times the entries that can fit
+		sketch = new FrequencySketch((int)Math.min(1<<20, Math.max(64, maxBytes/ENTRY_BYTES*4)));
+	}
+	/**
+	 * Builds a cache key from the name of a query and its (normalized) arguments.
+	 * run-time:O(c) c=characters in the arguments.
+	 *
+	 * @param query name of the query.
+	 * @param arguments arguments of the query, null arguments are kept distinct from "".
+	 * @return returns the key.
+	 */
+	public static String key(String query, String... arguments) {
+		StringBuilder key = new StringBuilder(query);
+		for(String i:arguments) {
+			key.append('\u0000');
+			if(i==null) {
+				key.append('\u0001');
+			}else {
+				key.append(i);
+			}
+		}
+		return key.toString();
+	}
+	/**
+	 * Retrieves a cached result and counts the request towards the key's frequency.
+	 * run-time:O(1)
+	 *
+	 * @param key query key.
+	 * @return returns the cached list (not a copy, may be null) or MISS if the key isn't cached.
+	 */
+	public synchronized Object get(String key) {
+		sketch.increment(key);
+		Entry entry = entries.get(key);
+		if(entry==null) {
+			misses++;
+			return MISS;
+		}
+		hits++;
+		return entry.result;
+	}
+	/**
+	 * Caches a result if it fits the budget and is requested more often than the entries it would evict.
+	 * run-time:O(e) e=number of entries evicted (O(1) amortised).
+	 *
+	 * @param key query key.
+	 * @param result result to be cached (not copied, may be null).
+	 * @return returns true if the result was cached.
+	 */
+	public synchronized Boolean put(String key, LinkedList<?> result) {
+		long size = ENTRY_BYTES+2L*key.length()+(result==null?0:(long)ELEMENT_BYTES*result.getSize());
+		Entry old = entries.remove(key);
+		if(old!=null) {
+			bytes -= old.bytes;
+		}
+		if(size>maxBytes) {
+			rejections++;
+			return false;
+		}
+		//find the least recently used entries that would have to go and check the new result beats them
+		long freed = 0;
+		int victims = 0;
+		int frequency = sketch.frequency(key);
+		Iterator<Map.Entry<String,Entry>> itr = entries.entrySet().iterator();
+		while(bytes-freed+size>maxBytes) {
+			Map.Entry<String,Entry> victim = itr.next();
+			if(sketch.frequency(victim.getKey())>=frequency) {
+				rejections++;
+				return false;
+			}
+			freed += victim.getValue().bytes;
+			victims++;
+		}
+		Iterator<Entry> evicted = entries.values().iterator();
+		for(int i=0;i<victims;i++) {
+			evicted.next();
+			evicted.remove();
+		}
+		evictions += victims;
+		bytes -= freed;
+		entries.put(key, new Entry(result, size));
+		bytes += size;
+		return true;
+	}
+	/**
+	 * Removes every cached result, the statistics are kept.
+	 * run-time:O(n) n=number of cached results.
+	 */
+	public synchronized void clear() {
+		entries.clear();
+		bytes = 0;
+	}
+	/**
+	 * run-time:O(1)
+	 * @return returns the number of cached results.
+	 */
+	public synchronized int getSize() {
+		return entries.size();
+	}
+	/**
+	 * run-time:O(1)
+	 * @return returns the estimated bytes of the cached results.
+	 */
+	public synchronized long getBytes() {
+		return bytes;
+	}
+	/**
+	 * run-time:O(1)
+	 * @return returns the byte budget.
+	 */
+	public long getMaxBytes() {
+		return maxBytes;
+	}
+	/**
+	 * run-time:O(1)
+	 * @return returns the number of requests answered from the cache.
+	 */
+	public synchronized long getHits() {
+		return hits;
+	}
+	/**
+	 * run-time:O(1)
+	 * @return returns the number of requests that weren't cached.
+	 */
+	public synchronized long getMisses() {
+		return misses;
+	}
+	/**
+	 * run-time:O(1)
+	 * @return returns the number of results evicted to make room for others.
+	 */
+	public synchronized long getEvictions() {
+		return evictions;
+	}
+	/**
+	 * run-time:O(1)
+	 * @return returns the number of results not cached (too large or not requested often enough).
+	 */
+	public synchronized long getRejections() {
+		return rejections;
+	}
+	/**
+	 * run-time:O(1)
+	 * @return returns the fraction of requests answered from the cache (0 if there were no requests).
+	 */
+	public synchronized double getHitRate() {
+		long requests = hits+misses;
+		return requests==0?0:(double)hits/requests;
+	}
+	@Override
+	public synchronized String toString() {
+		return "QueryCache[size="+entries.size()+", bytes="+bytes+"/"+maxBytes+", hits="+hits+", misses="+misses
+				+", evictions="+evictions+", rejections="+rejections+"]";
+	}
+	/**
+	 * Estimates how often keys have been requested with 4 rows of 4 bit counters (count-min sketch).
+	 * Every counter is halved once 10*width requests have been counted.
+	 * memory-usage:O(w) w=width.
+	 */
+	private static class FrequencySketch {
+		private static final int ROWS = 4;
+		private static final int MAX_COUNT = 15;
+		private final byte[][] counters;
+		private final int mask;
+		private final int sampleSize;
+		private int additions;
+		/**
+		 * run-time:O(w) w=width.
+		 * @param width minimum number of counters in a row.
+		 */
+		private FrequencySketch(int width) {
+			int size = Integer.highestOneBit(Math.max(width-1, 1))<<1;
+			counters = new byte[ROWS][size];
+			mask = size-1;
+			sampleSize = size*10;
+		}
+		/**
+		 * run-time:O(1)
+		 * @return returns the index of the key's counter in a row.
+		 */
+		private int index(String key, int row) {
+			int hash = key.hashCode()*(0x9E3779B9+row*0x632BE5AB);
+			hash ^= hash>>>16;
+			hash *= 0x85EBCA6B;
+			hash ^= hash>>>13;
+			return hash&mask;
+		}
+		/**
+		 * Counts a request for a key, halving every counter once the sample is full.
+		 * run-time:O(1) amortised.
+		 */
+		private void increment(String key) {
+			for(int i=0;i<ROWS;i++) {
+				int index = index(key, i);
+				if(counters[i][index]<MAX_COUNT) {
+					counters[i][index]++;
+				}
+			}
+			additions++;
+			if(additions>=sampleSize) {
+				for(byte[] row:counters) {
+					for(int i=0;i<row.length;i++) {
+						row[i] >>= 1;
+					}
+				}
+				additions /= 2;
+			}
+		}
+		/**
+		 * run-time:O(1)
+		 * @return returns the estimated number of requests for the key.
+		 */
+		private int frequency(String key) {
+			int frequency = MAX_COUNT;
+			for(int i=0;i<ROWS;i++) {
+				frequency = Math.min(frequency, counters[i][index(key, i)]);
+			}
+			return frequency;
+		}
+	}
+}
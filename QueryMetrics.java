@@ -0,0 +1,183 @@
+package MyADTS;
+
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+/**
+ * Counts the calls, latencies, word locations scanned and results returned of each Builder query method,
+ * and how long each phase of building the Builder took. Queries can be recorded by many threads at once.
+ * Builders only keep a QueryMetrics while metrics are switched on (see IndexOptions.setMetrics) so a
+ * Builder without one only pays for a null check per query.
+ * memory-usage:O(m) m=number of query methods called (about 9KB each, see LatencyHistogram).
+ *
+ * @author Riley De Leacy
+ *
+ */
+public class QueryMetrics implements QueryMetricsMXBean {
+	//word locations scanned by the current thread, queries record the difference so nested queries add up
+	private static final ThreadLocal<long[]> SCANNED = ThreadLocal.withInitial(() -> new long[1]);
+	private final ConcurrentHashMap<String,MethodMetrics> methods;
+	private final Map<String,Long> buildPhases;
+	private volatile boolean enabled;
+	/**
+	 * Creates a new empty instance of QueryMetrics that times queries.
+	 * run-time:O(1)
+	 */
+	public QueryMetrics() {
+		methods = new ConcurrentHashMap<String,MethodMetrics>();
+		buildPhases = Collections.synchronizedMap(new LinkedHashMap<String,Long>());
+		enabled = true;
+	}
+	/**
+	 * The metrics of one query method.
+	 */
+	private static class MethodMetrics {
+		private final LongAdder calls = new LongAdder();
+		private final LongAdder scanned = new LongAdder();
+		private final LongAdder results = new LongAdder();
+		private final LatencyHistogram latency = new LatencyHistogram();
+	}
+	/**
+	 * run-time:O(1)
+	 * @return returns the word locations the current thread has scanned so far (only differences between
+	 * 2 calls are meaningful).
+	 */
+	long getScanned() {
+		return SCANNED.get()[0];
+	}
+	/**
+	 * Adds to the word locations scanned by the current thread.
+	 * run-time:O(1)
+	 *
+	 * @param postings number of word locations read.
+	 */
+	void scanned(long postings) {
+		SCANNED.get()[0] += postings;
+	}
+	/**
+	 * Records a call of a query method.
+	 * run-time:O(1)
+	 *
+	 * @param method name of the query method.
+	 * @param nanos time the call took.
+	 * @param scanned word locations scanned by the call.
+	 * @param results number of items in the result.
+	 */
+	void record(String method, long nanos, long scanned, long results) {
+		MethodMetrics metrics = methods.get(method);
+		if(metrics==null) {
+			metrics = methods.computeIfAbsent(method, name -> new MethodMetrics());
+		}
+		metrics.calls.increment();
+		metrics.scanned.add(scanned);
+		metrics.results.add(results);
+		metrics.latency.record(nanos);
+	}
+	/**
+	 * Records how long a phase of building the Builder took (phases recorded again are added to).
+	 * run-time:O(1)
+	 *
+	 * @param phase name of the phase.
+	 * @param nanos time the phase took.
+	 */
+	void recordPhase(String phase, long nanos) {
+		buildPhases.merge(phase, nanos, Long::sum);
+	}
+	/**
+	 * run-time:O(1)
+	 * @param method name of the query method (e.g. "phraseOccurrence").
+	 * @return returns the metrics of the query method or null if it hasn't been called.
+	 */
+	public MethodSnapshot getMethod(String method) {
+		MethodMetrics metrics = methods.get(method);
+		return metrics==null?null:snapshot(method, metrics);
+	}
+	/**
+	 * run-time:O(m*log(m)) m=number of query methods called.
+	 * @return returns the metrics of every query method that has been called, ordered by name.
+	 */
+	public MethodSnapshot[] getMethods() {
+		String[] names = methods.keySet().toArray(new String[0]);
+		Arrays.sort(names);
+		MethodSnapshot[] snapshots = new MethodSnapshot[names.length];
+		for(int i=0;i<names.length;i++) {
+			snapshots[i] = snapshot(names[i], methods.get(names[i]));
+		}
+		return snapshots;
+	}
+	/**
+	 * run-time:O(1)
+	 * @return returns the current metrics of a query method.
+	 */
+	private static MethodSnapshot snapshot(String name, MethodMetrics metrics) {
+		return new MethodSnapshot(name, metrics.calls.sum(), metrics.scanned.sum(), metrics.results.sum(),
+				metrics.latency);
+	}
+	/**
+	 * run-time:O(p) p=number of phases.
+	 * @return returns a copy of the nanoseconds taken by each build phase in the order they ran
+	 * ("stopWords", "lines", "words", "index" and "freeze" when the Builder is frozen).
+	 */
+	public Map<String,Long> getBuildPhaseNanos() {
+		synchronized(buildPhases) {
+			return new LinkedHashMap<String,Long>(buildPhases);
+		}
+	}
+	/**
+	 * run-time:O(1)
+	 * @return returns true if queries are being timed.
+	 */
+	public boolean isEnabled() {
+		return enabled;
+	}
+	/**
+	 * Starts or stops timing queries. The recorded metrics are kept.
+	 * run-time:O(1)
+	 *
+	 * @param enabled time queries (true=yes, false=no).
+	 */
+	public void setEnabled(boolean enabled) {
+		this.enabled = enabled;
+	}
+	/**
+	 * Removes the recorded query metrics (the build phase timings are kept).
+	 * run-time:O(1)
+	 */
+	public void reset() {
+		methods.clear();
+	}
+	/**
+	 * Registers these metrics with the platform MBeanServer.
+	 * run-time:O(1)
+	 *
+	 * @param name name telling the Builders apart (e.g. the words file).
+	 * @return returns the ObjectName the metrics are registered under ("MyADTS:type=QueryMetrics,name=...").
+	 * @throws JMException if the name is taken or isn't valid.
+	 */
+	public ObjectName register(String name) throws JMException {
+		ObjectName objectName = new ObjectName("MyADTS:type=QueryMetrics,name="+ObjectName.quote(name));
+		ManagementFactory.getPlatformMBeanServer().registerMBean(this, objectName);
+		return objectName;
+	}
+	/**
+	 * String representation of QueryMetrics. Every query method is on its own line in the format of
+	 * MethodSnapshot.toString, followed by the build phases.
+	 * run-time:O(m*log(m)) m=number of query methods called.
+	 *
+	 * @return returns the string representation of QueryMetrics.
+	 */
+	public String toString() {
+		StringBuilder string = new StringBuilder();
+		for(MethodSnapshot method:getMethods()) {
+			string.append(method).append('\n');
+		}
+		return string.append(getBuildPhaseNanos()).toString();
+	}
+}
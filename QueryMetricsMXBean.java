@@ -0,0 +1,34 @@
+package MyADTS;
+
+import java.util.Map;
+/**
+ * The management interface of QueryMetrics, registered with the platform MBeanServer by
+ * QueryMetrics.register so the metrics can be read with JMX tools (e.g. jconsole).
+ *
+ * @author Riley De Leacy
+ *
+ */
+public interface QueryMetricsMXBean {
+	/**
+	 * @return returns the metrics of every query method that has been called, by name.
+	 */
+	MethodSnapshot[] getMethods();
+	/**
+	 * @return returns the nanoseconds taken by each phase of building the Builder.
+	 */
+	Map<String,Long> getBuildPhaseNanos();
+	/**
+	 * @return returns true if queries are being timed.
+	 */
+	boolean isEnabled();
+	/**
+	 * Starts or stops timing queries. The recorded metrics are kept.
+	 *
+	 * @param enabled time queries (true=yes, false=no).
+	 */
+	void setEnabled(boolean enabled);
+	/**
+	 * Removes the recorded query metrics (the build phase timings are kept).
+	 */
+	void reset();
+}
@@ -0,0 +1,293 @@
+package MyADTS;
+/**
+ * Node within a RadixTrie. Stores the label of the edge leading to it, a sorted table of children
+ * keyed by the first character of their labels, a PostingList of prefix locations and a PostingList
+ * of word locations. The prefix locations of a RadixNode are the prefix locations of every prefix
+ * ending along its edge.
+ * 
+ * memory usage:O(l+n+m+y) - l=label size, n=number of children, m=size of prefix list, y=size of word list
+ * 
+ * @author Riley De Leacy
+ *
+ */
+public class RadixNode {
+	private char[] label;
+	//sorted first characters of the children labels and the matching children
+	private char[] keys;
+	private RadixNode[] children;
+	private int childCount;
+	private PostingList values;
+	private PostingList completeWords;
+	//most word locations of any word at or below this node
+	private int maxFrequency;
+	//set when find ends part way along an edge, the node the edge leads to
+	private RadixNode below;
+	/**
+	 * Creates a new instance of RadixNode with the input edge label.
+	 * run-time: O(1)
+	 * @param label the label of the edge leading to this RadixNode.
+	 */
+	public RadixNode(char[] label) {
+		this.label = label;
+		childCount = 0;
+	}
+	/**
+	 * Creates a RadixNode standing for a position part way along the edge leading to another RadixNode.
+	 * It has the same prefix locations as that RadixNode and no word locations.
+	 * run-time: O(1)
+	 * @param label characters of the edge consumed so far.
+	 * @param below the RadixNode the edge leads to.
+	 */
+	RadixNode(char[] label, RadixNode below) {
+		this(label);
+		this.below = below;
+		this.values = below.values;
+	}
+	/**
+	 * returns the label of the edge leading to this RadixNode.
+	 * run-time: O(1)
+	 * @return returns the edge label (not a copy, it must not be changed).
+	 */
+	public char[] getLabel() {
+		return label;
+	}
+	/**
+	 * Replaces the label of the edge leading to this RadixNode (used when the edge is split).
+	 * run-time: O(1)
+	 * @param label the new edge label.
+	 */
+	void setLabel(char[] label) {
+		this.label = label;
+	}
+	/**
+	 * Whether this RadixNode stands for a position part way along an edge.
+	 * run-time: O(1)
+	 * @return returns the RadixNode the edge leads to or null if this RadixNode is in the RadixTrie.
+	 */
+	public RadixNode getBelow() {
+		return below;
+	}
+	/**
+	 * Adds a child, replacing any child whose label starts with the same character.
+	 * run-time: O(n) n=number of children.
+	 * @param child the child to be added.
+	 */
+	public void addChild(RadixNode child) {
+		char c = child.label[0];
+		int position = search(c);
+		if(position>=0) {
+			children[position] = child;
+			return;
+		}
+		position = -(position+1);
+		if(keys==null) {
+			keys = new char[2];
+			children = new RadixNode[2];
+		}else if(childCount==keys.length) {
+			char[] newKeys = new char[keys.length*2];
+			RadixNode[] newChildren = new RadixNode[keys.length*2];
+			System.arraycopy(keys, 0, newKeys, 0, childCount);
+			System.arraycopy(children, 0, newChildren, 0, childCount);
+			keys = newKeys;
+			children = newChildren;
+		}
+		System.arraycopy(keys, position, keys, position+1, childCount-position);
+		System.arraycopy(children, position, children, position+1, childCount-position);
+		keys[position] = c;
+		children[position] = child;
+		childCount++;
+	}
+	/**
+	 * Binary searches the sorted child characters.
+	 * run-time: O(log(n)) n=number of children.
+	 */
+	private int search(char c) {
+		int low = 0;
+		int high = childCount-1;
+		while(low<=high) {
+			int mid = (low+high)>>>1;
+			if(keys[mid]<c) {
+				low = mid+1;
+			}else if(keys[mid]>c) {
+				high = mid-1;
+			}else {
+				return mid;
+			}
+		}
+		return -(low+1);
+	}
+	/**
+	 * Finds the child whose label starts with the input character.
+	 * run-time: O(log(n)) n=number of children.
+	 * @param c first character of the label.
+	 * @return returns the child or null if there isn't one.
+	 */
+	public RadixNode child(char c) {
+		if(childCount==0) {
+			return null;
+		}
+		int position = search(c);
+		if(position<0) {
+			return null;
+		}
+		return children[position];
+	}
+	/**
+	 * returns the number of children.
+	 * run-time: O(1)
+	 * @return returns the number of children.
+	 */
+	public int getChildCount() {
+		return childCount;
+	}
+	/**
+	 * returns a child by position, children are ordered by the first character of their label.
+	 * run-time: O(1)
+	 * @param index position of the child.
+	 * @return returns the child at the input position.
+	 */
+	public RadixNode getChild(int index) {
+		return children[index];
+	}
+	/**
+	 * Returns a read-only view of the stored prefix locations.
+	 * run-time: O(1)
+	 * @return returns an OccurrenceView of prefix locations.
+	 */
+	public OccurrenceView getPrefixView() {
+		if(values==null) {
+			return PostingList.EMPTY_VIEW;
+		}
+		return values.view();
+	}
+	/**
+	 * Returns a read-only view of the stored word locations.
+	 * run-time: O(1)
+	 * @return returns an OccurrenceView of word locations.
+	 */
+	public OccurrenceView getWordView() {
+		if(completeWords==null) {
+			return PostingList.EMPTY_VIEW;
+		}
+		return completeWords.view();
+	}
+	/**
+	 * returns the most times any word at or below this RadixNode occurs (kept up to date by the Trie).
+	 * run-time: O(1)
+	 * @return returns the highest word count in the subtree.
+	 */
+	public int getMaxFrequency() {
+		return maxFrequency;
+	}
+	/**
+	 * sets the most times any word at or below this RadixNode occurs.
+	 * run-time: O(1)
+	 * @param maxFrequency highest word count in the subtree.
+	 */
+	void setMaxFrequency(int maxFrequency) {
+		this.maxFrequency = maxFrequency;
+	}
+	/**
+	 * Returns the number of stored prefix locations.
+	 * run-time: O(1)
+	 * @return returns the number of times a prefix finishing at this RadixNode occurs (0 if not stored).
+	 */
+	public int getPrefixCount() {
+		if(values==null) {
+			return 0;
+		}
+		return values.getSize();
+	}
+	/**
+	 * Estimates the heap used by this RadixNode and its child table (see IndexFootprint).
+	 * run-time: O(1)
+	 * @return returns the estimated bytes, not counting the PostingLists.
+	 */
+	long nodeBytes() {
+		//6 references, childCount and maxFrequency
+		long bytes = IndexFootprint.objectBytes(6*IndexFootprint.REFERENCE+2*4);
+		bytes += IndexFootprint.arrayBytes(label.length, 2);
+		if(keys!=null) {
+			bytes += IndexFootprint.arrayBytes(keys.length, 2)+IndexFootprint.arrayBytes(children.length, IndexFootprint.REFERENCE);
+		}
+		return bytes;
+	}
+	/**
+	 * Estimates the heap used by the prefix and word locations of this RadixNode (see IndexFootprint).
+	 * run-time: O(1)
+	 * @return returns the estimated bytes of the PostingLists.
+	 */
+	long postingBytes() {
+		return (values==null?0:values.heapBytes())+(completeWords==null?0:completeWords.heapBytes());
+	}
+	/**
+	 * Returns the number of stored word locations.
+	 * run-time: O(1)
+	 * @return returns the number of times a word finishing at this RadixNode occurs.
+	 */
+	public int getWordCount() {
+		if(completeWords==null) {
+			return 0;
+		}
+		return completeWords.getSize();
+	}
+	/**
+	 * Copies the prefix locations of another RadixNode (used when the edge above it is split).
+	 * run-time: O(m) m=size of the other prefix list.
+	 * @param other RadixNode to copy from.
+	 */
+	void copyPrefixes(RadixNode other) {
+		if(other.values!=null) {
+			values = other.values.copy();
+		}
+	}
+	/**
+	 * Adds a prefix Occurrence.
+	 * run-time: O(1)
+	 * 
+	 * @param column Column the occurrence starts at.
+	 * @param row Row the occurrence is on.
+	 */
+	public void addOccurrence(int column, int row) {
+		if(values==null) {
+			values = new PostingList();
+		}
+		values.add(column, row);
+	}
+	/**
+	 * Adds a word Occurrence.
+	 * run-time: O(1)
+	 * 
+	 * @param column Column the occurrence starts at.
+	 * @param row Row the occurrence is on.
+	 */
+	public void addFullWord(int column, int row) {
+		if(below!=null) {
+			throw new IllegalArgumentException("A word cannot be added part way along an edge");
+		}
+		if(completeWords==null) {
+			completeWords = new PostingList();
+		}
+		completeWords.add(column, row);
+	}
+	/**
+	 * Compresses the prefix and word PostingLists.
+	 * run-time: O(m+y) m=size of prefix list, y=size of word list
+	 */
+	public void compressPostings() {
+		if(values!=null) {
+			values.compress();
+		}
+		if(completeWords!=null) {
+			completeWords.compress();
+		}
+	}
+	/**
+	 * String representation of a RadixNode.
+	 * run-time:O(l) l=label size.
+	 * @return returns a String containing the edge label.
+	 */
+	public String toString() {
+		return new String(label);
+	}
+}
@@ -0,0 +1,514 @@
+package MyADTS;
+/**
+ * A path compressed (radix) Trie that stores locations of word prefixes and complete word locations.
+ * Chains of single children are merged into one RadixNode whose edge label holds all their characters,
+ * edges are split when a word leaves them part way along. Long and unique words therefore take one
+ * RadixNode instead of one TrieNode per character.
+ * Like Trie, prefix locations can be left out and merged from the word locations below the prefix.
+ * Finding words and prefixes only reads the RadixTrie so any number of threads can search it at once
+ * as long as nothing is being added.
+ * memory-usage:O(n+c) n=number of RadixNodes (at most 2*distinct words), c=characters in distinct words.
+ * 
+ * @author Riley De Leacy
+ *
+ */
+public class RadixTrie implements WordIndex<RadixNode> {
+	private RadixNode root;
+	//whether prefix occurrences are stored
+	private Boolean storePrefixes;
+	//merged prefix occurrences, null if prefixes are stored or no cache was asked for
+	private PrefixCache prefixCache;
+	//set when word locations were added without updating the max frequencies of the RadixNodes above them
+	private volatile boolean frequenciesStale;
+	//length of the longest word added
+	private int maxDepth;
+	/**
+	 * creates a new instance of RadixTrie that stores prefix occurrences.
+	 */
+	public RadixTrie() {
+		this(true, 0);
+	}
+	/**
+	 * creates a new instance of RadixTrie.
+	 * 
+	 * @param storePrefixes store prefix occurrences (true=yes, false=merge them when asked for).
+	 * @param prefixCacheSize number of merged prefixes to cache when prefixes aren't stored (0=no cache).
+	 */
+	public RadixTrie(Boolean storePrefixes, int prefixCacheSize) {
+		root = new RadixNode(new char[0]);
+		this.storePrefixes = storePrefixes;
+		if(!storePrefixes&&prefixCacheSize>0) {
+			prefixCache = new PrefixCache(prefixCacheSize);
+		}
+	}
+	/**
+	 * Adds a word to the RadixTrie, splitting an edge if the word leaves it part way along.
+	 * A prefix occurrence is added to every RadixNode the word passes through.
+	 * run-time:O(m*log(d)+p) m=size of word, d=number of acceptable characters, p=prefix locations
+	 * copied if an edge is split.
+	 * 
+	 * @param word The word to be added.
+	 * @param row the row the word occurred on.
+	 * @param column the column the word starts at.
+	 * @param addOcc add prefix and complete word occurrences (true=yes, false=no)
+	 */
+	@Override
+	public void addWord(String word, int row, int column, Boolean addOcc) {
+		insert(word.toCharArray(), word.length(), row, column, addOcc);
+	}
+	/**
+	 * Adds a formatted word and its prefix and complete word occurrences at a known column.
+	 * run-time:O(m*log(d)+p) m=size of word, d=number of acceptable characters, p=prefix locations
+	 * copied if an edge is split.
+	 * 
+	 * @param word buffer holding the formatted word (e.g. Tokenizer.buffer()).
+	 * @param length length of the word in the buffer.
+	 * @param row the row the word occurred on.
+	 * @param column the column the word starts at.
+	 */
+	@Override
+	public void addWord(char[] word, int length, int row, int column) {
+		insert(word, length, row, column, true);
+	}
+	/**
+	 * Adds the characters of a word that aren't in the RadixTrie and optionally its occurrences.
+	 * run-time:O(m*log(d)+p) m=size of word, d=number of acceptable characters, p=prefix locations
+	 * copied if an edge is split.
+	 * 
+	 * @param wordArray buffer holding the word.
+	 * @param length length of the word in the buffer.
+	 * @param row the row the word occurred on.
+	 * @param column the column the word starts at.
+	 * @param addOcc add prefix and complete word occurrences (true=yes, false=no)
+	 */
+	private void insert(char[] wordArray, int length, int row, int column, Boolean addOcc) {
+		Boolean addPrefix = addOcc&&storePrefixes;
+		if(addOcc&&prefixCache!=null) {
+			prefixCache.clear();
+		}
+		if(length>maxDepth) {
+			maxDepth = length;
+		}
+		RadixNode current = root;
+		int i = 0;
+		while(i<length) {
+			RadixNode next = current.child(wordArray[i]);
+			if(next==null) {
+				//no edge starts with this character so the rest of the word becomes a new edge
+				next = new RadixNode(copyOfRange(wordArray, i, length));
+				current.addChild(next);
+				i = length;
+			}else {
+				char[] label = next.getLabel();
+				int common = 1;
+				while(common<label.length&&i+common<length&&label[common]==wordArray[i+common]) {
+					common++;
+				}
+				if(common<label.length) {
+					//the word leaves the edge part way along so split it
+					RadixNode middle = new RadixNode(copyOfRange(label, 0, common));
+					next.setLabel(copyOfRange(label, common, label.length));
+					if(storePrefixes) {
+						//every word below the edge passes through the new node
+						middle.copyPrefixes(next);
+					}
+					middle.setMaxFrequency(next.getMaxFrequency());
+					middle.addChild(next);
+					current.addChild(middle);
+					next = middle;
+				}
+				i += common;
+			}
+			current = next;
+			if(addPrefix) {current.addOccurrence(column, row);}
+		}
+		if(addOcc&&length>0) {
+			current.addFullWord(column, row);
+			//the RadixNodes above are at least as high as the word's so only walk them if it is raised
+			if(current.getMaxFrequency()<current.getWordCount()) {
+				raiseMaxFrequency(wordArray, length, current.getWordCount());
+			}
+		}
+	}
+	/**
+	 * Raises the max frequency of the RadixNodes on the path of a word, walking down from the root.
+	 * run-time:O(m*log(d)) m=size of word, d=number of acceptable characters.
+	 * 
+	 * @param wordArray buffer holding the word (it must finish at a RadixNode).
+	 * @param length length of the word in the buffer.
+	 * @param frequency word count of the word.
+	 */
+	private void raiseMaxFrequency(char[] wordArray, int length, int frequency) {
+		RadixNode current = root;
+		int i = 0;
+		while(true) {
+			if(current.getMaxFrequency()<frequency) {
+				current.setMaxFrequency(frequency);
+			}
+			if(i>=length) {
+				return;
+			}
+			current = current.child(wordArray[i]);
+			i += current.getLabel().length;
+		}
+	}
+	/**
+	 * Works out the max frequency of a RadixNode and every RadixNode below it.
+	 * run-time:O(n) n=number of RadixNodes below the input.
+	 * 
+	 * @param node RadixNode to start at.
+	 * @return returns the max frequency of the RadixNode.
+	 */
+	private static int annotate(RadixNode node) {
+		int frequency = node.getWordCount();
+		for(int i=0;i<node.getChildCount();i++) {
+			frequency = Math.max(frequency, annotate(node.getChild(i)));
+		}
+		node.setMaxFrequency(frequency);
+		return frequency;
+	}
+	/**
+	 * Copies part of a char array.
+	 * run-time:O(n) n=size of the range.
+	 */
+	private static char[] copyOfRange(char[] array, int from, int to) {
+		char[] copy = new char[to-from];
+		System.arraycopy(array, from, copy, 0, to-from);
+		return copy;
+	}
+	/**
+	 * Adds a complete word occurrence to the input RadixNode
+	 * run-time:O(1)
+	 * 
+	 * @param word The word to be added, must not be part way along an edge.
+	 * @param row The row the word occurred on.
+	 * @param column The column the word started at.
+	 */
+	@Override
+	public void addExistingWord(RadixNode word, int row, int column) {
+		word.addFullWord(column, row);
+		//the RadixNodes above the word aren't known, they are updated when next asked for
+		if(!frequenciesStale) {
+			frequenciesStale = true;
+		}
+		if(prefixCache!=null) {
+			prefixCache.clear();
+		}
+	}
+	/**
+	 * Follows the characters of an already formatted word down from the root.
+	 * run-time:O(m*log(d)) m=size of word, d=number of acceptable characters.
+	 * 
+	 * @param word formatted word to follow (null if it can't match).
+	 * @return returns the RadixNode the word finishes at, a RadixNode standing for the position part way
+	 * along an edge or null if the path doesn't exist.
+	 */
+	private RadixNode walk(String word) {
+		if(word==null) {
+			return null;
+		}
+		return walk(word.toCharArray(), word.length());
+	}
+	/**
+	 * Follows the characters of an already formatted word down from the root.
+	 * run-time:O(m*log(d)) m=size of word, d=number of acceptable characters.
+	 * 
+	 * @param word buffer holding the formatted word.
+	 * @param length length of the word in the buffer.
+	 * @return returns the RadixNode the word finishes at, a RadixNode standing for the position part way
+	 * along an edge or null if the path doesn't exist.
+	 */
+	private RadixNode walk(char[] word, int length) {
+		RadixNode current = root;
+		int i = 0;
+		while(i<length) {
+			RadixNode next = current.child(word[i]);
+			if(next==null) {
+				return null;
+			}
+			char[] label = next.getLabel();
+			int common = 1;
+			while(common<label.length&&i+common<length) {
+				if(label[common]!=word[i+common]) {
+					return null;
+				}
+				common++;
+			}
+			if(common<label.length) {
+				//the word finishes part way along the edge
+				return new RadixNode(copyOfRange(label, 0, common), next);
+			}
+			i += common;
+			current = next;
+		}
+		return current;
+	}
+	/**
+	 * Finds a word in the RadixTrie.
+	 * run-time:O(m*log(d)) m=size of word, d=number of acceptable characters.
+	 * 
+	 * @param search word to be searched for.
+	 * @return returns The RadixNode the word finishes at (see RadixNode.getBelow) or null if the word was not found.
+	 */
+	@Override
+	public RadixNode find(String search) {
+		return walk(Tokenizer.normalize(search));
+	}
+	/**
+	 * Finds an already formatted word without creating a String.
+	 * run-time:O(m*log(d)) m=size of word, d=number of acceptable characters.
+	 * 
+	 * @param word buffer holding the formatted word.
+	 * @param length length of the word in the buffer.
+	 * @return returns The RadixNode the word finishes at (see RadixNode.getBelow) or null if the word was not found.
+	 */
+	@Override
+	public RadixNode find(char[] word, int length) {
+		return walk(word, length);
+	}
+	/**
+	 * finds an input word.
+	 * run-time:O(m*log(d)+o) m=size of word, d=number of acceptable characters, o=occurrences.
+	 * 
+	 * @param search word to be searched for.
+	 * @return returns a LinkedList of Values containing the locations of all words matching the input.
+	 */
+	@Override
+	public LinkedList<Values> findWord(String search) {
+		OccurrenceView occurrences = findView(search);
+		if(occurrences==null) {
+			return null;
+		}
+		return occurrences.toList();
+	}
+	/**
+	 * finds the word locations of an input word without copying them.
+	 * run-time:O(m*log(d)) m=size of word, d=number of acceptable characters.
+	 * 
+	 * @param search word to be searched for.
+	 * @return returns a read-only view of the word locations or null if the word was not found.
+	 */
+	@Override
+	public OccurrenceView findView(String search) {
+		RadixNode current = find(search);
+		if(current==null) {
+			return null;
+		}
+		return current.getWordView();
+	}
+	/**
+	 * finds the prefix locations of an input prefix without copying them. If prefixes aren't stored the
+	 * word locations below the prefix are merged in row and column order (or taken from the cache).
+	 * run-time:O(m*log(d)) m=size of prefix, d=number of acceptable characters if prefixes are stored
+	 * O(m*log(d)+s+o*log(w)) s=RadixNodes below the prefix, o=occurrences, w=distinct words below the prefix otherwise.
+	 * 
+	 * @param prefix prefix to be searched for.
+	 * @return returns a read-only view of the prefix locations or null if the prefix was not found.
+	 */
+	@Override
+	public OccurrenceView prefixView(String prefix) {
+		String formatted = Tokenizer.normalize(prefix);
+		RadixNode current = walk(formatted);
+		if(current==null) {
+			return null;
+		}
+		if(storePrefixes) {
+			return current.getPrefixView();
+		}
+		if(current==root) {
+			return PostingList.EMPTY_VIEW;
+		}
+		if(current.getBelow()!=null) {
+			current = current.getBelow();
+		}
+		OccurrenceView merged;
+		if(prefixCache!=null) {
+			merged = prefixCache.get(formatted);
+			if(merged!=null) {
+				return merged;
+			}
+		}
+		merged = mergeWords(current);
+		if(prefixCache!=null) {
+			prefixCache.put(formatted, merged);
+		}
+		return merged;
+	}
+	/**
+	 * Merges the word locations of a RadixNode and all its descendants in row then column order.
+	 * run-time:O(s+o*log(w)) s=RadixNodes below the input, o=occurrences, w=RadixNodes with word locations.
+	 * 
+	 * @param start RadixNode to start at.
+	 * @return returns a view of every word location below the RadixNode.
+	 */
+	private OccurrenceView mergeWords(RadixNode start) {
+		OccurrenceView[] found = new OccurrenceView[8];
+		int foundCount = 0;
+		int total = 0;
+		RadixNode[] stack = new RadixNode[16];
+		int stackSize = 0;
+		stack[stackSize++] = start;
+		while(stackSize>0) {
+			RadixNode node = stack[--stackSize];
+			if(node.getWordCount()>0) {
+				if(foundCount==found.length) {
+					OccurrenceView[] newFound = new OccurrenceView[found.length*2];
+					System.arraycopy(found, 0, newFound, 0, foundCount);
+					found = newFound;
+				}
+				found[foundCount++] = node.getWordView();
+				total += node.getWordCount();
+			}
+			for(int i=0;i<node.getChildCount();i++) {
+				if(stackSize==stack.length) {
+					RadixNode[] newStack = new RadixNode[stack.length*2];
+					System.arraycopy(stack, 0, newStack, 0, stackSize);
+					stack = newStack;
+				}
+				stack[stackSize++] = node.getChild(i);
+			}
+		}
+		return PostingList.merge(found, foundCount, total);
+	}
+	/**
+	 * run-time:O(1)
+	 * @return returns the root RadixNode.
+	 */
+	@Override
+	public RadixNode getRoot() {
+		return root;
+	}
+	/**
+	 * run-time:O(1)
+	 * @return returns the number of children of the RadixNode.
+	 */
+	@Override
+	public int getChildCount(RadixNode node) {
+		return node.getChildCount();
+	}
+	/**
+	 * run-time:O(1)
+	 * @return returns the child of the RadixNode at the index (in character order).
+	 */
+	@Override
+	public RadixNode getChild(RadixNode node, int index) {
+		return node.getChild(index);
+	}
+	/**
+	 * run-time:O(1)
+	 * @return returns the length of the RadixNode's edge label (0 for the root).
+	 */
+	@Override
+	public int getLabelLength(RadixNode node) {
+		return node.getLabel().length;
+	}
+	/**
+	 * run-time:O(1)
+	 * @return returns the character of the RadixNode's edge label at the index.
+	 */
+	@Override
+	public char getLabelChar(RadixNode node, int index) {
+		return node.getLabel()[index];
+	}
+	/**
+	 * run-time:O(1)
+	 * @return returns a read-only view of the word locations of the RadixNode.
+	 */
+	@Override
+	public OccurrenceView getWordView(RadixNode node) {
+		return node.getWordView();
+	}
+	/**
+	 * run-time:O(1)
+	 * @return returns the number of word locations stored at the RadixNode.
+	 */
+	@Override
+	public int getWordCount(RadixNode node) {
+		return node.getWordCount();
+	}
+	/**
+	 * run-time:O(1)
+	 * @return returns the number of prefix locations stored at the RadixNode.
+	 */
+	@Override
+	public int getPrefixCount(RadixNode node) {
+		return node.getPrefixCount();
+	}
+	/**
+	 * run-time:O(1)
+	 * @return returns the estimated bytes of the RadixNode and its child table.
+	 */
+	@Override
+	public long getNodeBytes(RadixNode node) {
+		return node.nodeBytes();
+	}
+	/**
+	 * run-time:O(1)
+	 * @return returns the estimated bytes of the PostingLists of the RadixNode.
+	 */
+	@Override
+	public long getPostingBytes(RadixNode node) {
+		return node.postingBytes();
+	}
+	/**
+	 * run-time:O(1), O(n) n=number of RadixNodes if words were added with addExistingWord since the last call.
+	 * @return returns the most times any word at or below the RadixNode occurs.
+	 */
+	@Override
+	public int getMaxFrequency(RadixNode node) {
+		if(frequenciesStale) {
+			synchronized(this) {
+				if(frequenciesStale) {
+					annotate(root);
+					frequenciesStale = false;
+				}
+			}
+		}
+		return node.getMaxFrequency();
+	}
+	/**
+	 * run-time:O(1)
+	 * @return returns the length of the longest word added.
+	 */
+	@Override
+	public int getMaxDepth() {
+		return maxDepth;
+	}
+	/**
+	 * finds the word or prefix locations of many formatted words. Edge labels are shared by several
+	 * characters so every word is walked from the root.
+	 * run-time:O(n*m*log(d)) n=number of words, m=average size of word, d=number of acceptable characters.
+	 * 
+	 * @param words formatted words in ascending order (null words are never found).
+	 * @param prefixes find prefix locations (true) or word locations (false).
+	 * @return returns the locations of every word in the input order, null where a word was not found.
+	 */
+	@Override
+	public OccurrenceView[] findViews(String[] words, Boolean prefixes) {
+		OccurrenceView[] views = new OccurrenceView[words.length];
+		for(int i=0;i<words.length;i++) {
+			if(words[i]!=null) {
+				views[i] = prefixes?prefixView(words[i]):findView(words[i]);
+			}
+		}
+		return views;
+	}
+	/**
+	 * Compresses the PostingLists of every RadixNode.
+	 * run-time:O(n) n=number of stored locations.
+	 */
+	@Override
+	public void compressPostings() {
+		compressPostings(root);
+	}
+	/**
+	 * Compresses the PostingLists of a RadixNode and all of its descendants.
+	 * run-time:O(n) n=number of stored locations below the RadixNode.
+	 */
+	private void compressPostings(RadixNode node) {
+		node.compressPostings();
+		for(int i=0;i<node.getChildCount();i++) {
+			compressPostings(node.getChild(i));
+		}
+	}
+}
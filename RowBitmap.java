@@ -0,0 +1,447 @@
+package MyADTS;
+/**
+ * Stores a set of rows as a compressed bitmap (roaring style).
+ * Rows are grouped by their upper 16 bits, every group is stored in a container chosen by how many
+ * rows it has: a sorted array of the lower 16 bits for up to ARRAY_LIMIT rows, otherwise a 2^16 bit
+ * bitmap. Union, difference and cardinality work a container at a time (bitmaps a word at a time).
+ * memory-usage:O(min(2*r, 8192*g)) r=number of rows, g=number of groups of 2^16 rows.
+ *
+ * @author Riley De Leacy
+ *
+ */
+public class RowBitmap {
+	//most rows an array container holds before it becomes a bitmap
+	static final int ARRAY_LIMIT = 4096;
+	//longs in a bitmap container
+	private static final int BITMAP_WORDS = 1024;
+	//upper 16 bits of the rows in each container, ascending
+	private char[] keys;
+	//a container is either an array (arrays[i]!=null) or a bitmap (bitmaps[i]!=null)
+	private char[][] arrays;
+	private long[][] bitmaps;
+	private int[] cardinalities;
+	private int size;
+	/**
+	 * Creates a new empty RowBitmap.
+	 * run-time:O(1)
+	 */
+	public RowBitmap() {
+		keys = new char[4];
+		arrays = new char[4][];
+		bitmaps = new long[4][];
+		cardinalities = new int[4];
+		size = 0;
+	}
+	/**
+	 * Gets the rows of occurrences as a RowBitmap.
+	 * run-time:O(s) s=size of the occurrences.
+	 *
+	 * @param occurrences occurrences in (row, column) order, may be null.
+	 * @return returns the rows the occurrences are on.
+	 */
+	public static RowBitmap of(OccurrenceView occurrences) {
+		RowBitmap bitmap = new RowBitmap();
+		if(occurrences!=null) {
+			OccurrenceCursor cursor = occurrences.cursor();
+			while(cursor.next()) {
+				bitmap.add(cursor.row());
+			}
+		}
+		return bitmap;
+	}
+	/**
+	 * Gets rows as a RowBitmap.
+	 * run-time:O(r) r=number of rows.
+	 *
+	 * @param rows rows to be stored.
+	 * @return returns a RowBitmap of the rows.
+	 */
+	public static RowBitmap of(RowPostings rows) {
+		RowBitmap bitmap = new RowBitmap();
+		for(int i=0;i<rows.getSize();i++) {
+			bitmap.add(rows.get(i));
+		}
+		return bitmap;
+	}
+	/**
+	 * Adds a row. Rows should be added in ascending order (duplicates are ignored), adding a row before
+	 * the last container is O(g) g=number of containers.
+	 * run-time:O(1) amortised when rows are added in order.
+	 *
+	 * @param row row to be added (not negative).
+	 */
+	public void add(int row) {
+		char key = (char)(row>>>16);
+		char low = (char)row;
+		int index;
+		if(size>0&&keys[size-1]==key) {
+			index = size-1;
+		}else {
+			index = findKey(key);
+			if(index<0) {
+				index = -index-1;
+				insertContainer(index, key);
+			}
+		}
+		if(bitmaps[index]!=null) {
+			long[] bitmap = bitmaps[index];
+			long bit = 1L<<low;
+			if((bitmap[low>>>6]&bit)==0) {
+				bitmap[low>>>6] |= bit;
+				cardinalities[index]++;
+			}
+			return;
+		}
+		char[] array = arrays[index];
+		int count = cardinalities[index];
+		int position;
+		if(count>0&&array[count-1]<low) {
+			position = count;
+		}else {
+			position = search(array, count, low);
+			if(position>=0) {
+				return;
+			}
+			position = -position-1;
+		}
+		if(count==ARRAY_LIMIT) {
+			//the container is dense enough to be stored as bits
+			long[] bitmap = new long[BITMAP_WORDS];
+			for(int i=0;i<count;i++) {
+				bitmap[array[i]>>>6] |= 1L<<array[i];
+			}
+			bitmap[low>>>6] |= 1L<<low;
+			bitmaps[index] = bitmap;
+			arrays[index] = null;
+			cardinalities[index]++;
+			return;
+		}
+		if(count==array.length) {
+			char[] newArray = new char[Math.min(array.length*2, ARRAY_LIMIT)];
+			System.arraycopy(array, 0, newArray, 0, count);
+			array = newArray;
+			arrays[index] = array;
+		}
+		System.arraycopy(array, position, array, position+1, count-position);
+		array[position] = low;
+		cardinalities[index]++;
+	}
+	/**
+	 * Checks if a row is stored.
+	 * run-time:O(log(g)+log(c)) g=number of containers, c=rows in the container.
+	 *
+	 * @param row row to be checked.
+	 * @return returns true if the row is stored, false otherwise.
+	 */
+	public Boolean contains(int row) {
+		int index = findKey((char)(row>>>16));
+		if(index<0) {
+			return false;
+		}
+		char low = (char)row;
+		if(bitmaps[index]!=null) {
+			return (bitmaps[index][low>>>6]&(1L<<low))!=0;
+		}
+		return search(arrays[index], cardinalities[index], low)>=0;
+	}
+	/**
+	 * run-time:O(g) g=number of containers.
+	 * @return returns the number of rows stored.
+	 */
+	public int getCardinality() {
+		int cardinality = 0;
+		for(int i=0;i<size;i++) {
+			cardinality += cardinalities[i];
+		}
+		return cardinality;
+	}
+	/**
+	 * Finds the rows in either RowBitmap.
+	 * run-time:O(g*c) g=number of containers, c=2^10 words for bitmaps or rows for arrays.
+	 *
+	 * @param other rows to be added.
+	 * @return returns a new RowBitmap with the rows of both.
+	 */
+	public RowBitmap or(RowBitmap other) {
+		RowBitmap result = new RowBitmap();
+		int i = 0;
+		int j = 0;
+		while(i<size||j<other.size) {
+			if(j>=other.size||(i<size&&keys[i]<other.keys[j])) {
+				result.append(keys[i], copyArray(i), copyBitmap(i), cardinalities[i]);
+				i++;
+			}else if(i>=size||other.keys[j]<keys[i]) {
+				result.append(other.keys[j], other.copyArray(j), other.copyBitmap(j), other.cardinalities[j]);
+				j++;
+			}else if(bitmaps[i]==null&&other.bitmaps[j]==null) {
+				result.appendUnion(keys[i], arrays[i], cardinalities[i], other.arrays[j], other.cardinalities[j]);
+				i++;
+				j++;
+			}else {
+				long[] bitmap = toBitmap(i);
+				int cardinality = 0;
+				if(other.bitmaps[j]!=null) {
+					for(int w=0;w<BITMAP_WORDS;w++) {
+						bitmap[w] |= other.bitmaps[j][w];
+					}
+				}else {
+					char[] array = other.arrays[j];
+					for(int w=0;w<other.cardinalities[j];w++) {
+						bitmap[array[w]>>>6] |= 1L<<array[w];
+					}
+				}
+				for(long w:bitmap) {
+					cardinality += Long.bitCount(w);
+				}
+				result.appendBits(keys[i], bitmap, cardinality);
+				i++;
+				j++;
+			}
+		}
+		return result;
+	}
+	/**
+	 * Finds the rows in this RowBitmap that aren't in the other.
+	 * run-time:O(g*c) g=number of containers, c=2^10 words for bitmaps or rows for arrays.
+	 *
+	 * @param other rows to be removed.
+	 * @return returns a new RowBitmap with the rows only in this one.
+	 */
+	public RowBitmap andNot(RowBitmap other) {
+		RowBitmap result = new RowBitmap();
+		int j = 0;
+		for(int i=0;i<size;i++) {
+			while(j<other.size&&other.keys[j]<keys[i]) {
+				j++;
+			}
+			if(j>=other.size||other.keys[j]!=keys[i]) {
+				result.append(keys[i], copyArray(i), copyBitmap(i), cardinalities[i]);
+				continue;
+			}
+			if(bitmaps[i]==null) {
+				//filter the array by the other container
+				char[] array = arrays[i];
+				char[] kept = new char[cardinalities[i]];
+				int count = 0;
+				for(int w=0;w<cardinalities[i];w++) {
+					if(!other.containsLow(j, array[w])) {
+						kept[count] = array[w];
+						count++;
+					}
+				}
+				if(count>0) {
+					result.append(keys[i], kept, null, count);
+				}
+				continue;
+			}
+			long[] bitmap = toBitmap(i);
+			if(other.bitmaps[j]!=null) {
+				for(int w=0;w<BITMAP_WORDS;w++) {
+					bitmap[w] &= ~other.bitmaps[j][w];
+				}
+			}else {
+				char[] array = other.arrays[j];
+				for(int w=0;w<other.cardinalities[j];w++) {
+					bitmap[array[w]>>>6] &= ~(1L<<array[w]);
+				}
+			}
+			int cardinality = 0;
+			for(long w:bitmap) {
+				cardinality += Long.bitCount(w);
+			}
+			if(cardinality>0) {
+				result.appendBits(keys[i], bitmap, cardinality);
+			}
+		}
+		return result;
+	}
+	/**
+	 * Copies the rows into a list.
+	 * run-time:O(r+g*2^10) r=number of rows, g=number of bitmap containers.
+	 *
+	 * @return returns a LinkedList of the rows in ascending order.
+	 */
+	public LinkedList<Integer> toList() {
+		LinkedList<Integer> list = new LinkedList<Integer>();
+		for(int i=0;i<size;i++) {
+			int high = keys[i]<<16;
+			if(bitmaps[i]!=null) {
+				long[] bitmap = bitmaps[i];
+				for(int w=0;w<BITMAP_WORDS;w++) {
+					long word = bitmap[w];
+					while(word!=0) {
+						list.add(high|(w<<6)|Long.numberOfTrailingZeros(word));
+						word &= word-1;
+					}
+				}
+			}else {
+				for(int w=0;w<cardinalities[i];w++) {
+					list.add(high|arrays[i][w]);
+				}
+			}
+		}
+		return list;
+	}
+	/**
+	 * Checks if the lower 16 bits of a row are in a container.
+	 * run-time:O(log(c)) c=rows in the container.
+	 */
+	private Boolean containsLow(int index, char low) {
+		if(bitmaps[index]!=null) {
+			return (bitmaps[index][low>>>6]&(1L<<low))!=0;
+		}
+		return search(arrays[index], cardinalities[index], low)>=0;
+	}
+	/**
+	 * Copies a container into a new bitmap.
+	 * run-time:O(2^10)
+	 */
+	private long[] toBitmap(int index) {
+		if(bitmaps[index]!=null) {
+			return bitmaps[index].clone();
+		}
+		long[] bitmap = new long[BITMAP_WORDS];
+		for(int i=0;i<cardinalities[index];i++) {
+			bitmap[arrays[index][i]>>>6] |= 1L<<arrays[index][i];
+		}
+		return bitmap;
+	}
+	/**
+	 * run-time:O(c) c=rows in the container.
+	 * @return returns a copy of an array container or null if it is a bitmap.
+	 */
+	private char[] copyArray(int index) {
+		return arrays[index]==null?null:arrays[index].clone();
+	}
+	/**
+	 * run-time:O(2^10)
+	 * @return returns a copy of a bitmap container or null if it is an array.
+	 */
+	private long[] copyBitmap(int index) {
+		return bitmaps[index]==null?null:bitmaps[index].clone();
+	}
+	/**
+	 * Merges two sorted array containers into a container after the last one.
+	 * run-time:O(a+b) a,b=rows in the arrays.
+	 */
+	private void appendUnion(char key, char[] first, int firstCount, char[] second, int secondCount) {
+		char[] array = new char[firstCount+secondCount];
+		int i = 0;
+		int j = 0;
+		int count = 0;
+		while(i<firstCount||j<secondCount) {
+			if(j>=secondCount||(i<firstCount&&first[i]<second[j])) {
+				array[count] = first[i];
+				i++;
+			}else if(i>=firstCount||second[j]<first[i]) {
+				array[count] = second[j];
+				j++;
+			}else {
+				array[count] = first[i];
+				i++;
+				j++;
+			}
+			count++;
+		}
+		if(count>ARRAY_LIMIT) {
+			long[] bitmap = new long[BITMAP_WORDS];
+			for(int w=0;w<count;w++) {
+				bitmap[array[w]>>>6] |= 1L<<array[w];
+			}
+			append(key, null, bitmap, count);
+		}else {
+			append(key, array, null, count);
+		}
+	}
+	/**
+	 * Adds a bitmap container after the last one, stored as an array if it has few enough rows.
+	 * run-time:O(2^10)
+	 */
+	private void appendBits(char key, long[] bitmap, int cardinality) {
+		if(cardinality>ARRAY_LIMIT) {
+			append(key, null, bitmap, cardinality);
+			return;
+		}
+		char[] array = new char[cardinality];
+		int count = 0;
+		for(int w=0;w<BITMAP_WORDS;w++) {
+			long word = bitmap[w];
+			while(word!=0) {
+				array[count] = (char)((w<<6)|Long.numberOfTrailingZeros(word));
+				count++;
+				word &= word-1;
+			}
+		}
+		append(key, array, null, cardinality);
+	}
+	/**
+	 * Adds a container after the last one.
+	 * run-time:O(1) amortised.
+	 */
+	private void append(char key, char[] array, long[] bitmap, int cardinality) {
+		insertContainer(size, key);
+		arrays[size-1] = array;
+		bitmaps[size-1] = bitmap;
+		cardinalities[size-1] = cardinality;
+	}
+	/**
+	 * Inserts an empty array container.
+	 * run-time:O(g) g=number of containers.
+	 */
+	private void insertContainer(int index, char key) {
+		if(size==keys.length) {
+			int capacity = keys.length*2;
+			char[] newKeys = new char[capacity];
+			char[][] newArrays = new char[capacity][];
+			long[][] newBitmaps = new long[capacity][];
+			int[] newCardinalities = new int[capacity];
+			System.arraycopy(keys, 0, newKeys, 0, size);
+			System.arraycopy(arrays, 0, newArrays, 0, size);
+			System.arraycopy(bitmaps, 0, newBitmaps, 0, size);
+			System.arraycopy(cardinalities, 0, newCardinalities, 0, size);
+			keys = newKeys;
+			arrays = newArrays;
+			bitmaps = newBitmaps;
+			cardinalities = newCardinalities;
+		}
+		System.arraycopy(keys, index, keys, index+1, size-index);
+		System.arraycopy(arrays, index, arrays, index+1, size-index);
+		System.arraycopy(bitmaps, index, bitmaps, index+1, size-index);
+		System.arraycopy(cardinalities, index, cardinalities, index+1, size-index);
+		keys[index] = key;
+		arrays[index] = new char[4];
+		bitmaps[index] = null;
+		cardinalities[index] = 0;
+		size++;
+	}
+	/**
+	 * Binary searches the containers for a key.
+	 * run-time:O(log(g)) g=number of containers.
+	 *
+	 * @return returns the index of the key or -(insertion point)-1.
+	 */
+	private int findKey(char key) {
+		return search(keys, size, key);
+	}
+	/**
+	 * Binary searches the start of a sorted char array.
+	 * run-time:O(log(n)) n=number of chars searched.
+	 *
+	 * @return returns the index of the value or -(insertion point)-1.
+	 */
+	private static int search(char[] array, int count, char value) {
+		int low = 0;
+		int high = count-1;
+		while(low<=high) {
+			int middle = (low+high)>>>1;
+			if(array[middle]<value) {
+				low = middle+1;
+			}else if(array[middle]>value) {
+				high = middle-1;
+			}else {
+				return middle;
+			}
+		}
+		return -low-1;
+	}
+}
@@ -0,0 +1,206 @@
+package MyADTS;
+/**
+ * Stores the rows a word occurs on in ascending order without duplicates.
+ * The first row of every block of SKIP rows is also kept so advance can skip over whole blocks, which
+ * lets lists of very different sizes be intersected in time close to the size of the smaller list.
+ * memory-usage:O(r) r=number of rows.
+ *
+ * @author Riley De Leacy
+ *
+ */
+public class RowPostings {
+	//number of rows between skip samples
+	static final int SKIP = 64;
+	public static final RowPostings EMPTY = new RowPostings(new int[0], 0);
+	private int[] rows;
+	private int size;
+	//skips[i]=rows[i*SKIP]
+	private int[] skips;
+	/**
+	 * Creates a new instance of RowPostings.
+	 * run-time:O(r) r=number of rows.
+	 *
+	 * @param rows ascending rows without duplicates (not copied).
+	 * @param size number of rows used in the array.
+	 */
+	private RowPostings(int[] rows, int size) {
+		this.rows = rows;
+		this.size = size;
+		skips = new int[(size+SKIP-1)/SKIP];
+		for(int i=0;i<skips.length;i++) {
+			skips[i] = rows[i*SKIP];
+		}
+	}
+	/**
+	 * Gets the rows of occurrences.
+	 * run-time:O(s) s=size of the occurrences.
+	 *
+	 * @param occurrences occurrences in (row, column) order, may be null.
+	 * @return returns the rows the occurrences are on.
+	 */
+	public static RowPostings of(OccurrenceView occurrences) {
+		if(occurrences==null||occurrences.getSize()<1) {
+			return EMPTY;
+		}
+		int[] rows = new int[occurrences.getSize()];
+		int size = 0;
+		OccurrenceCursor cursor = occurrences.cursor();
+		while(cursor.next()) {
+			//occurrences on the same row are next to each other
+			if(size==0||rows[size-1]!=cursor.row()) {
+				rows[size] = cursor.row();
+				size++;
+			}
+		}
+		return new RowPostings(rows, size);
+	}
+	/**
+	 * run-time:O(1)
+	 * @return returns the number of rows.
+	 */
+	public int getSize() {
+		return size;
+	}
+	/**
+	 * run-time:O(1)
+	 * @param index index of the row.
+	 * @return returns the row at the index.
+	 */
+	public int get(int index) {
+		return rows[index];
+	}
+	/**
+	 * Finds the first row at or after an index that is not less than the target.
+	 * Gallops over the skip samples to the block the target is in and then binary searches the block.
+	 * run-time:O(log(g)) g=number of rows skipped.
+	 *
+	 * @param from index to start from.
+	 * @param target row to be found.
+	 * @return returns the index of the first row>=target or getSize() if there isn't one.
+	 */
+	public int advance(int from, int target) {
+		if(from>=size||rows[from]>=target) {
+			return from;
+		}
+		//gallop to a block after the target, skips[low]<=target is known
+		int low = from/SKIP;
+		int step = 1;
+		int high = low+1;
+		while(high<skips.length&&skips[high]<=target) {
+			low = high;
+			step <<= 1;
+			high = low+step;
+		}
+		high = Math.min(high, skips.length);
+		//last block starting at or before the target
+		while(high-low>1) {
+			int middle = (low+high)>>>1;
+			if(skips[middle]<=target) {
+				low = middle;
+			}else {
+				high = middle;
+			}
+		}
+		//first row>=target in the block (or the start of the next block)
+		int start = Math.max(from, low*SKIP);
+		int end = Math.min(size, (low+1)*SKIP);
+		while(start<end) {
+			int middle = (start+end)>>>1;
+			if(rows[middle]<target) {
+				start = middle+1;
+			}else {
+				end = middle;
+			}
+		}
+		return start;
+	}
+	/**
+	 * Finds the rows in every list. Rows of the smallest list are used as candidates and every other
+	 * list is advanced to them, a candidate missing from a list moves the candidates on to the row that
+	 * list stopped at (leapfrog).
+	 * run-time:O(k*s*log(g)) k=number of lists, s=size of the smallest list, g=average rows skipped.
+	 *
+	 * @param lists lists to intersect.
+	 * @return returns the rows in every list.
+	 */
+	public static RowPostings intersect(RowPostings[] lists) {
+		if(lists==null||lists.length==0) {
+			return EMPTY;
+		}
+		//order the lists from rarest to most common
+		RowPostings[] sorted = new RowPostings[lists.length];
+		for(int i=0;i<lists.length;i++) {
+			RowPostings list = lists[i];
+			int j = i;
+			while(j>0&&sorted[j-1].size>list.size) {
+				sorted[j] = sorted[j-1];
+				j--;
+			}
+			sorted[j] = list;
+		}
+		RowPostings rarest = sorted[0];
+		int[] found = new int[rarest.size];
+		int count = 0;
+		int[] positions = new int[sorted.length];
+		int i = 0;
+		while(i<rarest.size) {
+			int candidate = rarest.rows[i];
+			int next = candidate;
+			for(int j=1;j<sorted.length;j++) {
+				positions[j] = sorted[j].advance(positions[j], candidate);
+				if(positions[j]>=sorted[j].size) {
+					//a list has run out so no more rows can be in every list
+					return new RowPostings(found, count);
+				}
+				if(sorted[j].rows[positions[j]]!=candidate) {
+					next = sorted[j].rows[positions[j]];
+					break;
+				}
+			}
+			if(next==candidate) {
+				found[count] = candidate;
+				count++;
+				i++;
+			}else {
+				i = rarest.advance(i+1, next);
+			}
+		}
+		return new RowPostings(found, count);
+	}
+	/**
+	 * Finds the rows in this list that aren't in the other list.
+	 * run-time:O(r*log(g)) r=rows in this list, g=average rows skipped in the other list.
+	 *
+	 * @param other rows to be removed.
+	 * @return returns the rows only in this list.
+	 */
+	public RowPostings difference(RowPostings other) {
+		if(other.size==0||size==0) {
+			return this;
+		}
+		int[] found = new int[size];
+		int count = 0;
+		int position = 0;
+		for(int i=0;i<size;i++) {
+			position = other.advance(position, rows[i]);
+			if(position>=other.size||other.rows[position]!=rows[i]) {
+				found[count] = rows[i];
+				count++;
+			}
+		}
+		return new RowPostings(found, count);
+	}
+	/**
+	 * Copies the rows into a list.
+	 * run-time:O(r) r=number of rows.
+	 *
+	 * @return returns a LinkedList of the rows in ascending order.
+	 */
+	public LinkedList<Integer> toList() {
+		LinkedList<Integer> list = new LinkedList<Integer>();
+		for(int i=0;i<size;i++) {
+			list.add(rows[i]);
+		}
+		return list;
+	}
+}
@@ -0,0 +1,236 @@
+package MyADTS;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.util.HashMap;
+
+import comp3506.assn2.utils.Pair;
+/**
+ * Looks up the sections of the words file (titles and the rows they start on, read from the index file).
+ * Titles are found through a hash table and every row is mapped to the section it is in, so checking
+ * whether an occurrence is in a section is an array lookup.
+ * Section i covers the rows from its start up to (not including) the start of section i+1, the last
+ * section covers the rest of the file. Sections are expected in row order, if they aren't a row belongs
+ * to the last section listed that covers it.
+ * The row table is either built from the sections or read from a buffer (when a Builder is opened from
+ * an index file) so opening an index doesn't depend on the number of lines.
+ * memory-usage:O(s+n) s=number of sections, n=lines in the words file.
+ *
+ * @author Riley De Leacy
+ *
+ */
+public class SectionIndex {
+	private String[] titles;
+	private int[] starts;
+	private int[] ends;
+	//first section with each title
+	private HashMap<String,Integer> directory;
+	//section of every row (index is the row), -1 for rows before every section
+	private int[] rowToSection;
+	//only used when the row table is read from a buffer
+	private IntBuffer mappedRows;
+	private int lineCount;
+	/**
+	 * Creates a new instance of SectionIndex.
+	 * run-time:O(s+n) s=number of sections, n=lines in the words file.
+	 *
+	 * @param index section titles and the rows they start on in file order.
+	 * @param lineCount number of lines in the words file.
+	 */
+	public SectionIndex(LinkedList<Pair<String,Integer>> index, int lineCount) {
+		this(index, lineCount, null);
+	}
+	/**
+	 * Creates a new instance of SectionIndex, building the row table if it isn't given.
+	 * run-time:O(s) s=number of sections if the row table is given, otherwise same as SectionIndex(index, lineCount).
+	 */
+	private SectionIndex(LinkedList<Pair<String,Integer>> index, int lineCount, IntBuffer mappedRows) {
+		int size = index==null?0:index.getSize();
+		titles = new String[size];
+		starts = new int[size];
+		ends = new int[size];
+		directory = new HashMap<String,Integer>(Math.max(16, size*2));
+		int counter = 0;
+		if(index!=null) {
+			for(Node<Pair<String,Integer>> i:index) {
+				titles[counter] = i.element.getLeftValue();
+				starts[counter] = i.element.getRightValue();
+				//the section ends where the next one starts or after the last line
+				ends[counter] = i.next==null?lineCount+1:i.next.element.getRightValue();
+				if(!directory.containsKey(titles[counter])) {
+					directory.put(titles[counter], counter);
+				}
+				counter++;
+			}
+		}
+		this.lineCount = lineCount;
+		if(mappedRows!=null) {
+			this.mappedRows = mappedRows;
+			return;
+		}
+		rowToSection = new int[lineCount+1];
+		mapRows(1, lineCount);
+	}
+	/**
+	 * Maps rows to the sections covering them.
+	 * run-time:O(s+r) s=number of sections, r=number of rows mapped.
+	 *
+	 * @param first first row to map.
+	 * @param last last row to map.
+	 */
+	private void mapRows(int first, int last) {
+		for(int i=first;i<=last;i++) {
+			rowToSection[i] = -1;
+		}
+		for(int i=0;i<titles.length;i++) {
+			int start = Math.max(starts[i], first);
+			int end = Math.min(ends[i]-1, last);
+			for(int j=start;j<=end;j++) {
+				rowToSection[j] = i;
+			}
+		}
+	}
+	/**
+	 * Extends the last section over lines added to the end of the words file.
+	 * run-time:O(s+r) s=number of sections, r=number of new lines.
+	 *
+	 * @param lineCount new number of lines in the words file.
+	 */
+	public void addLines(int lineCount) {
+		if(rowToSection==null) {
+			throw new UnsupportedOperationException("Sections read from an index file cannot be changed");
+		}
+		int oldCount = this.lineCount;
+		if(lineCount<=oldCount) {
+			return;
+		}
+		int last = titles.length-1;
+		if(last>=0&&ends[last]==oldCount+1) {
+			ends[last] = lineCount+1;
+		}
+		if(lineCount+1>rowToSection.length) {
+			int[] newRowToSection = new int[Math.max(lineCount+1, rowToSection.length*2)];
+			System.arraycopy(rowToSection, 0, newRowToSection, 0, rowToSection.length);
+			rowToSection = newRowToSection;
+		}
+		mapRows(oldCount+1, lineCount);
+		this.lineCount = lineCount;
+	}
+	/**
+	 * Finds a section by its title.
+	 * run-time:O(t) t=length of the title.
+	 *
+	 * @param title title of the section.
+	 * @return returns the id of the first section with the title or -1 if there isn't one.
+	 */
+	public int find(String title) {
+		Integer section = directory.get(title);
+		if(section==null) {
+			return -1;
+		}
+		return section;
+	}
+	/**
+	 * Finds the section a row is in.
+	 * run-time:O(1)
+	 *
+	 * @param row row to be looked up.
+	 * @return returns the id of the section the row is in or -1 if it isn't in a section.
+	 */
+	public int sectionOf(int row) {
+		if(row<1||row>lineCount) {
+			return -1;
+		}
+		if(rowToSection==null) {
+			return mappedRows.get(row);
+		}
+		return rowToSection[row];
+	}
+	/**
+	 * run-time:O(1)
+	 * @return returns the number of sections.
+	 */
+	public int getSize() {
+		return titles.length;
+	}
+	/**
+	 * run-time:O(1)
+	 * @param section id of the section.
+	 * @return returns the title of the section.
+	 */
+	public String getTitle(int section) {
+		return titles[section];
+	}
+	/**
+	 * run-time:O(1)
+	 * @param section id of the section.
+	 * @return returns the first row of the section.
+	 */
+	public int getStart(int section) {
+		return starts[section];
+	}
+	/**
+	 * run-time:O(1)
+	 * @param section id of the section.
+	 * @return returns the row after the last row of the section.
+	 */
+	public int getEnd(int section) {
+		return ends[section];
+	}
+	/**
+	 * Estimates the heap used by the titles, section bounds, title hash table and row table (see
+	 * IndexFootprint).
+	 * run-time:O(s) s=number of sections.
+	 *
+	 * @return returns the estimated bytes of the SectionIndex.
+	 */
+	public long heapBytes() {
+		//6 references and lineCount
+		long bytes = IndexFootprint.objectBytes(6*IndexFootprint.REFERENCE+4);
+		bytes += IndexFootprint.arrayBytes(titles.length, IndexFootprint.REFERENCE);
+		for(String i:titles) {
+			bytes += IndexFootprint.stringBytes(i);
+		}
+		bytes += IndexFootprint.arrayBytes(starts.length, 4)+IndexFootprint.arrayBytes(ends.length, 4);
+		if(rowToSection!=null) {
+			bytes += IndexFootprint.arrayBytes(rowToSection.length, 4);
+		}else if(!mappedRows.isDirect()) {
+			bytes += IndexFootprint.arrayBytes(mappedRows.capacity(), 4);
+		}
+		//the table of the HashMap (a power of 2) and an entry and Integer for every title (the keys are the titles)
+		int table = Integer.highestOneBit(Math.max(16, titles.length*2)-1)<<1;
+		bytes += IndexFootprint.objectBytes(6*4)+IndexFootprint.arrayBytes(table, IndexFootprint.REFERENCE);
+		bytes += directory.size()*(IndexFootprint.objectBytes(4*4)+IndexFootprint.objectBytes(4));
+		return bytes;
+	}
+	/**
+	 * Writes the row table as a count followed by the section of every row.
+	 * run-time:O(n) n=lines in the words file.
+	 *
+	 * @param out stream to write to.
+	 */
+	void write(DataOutputStream out) throws IOException {
+		out.writeInt(lineCount+1);
+		if(rowToSection==null) {
+			IndexFile.writeInts(out, mappedRows);
+			return;
+		}
+		for(int i=0;i<=lineCount;i++) {
+			out.writeInt(rowToSection[i]);
+		}
+	}
+	/**
+	 * Reads a row table written by write without copying it.
+	 * run-time:O(s) s=number of sections.
+	 *
+	 * @param index section titles and the rows they start on in file order.
+	 * @param buffer buffer holding the written row table from its position, moved past it.
+	 * @return returns a read-only SectionIndex over the buffer.
+	 */
+	static SectionIndex map(LinkedList<Pair<String,Integer>> index, ByteBuffer buffer) {
+		int count = buffer.getInt();
+		return new SectionIndex(index, count-1, IndexFile.ints(buffer, count));
+	}
+}
@@ -0,0 +1,130 @@
+package MyADTS;
+/**
+ * A hash table of the stop words (and their prefixes) in a stop word Trie, probed straight from a
+ * buffer of formatted characters so telling whether a word is a stop word doesn't create a String or
+ * walk the Trie. Every entry keeps the TrieNode it came from so the occurrence can still be added to the
+ * Trie, which is only needed for phrase searches.
+ * Like Trie.find every prefix of a stop word (including "") is treated as a stop word.
+ * Uses open addressing with linear probing in a table at most half full. The set is a snapshot, words
+ * added to the Trie afterwards aren't in it.
+ * memory-usage:O(c) c=characters in the stop words.
+ *
+ * @author Riley De Leacy
+ *
+ */
+public class StopWordSet {
+	private final Trie stopWords;
+	//formatted words and their TrieNodes by slot, null slots are empty
+	private final char[][] keys;
+	private final TrieNode[] nodes;
+	private final int mask;
+	//no stop word is longer so longer words aren't hashed
+	private final int maxLength;
+	/**
+	 * Creates a new instance of StopWordSet with every word and prefix in a Trie.
+	 * run-time:O(n*l) n=number of TrieNodes, l=length of the longest word.
+	 *
+	 * @param stopWords stop words Trie the occurrences are added to.
+	 * @param root root TrieNode of the Trie.
+	 * @param size number of TrieNodes in the Trie (including the root).
+	 */
+	StopWordSet(Trie stopWords, TrieNode root, int size) {
+		this.stopWords = stopWords;
+		int capacity = Integer.highestOneBit(Math.max(size*2-1, 1))<<1;
+		keys = new char[capacity][];
+		nodes = new TrieNode[capacity];
+		mask = capacity-1;
+		maxLength = add(root, new char[16], 0);
+	}
+	/**
+	 * Adds a TrieNode and every TrieNode below it.
+	 * run-time:O(n*l) n=TrieNodes below the input, l=length of the longest word.
+	 *
+	 * @param node TrieNode to be added.
+	 * @param word characters of the path to the TrieNode (may be replaced by a larger array).
+	 * @param length length of the path.
+	 * @return returns the length of the longest path added.
+	 */
+	private int add(TrieNode node, char[] word, int length) {
+		char[] key = new char[length];
+		System.arraycopy(word, 0, key, 0, length);
+		int slot = hash(key, length)&mask;
+		while(keys[slot]!=null) {
+			slot = (slot+1)&mask;
+		}
+		keys[slot] = key;
+		nodes[slot] = node;
+		int longest = length;
+		if(node.getChildCount()>0&&length==word.length) {
+			char[] newWord = new char[word.length*2];
+			System.arraycopy(word, 0, newWord, 0, length);
+			word = newWord;
+		}
+		for(int i=0;i<node.getChildCount();i++) {
+			word[length] = node.getChild(i).getChar();
+			longest = Math.max(longest, add(node.getChild(i), word, length+1));
+		}
+		return longest;
+	}
+	/**
+	 * run-time:O(l) l=length of the word.
+	 * @return returns the hash of the first length characters of a word.
+	 */
+	private static int hash(char[] word, int length) {
+		int hash = length;
+		for(int i=0;i<length;i++) {
+			hash = hash*31+word[i];
+		}
+		//spread the low bits as the table is indexed by them
+		hash ^= hash>>>16;
+		hash *= 0x85EBCA6B;
+		hash ^= hash>>>13;
+		return hash;
+	}
+	/**
+	 * Finds a formatted word.
+	 * run-time:O(l) l=length of the word (expected).
+	 *
+	 * @param word buffer holding the formatted word (e.g. Tokenizer.buffer()).
+	 * @param length length of the word in the buffer.
+	 * @return returns the TrieNode of the word or null if it isn't a stop word.
+	 */
+	public TrieNode find(char[] word, int length) {
+		if(length>maxLength) {
+			return null;
+		}
+		int slot = hash(word, length)&mask;
+		while(keys[slot]!=null) {
+			char[] key = keys[slot];
+			if(key.length==length) {
+				int i = 0;
+				while(i<length&&key[i]==word[i]) {
+					i++;
+				}
+				if(i==length) {
+					return nodes[slot];
+				}
+			}
+			slot = (slot+1)&mask;
+		}
+		return null;
+	}
+	/**
+	 * Adds an occurrence to the stop words Trie if the word is a stop word.
+	 * run-time:O(l) l=length of the word (expected).
+	 *
+	 * @param word buffer holding the formatted word.
+	 * @param length length of the word in the buffer.
+	 * @param row row number the word occurs on.
+	 * @param column column the word starts at.
+	 * @return returns true if the word is a stop word, false otherwise.
+	 */
+	public Boolean addOccurrence(char[] word, int length, int row, int column) {
+		TrieNode node = find(word, length);
+		if(node==null) {
+			return false;
+		}
+		stopWords.addExistingWord(node, row, column);
+		return true;
+	}
+}
@@ -0,0 +1,315 @@
+package MyADTS;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+import comp3506.assn2.utils.Triple;
+/**
+ * Checks that a built Builder can be queried by many threads at once without locking (see the Builder
+ * class comment). Every index mode is built from a generated words file (see Benchmark.SyntheticCorpus)
+ * and every query is answered once on one thread as the reference. A fresh Builder of the same mode is
+ * then queried by every thread at once, each starting at a different query, and every result is
+ * compared with the reference. The Builder is fresh each round so the state made the first time it is
+ * needed (the word positions of phrase searches and the max frequencies of top-k completions) is made
+ * while the threads race for it. The max frequencies left stale by addExistingWord are also checked on
+ * a Trie and a RadixTrie directly.
+ * Exits with status 1 if any result differs.
+ * Usage: java MyADTS.StressTest [lines] [threads=n] [rounds=n]
+ * e.g. java MyADTS.StressTest 5000 threads=16 rounds=5
+ *
+ * @author Riley De Leacy
+ *
+ */
+public class StressTest {
+	private static final long SEED = 3507;
+	private static final String[] MODES = {"trie", "radix", "lazy", "cache", "freeze", "reopen"};
+	//number of queries of every kind
+	private static final int QUERIES = 32;
+	private final Benchmark.SyntheticCorpus corpus;
+	private final File directory;
+	private final int threads;
+	private final int rounds;
+	//query inputs, the same for every mode
+	private final String[] words;
+	private final String[] prefixes;
+	private final String[] phrases;
+	private final String[][] pairs;
+	private final String[][] titles;
+	/**
+	 * A query bound to the Builder or index it runs on, its result is rendered as a String to be compared.
+	 */
+	private static class Query {
+		private final String name;
+		private final Supplier<String> run;
+		private Query(String name, Supplier<String> run) {
+			this.name = name;
+			this.run = run;
+		}
+	}
+	private StressTest(File directory, int lines, int threads, int rounds) throws IOException {
+		this.directory = directory;
+		this.threads = threads;
+		this.rounds = rounds;
+		corpus = new Benchmark.SyntheticCorpus(directory, lines);
+		Builder builder = build("trie");
+		Random random = new Random(SEED);
+		words = new String[QUERIES];
+		prefixes = new String[QUERIES];
+		phrases = new String[QUERIES];
+		pairs = new String[QUERIES][];
+		titles = new String[QUERIES][];
+		for(int i=0;i<QUERIES;i++) {
+			words[i] = corpus.word(random);
+			//prefixes from 0 to 3 characters, "" completes over the whole index
+			prefixes[i] = words[i].substring(0, Math.min(i%4, words[i].length()));
+			//a phrase copied from the file so it always matches at least once
+			String[] line = builder.allLines.get(random.nextInt(builder.lineCounter)).split(" ");
+			int start = random.nextInt(Math.max(1, line.length-2));
+			phrases[i] = String.join(" ", Arrays.copyOfRange(line, start, Math.min(line.length, start+1+i%3)));
+			pairs[i] = new String[] {corpus.word(random), corpus.word(random)};
+			titles[i] = new String[] {corpus.title(random), corpus.title(random), corpus.title(random)};
+		}
+	}
+	/**
+	 * Runs the stress checks.
+	 *
+	 * @param args size in lines and options (see the class comment).
+	 * @throws IOException if the generated files can't be written or read.
+	 */
+	public static void main(String[] args) throws IOException {
+		int lines = 5000;
+		int threads = 16;
+		int rounds = 5;
+		for(String i:args) {
+			if(i.startsWith("threads=")) {
+				threads = Integer.parseInt(i.substring(8));
+			}else if(i.startsWith("rounds=")) {
+				rounds = Integer.parseInt(i.substring(7));
+			}else {
+				lines = Integer.parseInt(i);
+			}
+		}
+		File directory = new File(System.getProperty("java.io.tmpdir"), "trie-stress");
+		directory.mkdirs();
+		StressTest test = new StressTest(directory, lines, threads, rounds);
+		System.out.println(String.format("%-14s %10s %10s %12s", "mode", "queries", "threads", "mismatches"));
+		int mismatches = 0;
+		for(String i:MODES) {
+			mismatches += test.checkMode(i);
+		}
+		mismatches += test.checkAnnotation("annotate", () -> new Trie());
+		mismatches += test.checkAnnotation("radixannotate", () -> new RadixTrie());
+		System.out.println(mismatches==0?"OK":"FAILED "+mismatches+" mismatches");
+		System.exit(mismatches==0?0:1);
+	}
+	/**
+	 * Stresses a fresh Builder of an index mode every round.
+	 *
+	 * @return returns the number of results that differed from the reference.
+	 */
+	private int checkMode(String mode) {
+		String[] expected = answer(builderQueries(build(mode)));
+		int mismatches = 0;
+		for(int i=0;i<rounds;i++) {
+			mismatches += stress(mode, builderQueries(build(mode)), expected);
+		}
+		return mismatches;
+	}
+	/**
+	 * Stresses the lazy max frequencies of a fresh index every round. The words are added with
+	 * addExistingWord so the max frequencies are stale until the racing threads first ask for them.
+	 *
+	 * @param name name of the check (printed).
+	 * @param empty makes an empty index.
+	 * @return returns the number of results that differed from the reference.
+	 */
+	private int checkAnnotation(String name, Supplier<WordIndex<?>> empty) {
+		String[] expected = answer(completions(fill(empty.get())));
+		int mismatches = 0;
+		for(int i=0;i<rounds;i++) {
+			mismatches += stress(name, completions(fill(empty.get())), expected);
+		}
+		return mismatches;
+	}
+	/**
+	 * Adds every word of the words file to an index with addExistingWord.
+	 *
+	 * @return returns the input index.
+	 */
+	private <N> WordIndex<N> fill(WordIndex<N> index) {
+		Builder builder = build("trie");
+		for(int i=0;i<builder.lineCounter;i++) {
+			String[] line = builder.allLines.get(i).split("[ -]");
+			for(int j=0;j<line.length;j++) {
+				String word = Tokenizer.normalize(line[j]);
+				if(word!=null) {
+					index.addWord(word, i+1, j, false);
+					index.addExistingWord(index.find(word), i+1, j);
+				}
+			}
+		}
+		return index;
+	}
+	/**
+	 * Builds a Builder of an index mode from the corpus files.
+	 */
+	private Builder build(String mode) {
+		try {
+			String file = corpus.words.getPath();
+			String stopWords = corpus.stopWords.getPath();
+			String index = corpus.index.getPath();
+			switch(mode) {
+			case "radix":
+				return new Builder(file, stopWords, index, new IndexOptions().setPathCompression(true));
+			case "lazy":
+				return new Builder(file, stopWords, index, new IndexOptions().setStorePrefixes(false).setPrefixCacheSize(16));
+			case "cache":
+				return new Builder(file, stopWords, index, new IndexOptions().setQueryCacheBytes(1<<20));
+			case "freeze":
+				return new Builder(file, stopWords, index, new IndexOptions().setFreeze(true));
+			case "reopen":
+				String saved = new File(directory, "stress.idx").getPath();
+				new Builder(file, stopWords, index).save(saved);
+				return Builder.open(saved);
+			default:
+				return new Builder(file, stopWords, index);
+			}
+		}catch(IOException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+	/**
+	 * Makes every query of a Builder: findWord, prefixOccurrence, phraseOccurrence, wordsOnLine, the 4
+	 * section searches and top-k completions of the words and of the stop words.
+	 */
+	private Query[] builderQueries(Builder builder) {
+		Query[] queries = new Query[QUERIES*10];
+		int counter = 0;
+		for(int i=0;i<QUERIES;i++) {
+			String word = words[i];
+			String prefix = prefixes[i];
+			String phrase = phrases[i];
+			String[] pair = pairs[i];
+			String[] title = titles[i];
+			queries[counter++] = new Query("findWord "+word, () -> render(builder.words.findWord(word)));
+			queries[counter++] = new Query("prefixOccurrence "+prefix, () -> render(builder.prefixOccurrence(prefix)));
+			queries[counter++] = new Query("phraseOccurrence "+phrase, () -> render(builder.phraseOccurrence(phrase)));
+			queries[counter++] = new Query("wordsOnLine "+pair[0], () -> render(builder.wordsOnLine(pair)));
+			queries[counter++] = new Query("simpleAndSearch "+pair[0], () -> render(builder.simpleAndSearch(pair, title)));
+			queries[counter++] = new Query("simpleOrSearch "+pair[0], () -> render(builder.simpleOrSearch(pair, title)));
+			queries[counter++] = new Query("simpleNotSearch "+pair[0], () -> render(builder.simpleNotSearch(
+					new String[] {pair[0]}, title, new String[] {pair[1]})));
+			queries[counter++] = new Query("compoundAndOrSearch "+pair[0], () -> render(builder.compoundAndOrSearch(
+					new String[] {pair[0]}, title, new String[] {pair[1], word})));
+			queries[counter++] = new Query("topCompletions "+prefix, () -> render(builder.topCompletions(prefix, 10)));
+			queries[counter++] = new Query("stop word completions "+prefix,
+					() -> render(TermSearch.complete(builder.stopWords, prefix, 5)));
+		}
+		return queries;
+	}
+	/**
+	 * Makes top-k completion queries of an index.
+	 */
+	private Query[] completions(WordIndex<?> index) {
+		Query[] queries = new Query[QUERIES];
+		for(int i=0;i<QUERIES;i++) {
+			String prefix = prefixes[i];
+			queries[i] = new Query("complete "+prefix, () -> render(TermSearch.complete(index, prefix, 10)));
+		}
+		return queries;
+	}
+	/**
+	 * Answers every query on this thread.
+	 *
+	 * @return returns the results in query order.
+	 */
+	private static String[] answer(Query[] queries) {
+		String[] results = new String[queries.length];
+		for(int i=0;i<queries.length;i++) {
+			results[i] = queries[i].run.get();
+		}
+		return results;
+	}
+	/**
+	 * Answers every query from every thread at once and compares the results with the reference. Each
+	 * thread starts at a different query so different queries race for the same lazily made state.
+	 *
+	 * @param name name of the check (printed).
+	 * @param queries queries bound to the index being stressed.
+	 * @param expected reference results in query order.
+	 * @return returns the number of results that differed from the reference.
+	 */
+	private int stress(String name, Query[] queries, String[] expected) {
+		CountDownLatch start = new CountDownLatch(1);
+		AtomicInteger mismatches = new AtomicInteger();
+		AtomicReference<String> first = new AtomicReference<String>();
+		ExecutorService pool = Executors.newFixedThreadPool(threads);
+		try {
+			Future<?>[] running = new Future<?>[threads];
+			for(int i=0;i<threads;i++) {
+				int offset = i*queries.length/threads;
+				running[i] = pool.submit(() -> {
+					start.await();
+					for(int j=0;j<queries.length;j++) {
+						int query = (offset+j)%queries.length;
+						String result;
+						try {
+							result = queries[query].run.get();
+						}catch(RuntimeException e) {
+							result = e.toString();
+						}
+						if(!result.equals(expected[query])) {
+							mismatches.incrementAndGet();
+							first.compareAndSet(null, queries[query].name+" returned "+result+" expected "+expected[query]);
+						}
+					}
+					return null;
+				});
+			}
+			start.countDown();
+			for(Future<?> i:running) {
+				i.get();
+			}
+		}catch(InterruptedException|ExecutionException e) {
+			throw new IllegalStateException(e);
+		}finally {
+			pool.shutdown();
+		}
+		System.out.println(String.format("%-14s %10d %10d %12d", name, queries.length, threads, mismatches.get()));
+		if(first.get()!=null) {
+			System.out.println("  first mismatch: "+first.get());
+		}
+		return mismatches.get();
+	}
+	/**
+	 * run-time:O(r) r=size of the result.
+	 * @return returns every element of a result on one line (null for no result).
+	 */
+	private static String render(LinkedList<?> result) {
+		if(result==null) {
+			return "null";
+		}
+		StringBuilder string = new StringBuilder();
+		for(Node<?> i:result) {
+			if(i.element instanceof Triple) {
+				Triple<?,?,?> triple = (Triple<?,?,?>)i.element;
+				string.append(triple.getLeftValue()).append(',').append(triple.getCentreValue()).append(',')
+						.append(triple.getRightValue());
+			}else {
+				string.append(i.element);
+			}
+			string.append(';');
+		}
+		return string.toString();
+	}
+}
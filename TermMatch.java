@@ -0,0 +1,64 @@
+package MyADTS;
+/**
+ * A word of the index found by a search over the vocabulary (see TermSearch), with its locations and
+ * how far it is from what was searched for.
+ * memory-usage:O(m) m=length of the word (the locations are a view, not a copy).
+ *
+ * @author Riley De Leacy
+ *
+ */
+public class TermMatch {
+	private final String term;
+	private final int distance;
+	private final OccurrenceView occurrences;
+	/**
+	 * Creates a new instance of TermMatch.
+	 * run-time:O(1)
+	 *
+	 * @param term the formatted word.
+	 * @param distance edit distance from the searched word (0 for exact and pattern matches).
+	 * @param occurrences complete word locations of the word.
+	 */
+	public TermMatch(String term, int distance, OccurrenceView occurrences) {
+		this.term = term;
+		this.distance = distance;
+		this.occurrences = occurrences;
+	}
+	/**
+	 * run-time:O(1)
+	 * @return returns the formatted word.
+	 */
+	public String getTerm() {
+		return term;
+	}
+	/**
+	 * run-time:O(1)
+	 * @return returns the edit distance from the searched word.
+	 */
+	public int getDistance() {
+		return distance;
+	}
+	/**
+	 * run-time:O(1)
+	 * @return returns a read-only view of the word's locations.
+	 */
+	public OccurrenceView getOccurrences() {
+		return occurrences;
+	}
+	/**
+	 * run-time:O(1)
+	 * @return returns the number of times the word occurs.
+	 */
+	public int getFrequency() {
+		return occurrences.getSize();
+	}
+	/**
+	 * String representation of TermMatch. The String is of format "term:distance:frequency".
+	 * run-time:O(m) m=length of the word.
+	 *
+	 * @return returns the string representation of TermMatch.
+	 */
+	public String toString() {
+		return term+":"+distance+":"+getFrequency();
+	}
+}
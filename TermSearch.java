@@ -0,0 +1,644 @@
+package MyADTS;
+
+import java.util.PriorityQueue;
+/**
+ * Searches over the whole vocabulary of a WordIndex by walking its nodes from the root and pruning every
+ * subtree that can't hold a match (or, for completions, can't hold one of the best), so only the part
+ * of the index near the search is visited. Used for misspelt words (fuzzy), completions (complete) and
+ * wildcard patterns (match).
+ * Words are compared in the formatted (lower case) form they are stored in.
+ *
+ * @author Riley De Leacy
+ *
+ */
+public class TermSearch {
+	private TermSearch() {
+	}
+	/**
+	 * Finds the words within an edit distance (insertions, deletions and substitutions of single
+	 * characters) of a word. One row of the Levenshtein table is worked out for every character walked
+	 * down the index, a subtree is skipped once every entry of the row is over the limit as the
+	 * distance can only grow below it.
+	 * run-time:O(v*m) v=nodes visited (at most the nodes within maxDistance of a prefix of the word),
+	 * m=length of the word.
+	 *
+	 * @param index index to be searched.
+	 * @param word word to be searched for.
+	 * @param maxDistance largest edit distance of a match (larger than the word and the deepest word of
+	 * the index acts the same as their length).
+	 * @return returns the matches ordered by distance and then by word.
+	 */
+	public static <N> LinkedList<TermMatch> fuzzy(WordIndex<N> index, String word, int maxDistance) {
+		if(maxDistance<0) {
+			throw new IllegalArgumentException("The edit distance cannot be negative");
+		}
+		LinkedList<TermMatch> returnList = new LinkedList<TermMatch>();
+		String target = Tokenizer.normalize(word);
+		if(target==null) {
+			return returnList;
+		}
+		//no word is further away than the longer of it and the target so larger distances change nothing
+		int distance = Math.min(maxDistance, Math.max(target.length(), index.getMaxDepth()));
+		FuzzyWalk<N> walk = new FuzzyWalk<N>(index, target.toCharArray(), distance);
+		if(index instanceof FrozenTrie) {
+			//walk the node ids straight away so no node is boxed
+			walk.visitFrozen((FrozenTrie)index, 0, 0);
+		}else {
+			walk.visit(index.getRoot(), 0);
+		}
+		//matches are found in word order, keep that order within every distance
+		for(LinkedList<TermMatch> i:walk.found) {
+			for(Node<TermMatch> j:i) {
+				returnList.add(j.element);
+			}
+		}
+		return returnList;
+	}
+	/**
+	 * Finds the k most frequent words starting with a prefix. Nodes are visited best first by the most
+	 * times any word below them occurs (WordIndex.getMaxFrequency), so no subtree is entered unless it
+	 * holds one of the next most frequent words and the size of the subtree below the prefix doesn't matter.
+	 * run-time:O(p*log(d)+k*d*log(k*d)) p=length of the prefix, d=most children of a node visited.
+	 *
+	 * @param index index to be searched.
+	 * @param prefix prefix of the words.
+	 * @param k most words to return.
+	 * @return returns the words ordered by how often they occur (most first) and then by word.
+	 */
+	public static <N> LinkedList<TermMatch> complete(WordIndex<N> index, String prefix, int k) {
+		if(k<0) {
+			throw new IllegalArgumentException("The number of words cannot be negative");
+		}
+		LinkedList<TermMatch> returnList = new LinkedList<TermMatch>();
+		String target = Tokenizer.normalize(prefix);
+		if(target==null||k==0) {
+			return returnList;
+		}
+		if(index instanceof FrozenTrie) {
+			return complete((FrozenTrie)index, target, k, returnList);
+		}
+		//follow the prefix down, it may finish part way along an edge
+		N node = index.getRoot();
+		int matched = 0;
+		int label = 0;
+		while(matched<target.length()) {
+			node = child(index, node, target.charAt(matched));
+			if(node==null) {
+				return returnList;
+			}
+			matched++;
+			label = 1;
+			while(label<index.getLabelLength(node)&&matched<target.length()) {
+				if(index.getLabelChar(node, label)!=target.charAt(matched)) {
+					return returnList;
+				}
+				matched++;
+				label++;
+			}
+		}
+		StringBuilder term = new StringBuilder(target);
+		for(int i=label;i<index.getLabelLength(node);i++) {
+			term.append(index.getLabelChar(node, i));
+		}
+		PriorityQueue<Completion<N>> queue = new PriorityQueue<Completion<N>>();
+		if(index.getMaxFrequency(node)>0) {
+			queue.add(new Completion<N>(node, term.toString(), index.getMaxFrequency(node), false));
+		}
+		while(!queue.isEmpty()&&returnList.getSize()<k) {
+			Completion<N> next = queue.poll();
+			if(next.word) {
+				returnList.add(new TermMatch(next.term, 0, index.getWordView(next.node)));
+				continue;
+			}
+			int frequency = index.getWordView(next.node).getSize();
+			if(frequency>0) {
+				queue.add(new Completion<N>(next.node, next.term, frequency, true));
+			}
+			for(int i=0;i<index.getChildCount(next.node);i++) {
+				N child = index.getChild(next.node, i);
+				int maxFrequency = index.getMaxFrequency(child);
+				if(maxFrequency>0) {
+					queue.add(new Completion<N>(child, next.term+label(index, child), maxFrequency, false));
+				}
+			}
+		}
+		return returnList;
+	}
+	/**
+	 * Runs complete over the node ids of a FrozenTrie so no node is boxed.
+	 * run-time:same as complete.
+	 *
+	 * @param trie index to be searched.
+	 * @param target formatted prefix.
+	 * @param k most words to return.
+	 * @param returnList list the words are added to.
+	 * @return returns the input list.
+	 */
+	private static LinkedList<TermMatch> complete(FrozenTrie trie, String target, int k, LinkedList<TermMatch> returnList) {
+		int node = 0;
+		for(int i=0;i<target.length()&&node>=0;i++) {
+			node = trie.child(node, target.charAt(i));
+		}
+		if(node<0) {
+			return returnList;
+		}
+		PriorityQueue<Completion<Void>> queue = new PriorityQueue<Completion<Void>>();
+		if(trie.maxWordCount(node)>0) {
+			queue.add(new Completion<Void>(node, target, trie.maxWordCount(node), false));
+		}
+		while(!queue.isEmpty()&&returnList.getSize()<k) {
+			Completion<Void> next = queue.poll();
+			if(next.word) {
+				returnList.add(new TermMatch(next.term, 0, trie.wordView(next.id)));
+				continue;
+			}
+			int frequency = trie.wordCount(next.id);
+			if(frequency>0) {
+				queue.add(new Completion<Void>(next.id, next.term, frequency, true));
+			}
+			int end = trie.childEnd(next.id);
+			for(int child=trie.childStart(next.id);child<end;child++) {
+				int maxFrequency = trie.maxWordCount(child);
+				if(maxFrequency>0) {
+					queue.add(new Completion<Void>(child, next.term+trie.label(child), maxFrequency, false));
+				}
+			}
+		}
+		return returnList;
+	}
+	/**
+	 * Finds the child of a node whose edge starts with a character.
+	 * run-time:O(log(d)) d=number of children.
+	 *
+	 * @return returns the child or null if there isn't one.
+	 */
+	private static <N> N child(WordIndex<N> index, N node, char c) {
+		int low = 0;
+		int high = index.getChildCount(node)-1;
+		while(low<=high) {
+			int middle = (low+high)>>>1;
+			N child = index.getChild(node, middle);
+			char label = index.getLabelChar(child, 0);
+			if(label<c) {
+				low = middle+1;
+			}else if(label>c) {
+				high = middle-1;
+			}else {
+				return child;
+			}
+		}
+		return null;
+	}
+	/**
+	 * run-time:O(l) l=length of the label.
+	 * @return returns the label of the edge into a node.
+	 */
+	private static <N> String label(WordIndex<N> index, N node) {
+		int length = index.getLabelLength(node);
+		if(length==1) {
+			return String.valueOf(index.getLabelChar(node, 0));
+		}
+		char[] label = new char[length];
+		for(int i=0;i<length;i++) {
+			label[i] = index.getLabelChar(node, i);
+		}
+		return new String(label);
+	}
+	/**
+	 * A node waiting to be visited by complete, or a word waiting to be returned. Ordered by frequency
+	 * (highest first) and then by word so words of the same frequency come out in word order.
+	 * FrozenTrie nodes are kept by id instead.
+	 */
+	private static class Completion<N> implements Comparable<Completion<N>> {
+		private final N node;
+		private final int id;
+		private final String term;
+		//word count of a word, highest word count below a node
+		private final int frequency;
+		private final boolean word;
+		private Completion(N node, String term, int frequency, boolean word) {
+			this.node = node;
+			this.id = -1;
+			this.term = term;
+			this.frequency = frequency;
+			this.word = word;
+		}
+		private Completion(int id, String term, int frequency, boolean word) {
+			this.node = null;
+			this.id = id;
+			this.term = term;
+			this.frequency = frequency;
+			this.word = word;
+		}
+		@Override
+		public int compareTo(Completion<N> other) {
+			if(frequency!=other.frequency) {
+				return frequency>other.frequency?-1:1;
+			}
+			int order = term.compareTo(other.term);
+			if(order!=0) {
+				return order;
+			}
+			//a word comes before the words below it
+			return word==other.word?0:(word?-1:1);
+		}
+	}
+	/**
+	 * Finds the words matching a wildcard pattern. The pattern is turned into a small NFA that is run
+	 * down the index, a subtree is skipped as soon as no state of the NFA is left and a run of single
+	 * characters is followed straight to the matching child instead of trying every child.
+	 * The pattern is matched against the formatted (lower case) words, it may use:
+	 * - * for any number of characters (including none).
+	 * - ? for exactly one character.
+	 * - [abc] or [a-z] for one character in a set, [!abc] or [^abc] for one character not in it.
+	 * - \ before any of *?[ to match it as a normal character.
+	 * run-time:O(v*p) v=nodes visited (only nodes on a path the pattern can still match), p=length of the pattern.
+	 *
+	 * @param index index to be searched.
+	 * @param pattern pattern of the words.
+	 * @return returns the matching words in word order.
+	 * @throws IllegalArgumentException if a [ isn't closed.
+	 */
+	public static <N> LinkedList<TermMatch> match(WordIndex<N> index, String pattern) {
+		LinkedList<TermMatch> returnList = new LinkedList<TermMatch>();
+		if(pattern==null) {
+			return returnList;
+		}
+		PatternWalk<N> walk = new PatternWalk<N>(index, pattern.toLowerCase(), returnList);
+		if(index instanceof FrozenTrie) {
+			//walk the node ids straight away so no node is boxed
+			walk.visitFrozen((FrozenTrie)index, 0, 0);
+		}else {
+			walk.visit(index.getRoot(), 0);
+		}
+		return returnList;
+	}
+	/**
+	 * The NFA of a wildcard pattern and the state of a match: the characters walked so far and the NFA
+	 * states reached after each of them.
+	 */
+	private static class PatternWalk<N> {
+		private static final int LITERAL = 0;
+		private static final int ANY = 1;
+		private static final int SET = 2;
+		private static final int STAR = 3;
+		private final WordIndex<N> index;
+		private final LinkedList<TermMatch> found;
+		//state i of the NFA reads element i of the pattern, state size accepts
+		private int size;
+		private int[] kinds;
+		private char[] literals;
+		//character ranges (from, to pairs) of sets
+		private char[][] ranges;
+		private boolean[] negated;
+		//states[d] = NFA states reached after d characters
+		private boolean[][] states;
+		private char[] walked;
+		private PatternWalk(WordIndex<N> index, String pattern, LinkedList<TermMatch> found) {
+			this.index = index;
+			this.found = found;
+			compile(pattern);
+			states = new boolean[16][];
+			walked = new char[16];
+			states[0] = new boolean[size+1];
+			states[0][0] = true;
+			close(states[0]);
+		}
+		/**
+		 * Splits the pattern into the elements of the NFA.
+		 * run-time:O(p) p=length of the pattern.
+		 */
+		private void compile(String pattern) {
+			kinds = new int[pattern.length()];
+			literals = new char[pattern.length()];
+			ranges = new char[pattern.length()][];
+			negated = new boolean[pattern.length()];
+			size = 0;
+			int i = 0;
+			while(i<pattern.length()) {
+				char c = pattern.charAt(i);
+				if(c=='*') {
+					//a run of * matches the same as one
+					if(size==0||kinds[size-1]!=STAR) {
+						kinds[size++] = STAR;
+					}
+					i++;
+				}else if(c=='?') {
+					kinds[size++] = ANY;
+					i++;
+				}else if(c=='[') {
+					i = compileSet(pattern, i+1);
+				}else {
+					if(c=='\\'&&i+1<pattern.length()) {
+						i++;
+						c = pattern.charAt(i);
+					}
+					kinds[size] = LITERAL;
+					literals[size++] = c;
+					i++;
+				}
+			}
+		}
+		/**
+		 * Reads a [...] set starting after its [.
+		 * run-time:O(s) s=length of the set.
+		 *
+		 * @return returns the index after the closing ].
+		 */
+		private int compileSet(String pattern, int i) {
+			if(i<pattern.length()&&(pattern.charAt(i)=='!'||pattern.charAt(i)=='^')) {
+				negated[size] = true;
+				i++;
+			}
+			char[] set = new char[8];
+			int setSize = 0;
+			//a ] straight after the [ is part of the set
+			int start = i;
+			while(i<pattern.length()&&(pattern.charAt(i)!=']'||i==start)) {
+				char from = pattern.charAt(i);
+				char to = from;
+				if(i+2<pattern.length()&&pattern.charAt(i+1)=='-'&&pattern.charAt(i+2)!=']') {
+					to = pattern.charAt(i+2);
+					i += 2;
+				}
+				if(setSize+2>set.length) {
+					char[] newSet = new char[set.length*2];
+					System.arraycopy(set, 0, newSet, 0, setSize);
+					set = newSet;
+				}
+				set[setSize++] = from;
+				set[setSize++] = to;
+				i++;
+			}
+			if(i>=pattern.length()) {
+				throw new IllegalArgumentException("The pattern has a [ without a ]");
+			}
+			ranges[size] = new char[setSize];
+			System.arraycopy(set, 0, ranges[size], 0, setSize);
+			kinds[size++] = SET;
+			return i+1;
+		}
+		/**
+		 * Adds the states reached without reading a character (past a * matching nothing).
+		 * run-time:O(p) p=length of the pattern.
+		 */
+		private void close(boolean[] reached) {
+			for(int i=0;i<size;i++) {
+				if(reached[i]&&kinds[i]==STAR) {
+					reached[i+1] = true;
+				}
+			}
+		}
+		/**
+		 * run-time:O(s) s=size of the set.
+		 * @return returns true if the element of state i reads the character.
+		 */
+		private boolean reads(int i, char c) {
+			switch(kinds[i]) {
+			case LITERAL:
+				return literals[i]==c;
+			case SET:
+				boolean in = false;
+				for(int j=0;j<ranges[i].length&&!in;j+=2) {
+					in = ranges[i][j]<=c&&c<=ranges[i][j+1];
+				}
+				return in!=negated[i];
+			default:
+				return true;
+			}
+		}
+		/**
+		 * Works out the states after walking one more character.
+		 * run-time:O(p) p=length of the pattern.
+		 *
+		 * @param depth number of characters walked before this one.
+		 * @param c the character walked.
+		 * @return returns true if any state was reached.
+		 */
+		private boolean step(int depth, char c) {
+			if(depth+1==states.length) {
+				boolean[][] newStates = new boolean[states.length*2][];
+				System.arraycopy(states, 0, newStates, 0, states.length);
+				states = newStates;
+				char[] newWalked = new char[walked.length*2];
+				System.arraycopy(walked, 0, newWalked, 0, walked.length);
+				walked = newWalked;
+			}
+			walked[depth] = c;
+			boolean[] current = states[depth];
+			boolean[] next = states[depth+1];
+			if(next==null) {
+				next = new boolean[size+1];
+				states[depth+1] = next;
+			}
+			boolean any = false;
+			for(int i=0;i<=size;i++) {
+				next[i] = false;
+			}
+			for(int i=0;i<size;i++) {
+				if(!current[i]) {
+					continue;
+				}
+				if(kinds[i]==STAR) {
+					next[i] = true;
+					any = true;
+				}else if(reads(i, c)) {
+					next[i+1] = true;
+					any = true;
+				}
+			}
+			close(next);
+			return any;
+		}
+		/**
+		 * Visits the children of a node that can still match, depth is the number of characters walked to reach it.
+		 * run-time:O(v*p) v=nodes visited below the node, p=length of the pattern.
+		 */
+		private void visit(N node, int depth) {
+			char only = onlyLiteral(states[depth]);
+			if(only!=0) {
+				//just one character can be read so go straight to its child
+				N child = child(index, node, only);
+				if(child!=null) {
+					visitChild(child, depth);
+				}
+				return;
+			}
+			for(int i=0;i<index.getChildCount(node);i++) {
+				visitChild(index.getChild(node, i), depth);
+			}
+		}
+		/**
+		 * Walks the edge into a child and visits it if the pattern can still match.
+		 */
+		private void visitChild(N child, int depth) {
+			int length = index.getLabelLength(child);
+			for(int j=0;j<length;j++) {
+				if(!step(depth, index.getLabelChar(child, j))) {
+					return;
+				}
+				depth++;
+			}
+			if(states[depth][size]&&index.getWordCount(child)>0) {
+				found.add(new TermMatch(new String(walked, 0, depth), 0, index.getWordView(child)));
+			}
+			visit(child, depth);
+		}
+		/**
+		 * Same as visit over the node ids of a FrozenTrie.
+		 * run-time:O(v*p) v=nodes visited below the node, p=length of the pattern.
+		 */
+		private void visitFrozen(FrozenTrie trie, int node, int depth) {
+			char only = onlyLiteral(states[depth]);
+			if(only!=0) {
+				int child = trie.child(node, only);
+				if(child>=0) {
+					visitFrozenChild(trie, child, depth);
+				}
+				return;
+			}
+			int end = trie.childEnd(node);
+			for(int child=trie.childStart(node);child<end;child++) {
+				visitFrozenChild(trie, child, depth);
+			}
+		}
+		/**
+		 * Same as visitChild over the node ids of a FrozenTrie (every label is 1 character).
+		 */
+		private void visitFrozenChild(FrozenTrie trie, int child, int depth) {
+			if(!step(depth, trie.label(child))) {
+				return;
+			}
+			if(states[depth+1][size]&&trie.wordCount(child)>0) {
+				found.add(new TermMatch(new String(walked, 0, depth+1), 0, trie.wordView(child)));
+			}
+			visitFrozen(trie, child, depth+1);
+		}
+		/**
+		 * run-time:O(p) p=length of the pattern.
+		 * @return returns the character if the only states reached read a single literal character, 0 otherwise.
+		 */
+		private char onlyLiteral(boolean[] reached) {
+			char only = 0;
+			//the accepting state doesn't read anything so it is left out
+			for(int i=0;i<size;i++) {
+				if(!reached[i]) {
+					continue;
+				}
+				if(kinds[i]!=LITERAL||(only!=0&&only!=literals[i])||literals[i]==0) {
+					return 0;
+				}
+				only = literals[i];
+			}
+			return only;
+		}
+	}
+	/**
+	 * The state of a fuzzy search: the characters walked so far and a Levenshtein row for each of them.
+	 */
+	private static class FuzzyWalk<N> {
+		private final WordIndex<N> index;
+		private final char[] target;
+		private final int maxDistance;
+		//rows[d][j]=edit distance between the first d walked characters and the first j target characters
+		private int[][] rows;
+		private char[] walked;
+		//matches by distance
+		private final LinkedList<TermMatch>[] found;
+		@SuppressWarnings("unchecked")
+		private FuzzyWalk(WordIndex<N> index, char[] target, int maxDistance) {
+			this.index = index;
+			this.target = target;
+			this.maxDistance = maxDistance;
+			rows = new int[16][];
+			walked = new char[16];
+			rows[0] = new int[target.length+1];
+			for(int i=0;i<=target.length;i++) {
+				rows[0][i] = i;
+			}
+			@SuppressWarnings("unchecked")
+			LinkedList<TermMatch>[] buckets = (LinkedList<TermMatch>[])new LinkedList<?>[maxDistance+1];
+			found = buckets;
+			for(int i=0;i<=maxDistance;i++) {
+				found[i] = new LinkedList<TermMatch>();
+			}
+		}
+		/**
+		 * Visits the children of a node, depth is the number of characters walked to reach it.
+		 * run-time:O(v*m) v=nodes visited below the node, m=length of the target.
+		 */
+		private void visit(N node, int depth) {
+			for(int i=0;i<index.getChildCount(node);i++) {
+				N child = index.getChild(node, i);
+				int length = index.getLabelLength(child);
+				int childDepth = depth;
+				Boolean pruned = false;
+				for(int j=0;j<length;j++) {
+					if(nextRow(childDepth, index.getLabelChar(child, j))>maxDistance) {
+						pruned = true;
+						break;
+					}
+					childDepth++;
+				}
+				if(pruned) {
+					continue;
+				}
+				int distance = rows[childDepth][target.length];
+				if(distance<=maxDistance&&index.getWordCount(child)>0) {
+					found[distance].add(new TermMatch(new String(walked, 0, childDepth), distance, index.getWordView(child)));
+				}
+				visit(child, childDepth);
+			}
+		}
+		/**
+		 * Same as visit over the node ids of a FrozenTrie (every label is 1 character).
+		 * run-time:O(v*m) v=nodes visited below the node, m=length of the target.
+		 */
+		private void visitFrozen(FrozenTrie trie, int node, int depth) {
+			int end = trie.childEnd(node);
+			for(int child=trie.childStart(node);child<end;child++) {
+				if(nextRow(depth, trie.label(child))>maxDistance) {
+					continue;
+				}
+				int distance = rows[depth+1][target.length];
+				if(distance<=maxDistance&&trie.wordCount(child)>0) {
+					found[distance].add(new TermMatch(new String(walked, 0, depth+1), distance, trie.wordView(child)));
+				}
+				visitFrozen(trie, child, depth+1);
+			}
+		}
+		/**
+		 * Works out the row after walking one more character.
+		 * run-time:O(m) m=length of the target.
+		 *
+		 * @param depth number of characters walked before this one.
+		 * @param c the character walked.
+		 * @return returns the smallest entry of the new row.
+		 */
+		private int nextRow(int depth, char c) {
+			if(depth+1==rows.length) {
+				int[][] newRows = new int[rows.length*2][];
+				System.arraycopy(rows, 0, newRows, 0, rows.length);
+				rows = newRows;
+				char[] newWalked = new char[walked.length*2];
+				System.arraycopy(walked, 0, newWalked, 0, walked.length);
+				walked = newWalked;
+			}
+			walked[depth] = c;
+			int[] previous = rows[depth];
+			int[] row = rows[depth+1];
+			if(row==null) {
+				row = new int[target.length+1];
+				rows[depth+1] = row;
+			}
+			row[0] = depth+1;
+			int smallest = row[0];
+			for(int j=1;j<=target.length;j++) {
+				int cost = target[j-1]==c?0:1;
+				row[j] = Math.min(Math.min(row[j-1]+1, previous[j]+1), previous[j-1]+cost);
+				smallest = Math.min(smallest, row[j]);
+			}
+			return smallest;
+		}
+	}
+}
@@ -0,0 +1,259 @@
+package MyADTS;
+/**
+ * Numbers every word in the words file in reading order so an occurrence (column, row) can be turned
+ * into its position (ordinal) in the whole file. Words that follow each other in the file have
+ * consecutive ordinals even if they are on different lines, which lets phrases be found by
+ * intersecting the positions of their words instead of re-reading lines.
+ * Words are split the same way as when they are added to the Tries (see Tokenizer). Words without any
+ * letters (e.g. "1999") are numbered too so a phrase can't match across them, they aren't stored in the
+ * Tries so their ordinals are kept in their own list (see blanks and matches).
+ * memory-usage:O(w+n) w=words in the file, n=lines in the file.
+ *
+ * @author Riley De Leacy
+ *
+ */
+public class TokenPositions {
+	//the words on line i (row i+1) have ordinals rowStart[i] to rowStart[i+1]-1
+	private int[] rowStart;
+	//column every word starts at (before its leading symbols), indexed by ordinal
+	private int[] columns;
+	//ordinals of the words without any letters in ascending order
+	private int[] blanks;
+	private int blankCount;
+	private int rows;
+	private int size;
+	/**
+	 * Creates a new instance of TokenPositions numbering every word in the input lines.
+	 * run-time:O(c) c=characters in the lines.
+	 *
+	 * @param lines lines of the words file.
+	 */
+	public TokenPositions(LineTable lines) {
+		rowStart = new int[lines.getSize()+1];
+		columns = new int[Math.max(lines.getSize()*8, 16)];
+		blanks = new int[16];
+		blankCount = 0;
+		rows = 0;
+		size = 0;
+		addLines(lines, 0);
+	}
+	/**
+	 * Numbers the words of lines that were added to the end of the file.
+	 * run-time:O(c) c=characters in the new lines.
+	 *
+	 * @param lines lines of the words file.
+	 * @param from index of the first line that hasn't been numbered.
+	 */
+	public void addLines(LineTable lines, int from) {
+		if(lines.getSize()+1>rowStart.length) {
+			int[] newRowStart = new int[Math.max(lines.getSize()+1, rowStart.length*2)];
+			System.arraycopy(rowStart, 0, newRowStart, 0, rows+1);
+			rowStart = newRowStart;
+		}
+		Tokenizer tokens = new Tokenizer();
+		for(int i=from;i<lines.getSize();i++) {
+			tokens.reset(lines.get(i));
+			while(tokens.next()) {
+				if(tokens.length()<1) {
+					if(blankCount==blanks.length) {
+						int[] newBlanks = new int[blanks.length*2];
+						System.arraycopy(blanks, 0, newBlanks, 0, blankCount);
+						blanks = newBlanks;
+					}
+					blanks[blankCount] = size;
+					blankCount++;
+				}
+				if(size==columns.length) {
+					int[] newColumns = new int[columns.length*2];
+					System.arraycopy(columns, 0, newColumns, 0, size);
+					columns = newColumns;
+				}
+				columns[size] = tokens.column();
+				size++;
+			}
+			rows = i+1;
+			rowStart[rows] = size;
+		}
+	}
+	/**
+	 * Finds the ordinal of the word an occurrence belongs to. The column may be the start of the word
+	 * (stop words) or the start of the word after its leading symbols (other words).
+	 * run-time:O(log(r)) r=words on the row.
+	 *
+	 * @param column column of the occurrence.
+	 * @param row row of the occurrence.
+	 * @return returns the ordinal of the word or -1 if there isn't a word at that position.
+	 */
+	public int ordinal(int column, int row) {
+		if(row<1||row>rows) {
+			return -1;
+		}
+		//last word on the row starting at or before the column
+		int low = rowStart[row-1];
+		int high = rowStart[row]-1;
+		int found = -1;
+		while(low<=high) {
+			int middle = (low+high)>>>1;
+			if(columns[middle]<=column) {
+				found = middle;
+				low = middle+1;
+			}else {
+				high = middle-1;
+			}
+		}
+		return found;
+	}
+	/**
+	 * run-time:O(1)
+	 * @param ordinal ordinal of a word.
+	 * @return returns the column the word starts at (before its leading symbols).
+	 */
+	public int column(int ordinal) {
+		return columns[ordinal];
+	}
+	/**
+	 * Finds the row a word is on.
+	 * run-time:O(log(n)) n=numbered lines.
+	 *
+	 * @param ordinal ordinal of a word.
+	 * @return returns the row of the word.
+	 */
+	public int row(int ordinal) {
+		//last line starting at or before the ordinal, lines without words start where the next line does
+		int low = 0;
+		int high = rows-1;
+		int found = 0;
+		while(low<=high) {
+			int middle = (low+high)>>>1;
+			if(rowStart[middle]<=ordinal) {
+				found = middle;
+				low = middle+1;
+			}else {
+				high = middle-1;
+			}
+		}
+		return found+1;
+	}
+	/**
+	 * run-time:O(b) b=number of words without any letters.
+	 * @return returns the ascending ordinals of every word without any letters.
+	 */
+	public int[] blanks() {
+		int[] found = new int[blankCount];
+		System.arraycopy(blanks, 0, found, 0, blankCount);
+		return found;
+	}
+	/**
+	 * Checks a word without any letters is the same as it is in a phrase. The word on the line must be
+	 * followed by a space, a hyphon or the end of the line so "1999" doesn't match "19990".
+	 * run-time:O(t) t=length of the token.
+	 *
+	 * @param lines lines of the words file.
+	 * @param ordinal ordinal of the word.
+	 * @param token word as it is in the phrase (see Tokenizer.token).
+	 * @return returns true if the word is the token, false otherwise.
+	 */
+	public boolean matches(LineTable lines, int ordinal, String token) {
+		String line = lines.get(row(ordinal)-1);
+		int start = columns[ordinal]-1;
+		int end = start+token.length();
+		if(!line.startsWith(token, start)) {
+			return false;
+		}
+		return end==line.length()||line.charAt(end)==' '||line.charAt(end)=='-';
+	}
+	/**
+	 * Turns occurrences into the ordinals of their words.
+	 * run-time:O(s*log(r)) s=size of the occurrences, r=average words on a row.
+	 *
+	 * @param occurrences occurrences in (row, column) order.
+	 * @return returns the ordinals in ascending order (occurrences without a word are left out).
+	 */
+	public int[] ordinals(OccurrenceView occurrences) {
+		int[] ordinals = new int[occurrences.getSize()];
+		int count = 0;
+		OccurrenceCursor cursor = occurrences.cursor();
+		while(cursor.next()) {
+			int ordinal = ordinal(cursor.column(), cursor.row());
+			//two occurrences can't share a word but skip it if they do so the array stays strictly ascending
+			if(ordinal>=0&&(count==0||ordinals[count-1]<ordinal)) {
+				ordinals[count] = ordinal;
+				count++;
+			}
+		}
+		if(count<ordinals.length) {
+			int[] trimmed = new int[count];
+			System.arraycopy(ordinals, 0, trimmed, 0, count);
+			return trimmed;
+		}
+		return ordinals;
+	}
+	/**
+	 * Finds the positions where a sequence of words occurs one after the other.
+	 * The rarest word is used to pick candidate start positions which are then checked against the
+	 * other words by walking their ordinals forwards, so no list is read more than once.
+	 * run-time:O(k*s) k=words in the sequence, s=size of the largest ordinal list.
+	 *
+	 * @param ordinals ascending ordinals of every word in the sequence, in sequence order.
+	 * @return returns the ascending ordinals the first word is at when the whole sequence follows it.
+	 */
+	public static int[] intersect(int[][] ordinals) {
+		if(ordinals.length==0) {
+			return new int[0];
+		}
+		int rarest = 0;
+		for(int i=1;i<ordinals.length;i++) {
+			if(ordinals[i].length<ordinals[rarest].length) {
+				rarest = i;
+			}
+		}
+		//candidate start positions
+		int[] candidates = new int[ordinals[rarest].length];
+		int count = 0;
+		for(int i:ordinals[rarest]) {
+			if(i-rarest>=0) {
+				candidates[count] = i-rarest;
+				count++;
+			}
+		}
+		for(int i=0;i<ordinals.length&&count>0;i++) {
+			if(i==rarest) {
+				continue;
+			}
+			int[] list = ordinals[i];
+			int position = 0;
+			int kept = 0;
+			for(int j=0;j<count;j++) {
+				int wanted = candidates[j]+i;
+				while(position<list.length&&list[position]<wanted) {
+					position++;
+				}
+				if(position==list.length) {
+					break;
+				}
+				if(list[position]==wanted) {
+					candidates[kept] = candidates[j];
+					kept++;
+				}
+			}
+			count = kept;
+		}
+		int[] found = new int[count];
+		System.arraycopy(candidates, 0, found, 0, count);
+		return found;
+	}
+	/**
+	 * run-time:O(1)
+	 * @return returns the number of numbered words.
+	 */
+	public int getSize() {
+		return size;
+	}
+	/**
+	 * run-time:O(1)
+	 * @return returns the number of numbered lines.
+	 */
+	public int getRows() {
+		return rows;
+	}
+}
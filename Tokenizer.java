@@ -0,0 +1,278 @@
+package MyADTS;
+/**
+ * Splits lines into formatted words in a single pass without building intermediate Strings.
+ * A Tokenizer is reset with a line and then moved from word to word with next(). For every word it
+ * gives the formatted (lower case, symbols removed from the start and end) characters, the column the
+ * word starts at and the number of symbols before it, using the same rules as Trie.formatString and the
+ * column counter in Trie:
+ * - words are separated by spaces, every extra space moves the column on by 1.
+ * - a word with a hyphon followed by more characters is split at its hyphons into separate words.
+ * - a word without any letters is formatted to "".
+ * The buffers are reused between lines so a Tokenizer should only be used by one thread.
+ * memory-usage:O(l) l=length of the longest line.
+ *
+ * @author Riley De Leacy
+ *
+ */
+public class Tokenizer {
+	//the line being split
+	private char[] line;
+	private int lineLength;
+	private int position;
+	private Boolean afterWord;
+	private int columnCounter;
+	//set while moving through the hyphon separated parts of a word
+	private Boolean inParts;
+	private int partsEnd;
+	//the formatted word
+	private char[] word;
+	private int wordLength;
+	private int column;
+	private int leadingSymbols;
+	//the characters of the word on the line
+	private int tokenStart;
+	private int tokenEnd;
+	/**
+	 * Creates a new instance of Tokenizer.
+	 * run-time:O(1)
+	 */
+	public Tokenizer() {
+		line = new char[64];
+		word = new char[32];
+		reset("");
+	}
+	/**
+	 * Starts splitting a new line.
+	 * run-time:O(l) l=length of the line.
+	 *
+	 * @param string the line to be split.
+	 */
+	public void reset(String string) {
+		lineLength = string.length();
+		if(lineLength>line.length) {
+			line = new char[Math.max(lineLength, line.length*2)];
+		}
+		string.getChars(0, lineLength, line, 0);
+		position = 0;
+		afterWord = false;
+		columnCounter = 1;
+		inParts = false;
+		wordLength = 0;
+	}
+	/**
+	 * Moves to the next word on the line.
+	 * run-time:O(w) w=length of the word.
+	 *
+	 * @return true if there was another word, false if the end of the line was reached.
+	 */
+	public boolean next() {
+		while(true) {
+			if(inParts) {
+				//move through the parts of a hyphonated word, parts after the last non hyphon are ignored
+				if(position<=partsEnd) {
+					int end = position;
+					while(end<=partsEnd&&line[end]!='-') {
+						end++;
+					}
+					int start = position;
+					position = end+1;
+					if(start==end) {
+						//empty part e.g. the middle of "a--b"
+						columnCounter++;
+						continue;
+					}
+					emit(start, end);
+					return true;
+				}
+				inParts = false;
+				position = partsEnd+1;
+				//skip the rest of the word (trailing hyphons)
+				while(position<lineLength&&line[position]!=' ') {
+					position++;
+				}
+				afterWord = true;
+				continue;
+			}
+			if(position>=lineLength) {
+				return false;
+			}
+			if(line[position]==' ') {
+				if(afterWord) {
+					//the space separating this word from the last was counted with the last word
+					afterWord = false;
+				}else {
+					columnCounter++;
+				}
+				position++;
+				continue;
+			}
+			int end = position;
+			while(end<lineLength&&line[end]!=' ') {
+				end++;
+			}
+			//find the last character that isn't a hyphon
+			int lastContent = end-1;
+			while(lastContent>=position&&line[lastContent]=='-') {
+				lastContent--;
+			}
+			int hyphon = position;
+			while(hyphon<lastContent&&line[hyphon]!='-') {
+				hyphon++;
+			}
+			if(hyphon<lastContent) {
+				//a hyphon is followed by more characters so the word is split into parts
+				inParts = true;
+				partsEnd = lastContent;
+				continue;
+			}
+			int start = position;
+			position = end;
+			afterWord = true;
+			emit(start, end);
+			return true;
+		}
+	}
+	/**
+	 * Formats the characters of a word into the word buffer and moves the column counter past them.
+	 * run-time:O(w) w=length of the word.
+	 *
+	 * @param start index of the first character.
+	 * @param end index after the last character.
+	 */
+	private void emit(int start, int end) {
+		column = columnCounter;
+		columnCounter += end-start+1;
+		tokenStart = start;
+		tokenEnd = end;
+		int first = start;
+		while(first<end&&!Character.isLetter(line[first])) {
+			first++;
+		}
+		leadingSymbols = first-start;
+		int last = end-1;
+		while(last>=first&&!Character.isLetter(line[last])) {
+			last--;
+		}
+		wordLength = format(line, first, last+1);
+	}
+	/**
+	 * Copies characters into the word buffer in lower case.
+	 * run-time:O(w) w=number of characters.
+	 *
+	 * @return returns the length of the formatted word.
+	 */
+	private int format(char[] chars, int start, int end) {
+		int length = end-start;
+		if(length<=0) {
+			return 0;
+		}
+		if(length>word.length) {
+			word = new char[Math.max(length, word.length*2)];
+		}
+		for(int i=0;i<length;i++) {
+			char c = chars[start+i];
+			if(c>=128) {
+				//String.toLowerCase can change the length of some characters so let it do the work
+				String lower = new String(chars, start, length).toLowerCase();
+				if(lower.length()>word.length) {
+					word = new char[lower.length()];
+				}
+				lower.getChars(0, lower.length(), word, 0);
+				return lower.length();
+			}
+			if(c>='A'&&c<='Z') {
+				c += 'a'-'A';
+			}
+			word[i] = c;
+		}
+		return length;
+	}
+	/**
+	 * The formatted characters of the current word, only the first length() are part of the word.
+	 * run-time:O(1)
+	 *
+	 * @return returns the word buffer (not a copy, it is reused for the next word).
+	 */
+	public char[] buffer() {
+		return word;
+	}
+	/**
+	 * run-time:O(1)
+	 * @return returns the length of the current formatted word (0 if it had no letters).
+	 */
+	public int length() {
+		return wordLength;
+	}
+	/**
+	 * Creates a String of the current formatted word.
+	 * run-time:O(w) w=length of the word.
+	 *
+	 * @return returns the current formatted word.
+	 */
+	public String word() {
+		return new String(word, 0, wordLength);
+	}
+	/**
+	 * Creates a String of the current word as it is on the line (not formatted).
+	 * run-time:O(w) w=length of the word.
+	 *
+	 * @return returns the characters of the current word.
+	 */
+	public String token() {
+		return new String(line, tokenStart, tokenEnd-tokenStart);
+	}
+	/**
+	 * run-time:O(1)
+	 * @return returns the column the current word starts at including its leading symbols.
+	 */
+	public int column() {
+		return column;
+	}
+	/**
+	 * run-time:O(1)
+	 * @return returns the number of symbols before the first letter of the current word.
+	 */
+	public int leadingSymbols() {
+		return leadingSymbols;
+	}
+	/**
+	 * Formats a search the same way as Trie.formatString(search, false) for a single word.
+	 * run-time:O(n) n=characters in the search.
+	 *
+	 * @param search word to be formatted.
+	 * @return returns the formatted word, "" if the search has no letters or null if it is made of
+	 * more than one word (it can't match a stored word).
+	 */
+	public static String normalize(String search) {
+		if(search==null) {
+			return null;
+		}
+		int last = search.length()-1;
+		while(last>=0&&!Character.isLetter(search.charAt(last))) {
+			last--;
+		}
+		if(last<0) {
+			return "";
+		}
+		int first = 0;
+		while(search.charAt(first)==' ') {
+			first++;
+		}
+		for(int i=first;i<last;i++) {
+			if(search.charAt(i)==' ') {
+				return null;
+			}
+		}
+		while(!Character.isLetter(search.charAt(first))) {
+			first++;
+		}
+		String word = search.substring(first, last+1);
+		for(int i=0;i<word.length();i++) {
+			char c = word.charAt(i);
+			if(c>=128||(c>='A'&&c<='Z')) {
+				return word.toLowerCase();
+			}
+		}
+		return word;
+	}
+}
@@ -1,66 +1,152 @@
 package MyADTS;
 
-import java.util.Iterator;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
 /**
  * A Trie that stores locations of word prefixes and complete word locations.
+ * A Trie can be made without storing prefix locations, in which case the prefix locations are merged
+ * from the complete word locations below the prefix when asked for (optionally caching hot prefixes).
+ * Finding words and prefixes only reads the Trie so any number of threads can search it at once
+ * as long as nothing is being added.
  * memory-usage:O(n) Where n is the number of Nodes in the Trie.
  * 
  * @author Riley De leacy
  *
  */
-public class Trie {
-	private int columnCounter;
+public class Trie implements WordIndex<TrieNode> {
 	private TrieNode root;
+	//whether prefix occurrences are stored at every TrieNode
+	private Boolean storePrefixes;
+	//merged prefix occurrences, null if prefixes are stored or no cache was asked for
+	private PrefixCache prefixCache;
+	//set when word locations were added without updating the max frequencies of the TrieNodes above them
+	private volatile boolean frequenciesStale;
+	//length of the longest word added
+	private int maxDepth;
 	/**
 	 * creates a new instance of Trie.
 	 */
 	public Trie() {
+		this(true, 0);
+	}
+	/**
+	 * creates a new instance of Trie.
+	 * 
+	 * @param storePrefixes store prefix occurrences at every TrieNode (true=yes, false=merge them when asked for).
+	 * @param prefixCacheSize number of merged prefixes to cache when prefixes aren't stored (0=no cache).
+	 */
+	public Trie(Boolean storePrefixes, int prefixCacheSize) {
 		//The root can be anything as it's just used as a reference to find its children.
 		root = new TrieNode(',');
-		columnCounter = 1;
+		this.storePrefixes = storePrefixes;
+		if(!storePrefixes&&prefixCacheSize>0) {
+			prefixCache = new PrefixCache(prefixCacheSize);
+		}
 	}
 	/**
 	 * Adds a word to the Trie. A words prefixes and complete word locations can be stored or not. If 
 	 * complete word locations aren't stored they can be added later using addExistingWord.
-	 * run-time:O(dm) m=size of word, d=number of acceptable characters.
+	 * Prefix locations are never stored if the Trie was made without storing prefixes.
+	 * run-time:O(m*log(d)) m=size of word, d=number of acceptable characters.
 	 * 
 	 * @param word The word to be added.
 	 * @param row the row the word occurred on.
+	 * @param column the column the word starts at.
 	 * @param addOcc add prefix and complete word occurrences (true=yes, false=no)
-	 * @param incrementNum total size of the unformatted word+1 for a space.
-	 * @param leadingSymbols number of symbols before the word that were formatted out.
 	 */
-	public void addWord(String word, int row, Boolean addOcc, int incrementNum, int leadingSymbols) {
-		char[] wordArray = word.toCharArray();
-		columnCounter += leadingSymbols;
+	@Override
+	public void addWord(String word, int row, int column, Boolean addOcc) {
+		insert(word.toCharArray(), word.length(), row, column, addOcc);
+	}
+	/**
+	 * Adds a formatted word and its prefix and complete word occurrences at a known column.
+	 * run-time:O(m*log(d)) m=size of word, d=number of acceptable characters.
+	 * 
+	 * @param word buffer holding the formatted word (e.g. Tokenizer.buffer()).
+	 * @param length length of the word in the buffer.
+	 * @param row the row the word occurred on.
+	 * @param column the column the word starts at.
+	 */
+	@Override
+	public void addWord(char[] word, int length, int row, int column) {
+		insert(word, length, row, column, true);
+	}
+	/**
+	 * Adds the characters of a word that aren't in the Trie and optionally its occurrences.
+	 * run-time:O(m*log(d)) m=size of word, d=number of acceptable characters.
+	 * 
+	 * @param wordArray buffer holding the word.
+	 * @param length length of the word in the buffer.
+	 * @param row the row the word occurred on.
+	 * @param column the column the word starts at.
+	 * @param addOcc add prefix and complete word occurrences (true=yes, false=no)
+	 */
+	private void insert(char[] wordArray, int length, int row, int column, Boolean addOcc) {
 		TrieNode current = root;
-		Boolean found = false;
-		for(int i=0;i<wordArray.length;i++) {
-			if(current.getChildren()!=null) {
-				for(TrieNode j:current.getChildren()) {
-					if(wordArray[i]==j.getCharacter()) {
-						current = j;
-						found = true;
-						//A TrieNode with this character already exists so add a prefix occurrence if the addOcc==true
-						if(addOcc) {j.addOccurrence(columnCounter, row);}
-						break;
-					}
-				}
-			}
-			if(!found) {
+		TrieNode next;
+		Boolean addPrefix = addOcc&&storePrefixes;
+		if(addOcc&&prefixCache!=null) {
+			//cached prefixes would miss this word
+			prefixCache.clear();
+		}
+		if(length>maxDepth) {
+			maxDepth = length;
+		}
+		for(int i=0;i<length;i++) {
+			next = current.child(wordArray[i]);
+			if(next==null) {
 				//The character was not found so a new Node will be made
-				TrieNode temp = new TrieNode(wordArray[i]);
-				current.addChild(temp);
-				current = temp;
-				if(addOcc) {current.addOccurrence(columnCounter, row);}
+				next = new TrieNode(wordArray[i]);
+				current.addChild(next);
 			}
-			found=false;
-			if(i==wordArray.length-1&&addOcc) {
+			current = next;
+			//add a prefix occurrence if the addOcc==true
+			if(addPrefix) {current.addOccurrence(column, row);}
+			if(i==length-1&&addOcc) {
 				//This is the last character in the word so add a complete word occurrence
-				current.addFullWord(columnCounter, row);
+				current.addFullWord(column, row);
+				//the TrieNodes above are at least as high as the word's so only walk them if it is raised
+				if(current.getMaxFrequency()<current.getWordCount()) {
+					raiseMaxFrequency(wordArray, length, current.getWordCount());
+				}
+			}
+		}
+	}
+	/**
+	 * Raises the max frequency of the TrieNodes on the path of a word, walking down from the root.
+	 * run-time:O(m*log(d)) m=size of word, d=number of acceptable characters.
+	 * 
+	 * @param wordArray buffer holding the word (it must be in the Trie).
+	 * @param length length of the word in the buffer.
+	 * @param frequency word count of the word.
+	 */
+	private void raiseMaxFrequency(char[] wordArray, int length, int frequency) {
+		TrieNode current = root;
+		for(int i=0;i<=length;i++) {
+			if(current.getMaxFrequency()<frequency) {
+				current.setMaxFrequency(frequency);
+			}
+			if(i<length) {
+				current = current.child(wordArray[i]);
 			}
 		}
-		columnCounter+=incrementNum;
+	}
+	/**
+	 * Works out the max frequency of a TrieNode and every TrieNode below it.
+	 * run-time:O(n) n=number of TrieNodes below the input.
+	 * 
+	 * @param node TrieNode to start at.
+	 * @return returns the max frequency of the TrieNode.
+	 */
+	private static int annotate(TrieNode node) {
+		int frequency = node.getWordCount();
+		for(int i=0;i<node.getChildCount();i++) {
+			frequency = Math.max(frequency, annotate(node.getChild(i)));
+		}
+		node.setMaxFrequency(frequency);
+		return frequency;
 	}
 	/**
 	 * Adds a complete word occurrence to the input TrieNode
@@ -70,17 +156,16 @@ public class Trie {
 	 * @param row The row the word occurred on.
 	 * @param column The column the word started at.
 	 */
+	@Override
 	public void addExistingWord(TrieNode word, int row, int column) {
 		word.addFullWord(column, row);
-	}
-	/**
-	 * Adds an input amount to the columnCounter.
-	 * run-time:O(1)
-	 * 
-	 * @param amount amount to be added.
-	 */
-	public void incrementColumnCounter(int amount) {
-		columnCounter += amount;
+		//the TrieNodes above the word aren't known, they are updated when next asked for
+		if(!frequenciesStale) {
+			frequenciesStale = true;
+		}
+		if(prefixCache!=null) {
+			prefixCache.clear();
+		}
 	}
 	/**
 	 * Removes additional spaces from string (e.g. "  something   else" -> "something else")
@@ -190,71 +275,462 @@ public class Trie {
 	}
 	/**
 	 * Finds a word in the Trie.
-	 * run-time:O(dm) m=size of word, d=number of acceptable characters.
+	 * run-time:O(m*log(d)) m=size of word, d=number of acceptable characters.
 	 * 
 	 * @param search word to be searched for.
 	 * @return returns The TrieNode the word finishes at or null if the word was not found.
 	 */
+	@Override
 	public TrieNode find(String search) {
-		char[] wordArray = formatString(search,false).toCharArray();
+		return walk(Tokenizer.normalize(search));
+	}
+	/**
+	 * Finds an already formatted word without creating a String.
+	 * run-time:O(m*log(d)) m=size of word, d=number of acceptable characters.
+	 * 
+	 * @param word buffer holding the formatted word.
+	 * @param length length of the word in the buffer.
+	 * @return returns The TrieNode the word finishes at or null if the word was not found.
+	 */
+	@Override
+	public TrieNode find(char[] word, int length) {
 		TrieNode current = root;
-		Boolean found = false;
-		for(int i=0;i<wordArray.length;i++) {
-			if(current.getChildren()!=null) {
-				for(TrieNode j:current.getChildren()) {
-					if(wordArray[i]==j.getCharacter()) {
-						current = j;
-						found=true;
-						break;
-					}
-				}
-				if(!found) {
-					return null;
-				}
-				found=false;
-			}else {
-				return null;
-			}
+		for(int i=0;i<length&&current!=null;i++) {
+			current = current.child(word[i]);
+		}
+		return current;
+	}
+	/**
+	 * Follows the characters of an already formatted word down from the root.
+	 * run-time:O(m) m=size of word (O(log(d)) per character for narrow nodes).
+	 * 
+	 * @param word formatted word to follow (null if it can't match).
+	 * @return returns the TrieNode the word finishes at or null if the path doesn't exist.
+	 */
+	private TrieNode walk(String word) {
+		if(word==null) {
+			return null;
+		}
+		TrieNode current = root;
+		for(int i=0;i<word.length()&&current!=null;i++) {
+			current = current.child(word.charAt(i));
 		}
 		return current;
 	}
 	/**
 	 * finds an input word.
-	 * run-time:O(dm) m=size of word, d=number of acceptable characters.
+	 * run-time:O(m*log(d)) m=size of word, d=number of acceptable characters.
 	 * 
 	 * @param search word to be searched for.
 	 * @return returns a LinkedList of Values containing the locations of all words matching the input.
 	 */
+	@Override
 	public LinkedList<Values> findWord(String search) {
-		char[] wordArray = formatString(search,false).toCharArray();
-		TrieNode current = root;
-		Boolean found = false;
-		for(int i=0;i<wordArray.length;i++) {
-			if(current.getChildren()!=null) {
-				for(TrieNode j:current.getChildren()) {
-					if(wordArray[i]==j.getCharacter()) {
-						current = j;
-						found=true;
-						break;
+		TrieNode current = walk(Tokenizer.normalize(search));
+		if(current==null) {
+			return null;
+		}
+		return current.getWordView().toList();
+	}
+	/**
+	 * finds the word locations of an input word without copying them.
+	 * run-time:O(m*log(d)) m=size of word, d=number of acceptable characters.
+	 * 
+	 * @param search word to be searched for.
+	 * @return returns a read-only view of the word locations or null if the word was not found.
+	 */
+	@Override
+	public OccurrenceView findView(String search) {
+		TrieNode current = walk(Tokenizer.normalize(search));
+		if(current==null) {
+			return null;
+		}
+		return current.getWordView();
+	}
+	/**
+	 * finds the prefix locations of an input prefix without copying them. If prefixes aren't stored the
+	 * word locations below the prefix are merged in row and column order (or taken from the cache).
+	 * run-time:O(m*log(d)) m=size of prefix, d=number of acceptable characters if prefixes are stored
+	 * O(m*log(d)+s+o*log(w)) s=TrieNodes below the prefix, o=occurrences, w=distinct words below the prefix otherwise.
+	 * 
+	 * @param prefix prefix to be searched for.
+	 * @return returns a read-only view of the prefix locations or null if the prefix was not found.
+	 */
+	@Override
+	public OccurrenceView prefixView(String prefix) {
+		String formatted = Tokenizer.normalize(prefix);
+		TrieNode current = walk(formatted);
+		if(current==null) {
+			return null;
+		}
+		return prefixView(current, formatted);
+	}
+	/**
+	 * run-time:O(1)
+	 * @return returns the root TrieNode.
+	 */
+	@Override
+	public TrieNode getRoot() {
+		return root;
+	}
+	/**
+	 * run-time:O(1)
+	 * @return returns the number of children of the TrieNode.
+	 */
+	@Override
+	public int getChildCount(TrieNode node) {
+		return node.getChildCount();
+	}
+	/**
+	 * run-time:O(1)
+	 * @return returns the child of the TrieNode at the index (in character order).
+	 */
+	@Override
+	public TrieNode getChild(TrieNode node, int index) {
+		return node.getChild(index);
+	}
+	/**
+	 * run-time:O(1)
+	 * @return returns 1, or 0 for the root.
+	 */
+	@Override
+	public int getLabelLength(TrieNode node) {
+		return node==root?0:1;
+	}
+	/**
+	 * run-time:O(1)
+	 * @return returns the character of the TrieNode.
+	 */
+	@Override
+	public char getLabelChar(TrieNode node, int index) {
+		return node.getChar();
+	}
+	/**
+	 * run-time:O(1)
+	 * @return returns a read-only view of the word locations of the TrieNode.
+	 */
+	@Override
+	public OccurrenceView getWordView(TrieNode node) {
+		return node.getWordView();
+	}
+	/**
+	 * run-time:O(1)
+	 * @return returns the number of word locations stored at the TrieNode.
+	 */
+	@Override
+	public int getWordCount(TrieNode node) {
+		return node.getWordCount();
+	}
+	/**
+	 * run-time:O(1)
+	 * @return returns the number of prefix locations stored at the TrieNode.
+	 */
+	@Override
+	public int getPrefixCount(TrieNode node) {
+		return node.getPrefixCount();
+	}
+	/**
+	 * run-time:O(1)
+	 * @return returns the estimated bytes of the TrieNode and its child table.
+	 */
+	@Override
+	public long getNodeBytes(TrieNode node) {
+		return node.nodeBytes();
+	}
+	/**
+	 * run-time:O(1)
+	 * @return returns the estimated bytes of the PostingLists of the TrieNode.
+	 */
+	@Override
+	public long getPostingBytes(TrieNode node) {
+		return node.postingBytes();
+	}
+	/**
+	 * run-time:O(1), O(n) n=number of TrieNodes if words were added with addExistingWord since the last call.
+	 * @return returns the most times any word at or below the TrieNode occurs.
+	 */
+	@Override
+	public int getMaxFrequency(TrieNode node) {
+		if(frequenciesStale) {
+			synchronized(this) {
+				if(frequenciesStale) {
+					annotate(root);
+					frequenciesStale = false;
+				}
+			}
+		}
+		return node.getMaxFrequency();
+	}
+	/**
+	 * run-time:O(1)
+	 * @return returns the length of the longest word added.
+	 */
+	@Override
+	public int getMaxDepth() {
+		return maxDepth;
+	}
+	/**
+	 * Gets the prefix locations of a TrieNode, merging the word locations below it if prefixes aren't stored.
+	 * run-time:O(1) if prefixes are stored, O(s+o*log(w)) otherwise (see prefixView).
+	 * 
+	 * @param current TrieNode of the prefix.
+	 * @param formatted the formatted prefix (the prefix cache key).
+	 * @return returns a read-only view of the prefix locations.
+	 */
+	private OccurrenceView prefixView(TrieNode current, String formatted) {
+		if(storePrefixes) {
+			return current.getPrefixView();
+		}
+		if(current==root) {
+			//the root never has prefix occurrences
+			return PostingList.EMPTY_VIEW;
+		}
+		OccurrenceView merged;
+		if(prefixCache!=null) {
+			merged = prefixCache.get(formatted);
+			if(merged!=null) {
+				return merged;
+			}
+		}
+		merged = mergeWords(current);
+		if(prefixCache!=null) {
+			prefixCache.put(formatted, merged);
+		}
+		return merged;
+	}
+	/**
+	 * finds the word or prefix locations of many formatted words at once. The TrieNodes on the path of
+	 * the previous word are kept so a word only walks down from where it stops sharing a prefix with it.
+	 * run-time:O(c*log(d)) c=characters not shared with the previous word, d=number of acceptable characters
+	 * (plus merging the words below each prefix if prefixes aren't stored).
+	 * 
+	 * @param words formatted words in ascending order (null words are never found).
+	 * @param prefixes find prefix locations (true) or word locations (false).
+	 * @return returns the locations of every word in the input order, null where a word was not found.
+	 */
+	@Override
+	public OccurrenceView[] findViews(String[] words, Boolean prefixes) {
+		OccurrenceView[] views = new OccurrenceView[words.length];
+		//path[i] is the TrieNode of the first i characters of the previous word, for i<=depth
+		TrieNode[] path = new TrieNode[16];
+		path[0] = root;
+		int depth = 0;
+		String previous = "";
+		for(int i=0;i<words.length;i++) {
+			String word = words[i];
+			if(word==null) {
+				continue;
+			}
+			int shared = 0;
+			int limit = Math.min(depth, word.length());
+			while(shared<limit&&previous.charAt(shared)==word.charAt(shared)) {
+				shared++;
+			}
+			depth = shared;
+			previous = word;
+			TrieNode current = path[depth];
+			while(depth<word.length()&&current!=null) {
+				current = current.child(word.charAt(depth));
+				if(current!=null) {
+					depth++;
+					if(depth==path.length) {
+						TrieNode[] newPath = new TrieNode[path.length*2];
+						System.arraycopy(path, 0, newPath, 0, depth);
+						path = newPath;
+					}
+					path[depth] = current;
+				}
+			}
+			if(current!=null) {
+				views[i] = prefixes?prefixView(current, word):current.getWordView();
+			}
+		}
+		return views;
+	}
+	/**
+	 * Merges the word locations of a TrieNode and all its descendants in row then column order.
+	 * run-time:O(s+o*log(w)) s=TrieNodes below the input, o=occurrences, w=TrieNodes with word locations.
+	 * 
+	 * @param start TrieNode to start at.
+	 * @return returns a view of every word location below the TrieNode.
+	 */
+	private OccurrenceView mergeWords(TrieNode start) {
+		//gather every word view below start
+		OccurrenceView[] found = new OccurrenceView[8];
+		int foundCount = 0;
+		int total = 0;
+		TrieNode[] stack = new TrieNode[16];
+		int stackSize = 0;
+		stack[stackSize++] = start;
+		while(stackSize>0) {
+			TrieNode node = stack[--stackSize];
+			if(node.getWordCount()>0) {
+				if(foundCount==found.length) {
+					OccurrenceView[] newFound = new OccurrenceView[found.length*2];
+					System.arraycopy(found, 0, newFound, 0, foundCount);
+					found = newFound;
+				}
+				found[foundCount++] = node.getWordView();
+				total += node.getWordCount();
+			}
+			for(int i=0;i<node.getChildCount();i++) {
+				if(stackSize==stack.length) {
+					TrieNode[] newStack = new TrieNode[stack.length*2];
+					System.arraycopy(stack, 0, newStack, 0, stackSize);
+					stack = newStack;
+				}
+				stack[stackSize++] = node.getChild(i);
+			}
+		}
+		return PostingList.merge(found, foundCount, total);
+	}
+	/**
+	 * Creates an immutable copy of the Trie stored in contiguous arrays, see FrozenTrie.
+	 * run-time:O(n+o) n=number of TrieNodes, o=number of stored locations.
+	 * 
+	 * @return returns a FrozenTrie answering the same queries as this Trie.
+	 */
+	public FrozenTrie freeze() {
+		int cacheSize = 0;
+		if(prefixCache!=null) {
+			cacheSize = prefixCache.getCapacity();
+		}
+		return FrozenTrie.freeze(root, storePrefixes, cacheSize);
+	}
+	/**
+	 * Creates a Trie with the same words as this one but none of its locations.
+	 * run-time:O(n) n=number of TrieNodes.
+	 * 
+	 * @return returns a new Trie storing the same words.
+	 */
+	public Trie copyWords() {
+		Trie copy = new Trie(storePrefixes, 0);
+		copyWords(root, copy.root);
+		return copy;
+	}
+	/**
+	 * Makes a hash set of the words and prefixes in this Trie (used for stop words, see StopWordSet).
+	 * run-time:O(n*l) n=number of TrieNodes, l=length of the longest word.
+	 * 
+	 * @return returns a StopWordSet adding occurrences to this Trie.
+	 */
+	public StopWordSet stopWordSet() {
+		return new StopWordSet(this, root, countNodes(root));
+	}
+	/**
+	 * run-time:O(n) n=number of TrieNodes below the input.
+	 * @return returns the number of TrieNodes from the input down (including the input).
+	 */
+	private static int countNodes(TrieNode node) {
+		int count = 1;
+		for(int i=0;i<node.getChildCount();i++) {
+			count += countNodes(node.getChild(i));
+		}
+		return count;
+	}
+	/**
+	 * Copies the children of a TrieNode (and their children) without their locations.
+	 * run-time:O(n) n=number of TrieNodes below the input.
+	 */
+	private static void copyWords(TrieNode from, TrieNode to) {
+		for(int i=0;i<from.getChildCount();i++) {
+			TrieNode child = new TrieNode(from.getChild(i).getChar());
+			to.addChild(child);
+			copyWords(from.getChild(i), child);
+		}
+	}
+	/**
+	 * Adds the words and locations of other Tries to this Trie. The Tries are added in order so every
+	 * location of parts[i] must come after the locations of parts[i-1] (and of this Trie), e.g. each part
+	 * holds the next range of lines. The parts are taken apart to build this Trie so they must not be used
+	 * afterwards. Each child of the root is merged as a separate task on the input pool.
+	 * run-time:O(n+o) n=number of TrieNodes in the parts, o=number of locations added to existing
+	 * TrieNodes (subtrees only found in one part are moved across without copying).
+	 * 
+	 * @param parts Tries to be added, in location order.
+	 * @param pool pool to merge the children of the root on, or null to merge on this thread.
+	 */
+	public void merge(Trie[] parts, ExecutorService pool) {
+		//the root and its children are set up on this thread so the tasks only change their own subtrees
+		for(Trie i:parts) {
+			root.absorb(i.root);
+			for(int j=0;j<i.root.getChildCount();j++) {
+				char c = i.root.getChild(j).getChar();
+				if(root.child(c)==null) {
+					root.addChild(new TrieNode(c));
+				}
+			}
+		}
+		Future<?>[] tasks = new Future<?>[root.getChildCount()];
+		for(int i=0;i<root.getChildCount();i++) {
+			final TrieNode target = root.getChild(i);
+			Runnable task = () -> {
+				for(Trie j:parts) {
+					TrieNode source = j.root.child(target.getChar());
+					if(source!=null) {
+						mergeNode(target, source);
 					}
 				}
-				if(!found) {
-					return null;
+			};
+			if(pool==null) {
+				task.run();
+			}else {
+				tasks[i] = pool.submit(task);
+			}
+		}
+		try {
+			for(Future<?> i:tasks) {
+				if(i!=null) {
+					i.get();
 				}
-				found=false;
+			}
+		}catch(InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while merging Tries", e);
+		}catch(ExecutionException e) {
+			throw new IllegalStateException("Merging Tries failed", e.getCause());
+		}
+		annotate(root);
+		if(prefixCache!=null) {
+			prefixCache.clear();
+		}
+	}
+	/**
+	 * Adds the locations of a TrieNode and its children to another TrieNode with the same character.
+	 * Children only the source has are moved across rather than copied.
+	 * run-time:O(n+o) n=number of TrieNodes below the source, o=number of locations copied.
+	 */
+	private static void mergeNode(TrieNode target, TrieNode source) {
+		target.absorb(source);
+		for(int i=0;i<source.getChildCount();i++) {
+			TrieNode sourceChild = source.getChild(i);
+			TrieNode targetChild = target.child(sourceChild.getChar());
+			if(targetChild==null) {
+				target.addChild(sourceChild);
 			}else {
-				return null;
+				mergeNode(targetChild, sourceChild);
 			}
 		}
-		//make a deep copy so the Trie isn't changed
-		LinkedList<Values> deepCopy = new LinkedList<Values>();
-		Iterator<Node<Values>> deepItr = current.getCompleteWords().iterator();
-		Node<Values> iteratorNode;
-		while(deepItr.hasNext()) {
-			iteratorNode = deepItr.next();
-			deepCopy.add(new Values(iteratorNode.element.getColumn(),iteratorNode.element.getRow()));
+	}
+	/**
+	 * Compresses the PostingLists of every TrieNode in the Trie.
+	 * run-time:O(n) n=number of stored locations.
+	 */
+	@Override
+	public void compressPostings() {
+		compressPostings(root);
+	}
+	/**
+	 * Compresses the PostingLists of a TrieNode and all of its descendants.
+	 * run-time:O(n) n=number of stored locations below the TrieNode.
+	 * 
+	 * @param node TrieNode to start at.
+	 */
+	private void compressPostings(TrieNode node) {
+		node.compressPostings();
+		for(int i=0;i<node.getChildCount();i++) {
+			compressPostings(node.getChild(i));
 		}
-		return deepCopy;
 	}
 	/**
 	 * returns the number of symbols before a word.
@@ -278,22 +754,6 @@ public class Trie {
 		}
 		return counter;
 	}
-	/**
-	 * resets the columnCounter in the Trie.
-	 * run-time:O(1)
-	 */
-	public void resetColumnCounter() {
-		columnCounter = 1;
-	}
-	/**
-	 * gets the columnCounter in the Trie.
-	 * run-time:O(1)
-	 * 
-	 * @return returns the columnCounter.
-	 */
-	public int getColumnCounter() {
-		return columnCounter;
-	}
 	/**
 	 * counts the number of spaces in a string.
 	 * run-time:O(n) n= number of characters in the input string.
@@ -1,18 +1,34 @@
 package MyADTS;
 /**
- * Node within a Trie. Stores a character, reference to a LinkedList of children TrieNodes,
- * a LinkedList of prefix locations and a LinkedList of word locations.
+ * Node within a Trie. Stores a character, an adaptive table of children TrieNodes,
+ * a PostingList of prefix locations and a PostingList of word locations. The PostingLists are only
+ * created once the first location is added.
  * 
- * memory usage:O(n+m+y) - n=size of children list, m=size of prefix list, y=size of word list
+ * Children are kept in a small sorted array that grows as children are added (4, 16, 48...).
+ * Once a node has more than WIDE_THRESHOLD children a direct table indexed by character is
+ * also kept for characters below WIDE_RANGE so lookups become a single array access.
+ * 
+ * memory usage:O(n+m+y) - n=number of children, m=size of prefix list, y=size of word list
  * 
  * @author Riley De Leacy
  *
  */
 public class TrieNode {
+	//number of children before the direct table is built
+	private static final int WIDE_THRESHOLD = 16;
+	//characters covered by the direct table
+	private static final int WIDE_RANGE = 256;
 	private char character;
-	private LinkedList<TrieNode> children;
-	private LinkedList<Values> values;
-	private LinkedList<Values> completeWords;
+	//sorted child characters and their matching TrieNodes, only the first childCount are used
+	private char[] keys;
+	private TrieNode[] children;
+	private int childCount;
+	//direct table of children for characters below WIDE_RANGE, null until the node gets wide
+	private TrieNode[] wide;
+	private PostingList values;
+	private PostingList completeWords;
+	//most word locations of any word at or below this node
+	private int maxFrequency;
 	/**
 	 * Creates a new instance of TrieNode with the input character.
 	 * run-time: O(1)
@@ -20,9 +36,7 @@ public class TrieNode {
 	 */
 	public TrieNode(Character character) {
 		this.character = character;
-		children = new LinkedList<TrieNode>();
-		values = new LinkedList<Values>();
-		completeWords = new LinkedList<Values>();
+		childCount = 0;
 	}
 	/**
 	 * returns the stored character.
@@ -33,44 +47,274 @@ public class TrieNode {
 		return new Character(character);
 	}
 	/**
-	 * Returns the locations of stored prefixes.
+	 * returns the stored character without boxing it.
 	 * run-time: O(1)
+	 * @return returns the stored character.
+	 */
+	public char getChar() {
+		return character;
+	}
+	/**
+	 * Returns the locations of stored prefixes.
+	 * run-time: O(n) n=number of prefix locations.
 	 * @return returns a LinkList of prefix locations.
 	 */
 	public LinkedList<Values> getValues(){
-		return values.deepCopy();
+		return getPrefixView().toList();
 	}
 	/**
 	 * Returns the locations of stored words.
-	 * run-time: O(1)
+	 * run-time: O(n) n=number of word locations.
 	 * @return returns a LinkList of word locations.
 	 */
 	public LinkedList<Values> getCompleteWords(){
-		return completeWords.deepCopy();
+		return getWordView().toList();
+	}
+	/**
+	 * Returns a read-only view of the stored prefix locations without copying them.
+	 * run-time: O(1)
+	 * @return returns an OccurrenceView of prefix locations.
+	 */
+	public OccurrenceView getPrefixView(){
+		if(values==null) {
+			return PostingList.EMPTY_VIEW;
+		}
+		return values.view();
+	}
+	/**
+	 * Returns a read-only view of the stored word locations without copying them.
+	 * run-time: O(1)
+	 * @return returns an OccurrenceView of word locations.
+	 */
+	public OccurrenceView getWordView(){
+		if(completeWords==null) {
+			return PostingList.EMPTY_VIEW;
+		}
+		return completeWords.view();
+	}
+	/**
+	 * returns the most times any word at or below this TrieNode occurs (kept up to date by the Trie).
+	 * run-time: O(1)
+	 * @return returns the highest word count in the subtree.
+	 */
+	public int getMaxFrequency() {
+		return maxFrequency;
 	}
 	/**
-	 * Add a child to this TrieNode.
+	 * sets the most times any word at or below this TrieNode occurs.
 	 * run-time: O(1)
+	 * @param maxFrequency highest word count in the subtree.
+	 */
+	void setMaxFrequency(int maxFrequency) {
+		this.maxFrequency = maxFrequency;
+	}
+	/**
+	 * Returns the number of stored prefix locations.
+	 * run-time: O(1)
+	 * @return returns the number of times a prefix finishing at this TrieNode occurs (0 if not stored).
+	 */
+	public int getPrefixCount() {
+		if(values==null) {
+			return 0;
+		}
+		return values.getSize();
+	}
+	/**
+	 * Estimates the heap used by this TrieNode and its child table (see IndexFootprint).
+	 * run-time: O(1)
+	 * @return returns the estimated bytes, not counting the PostingLists.
+	 */
+	long nodeBytes() {
+		//character, 5 references, childCount and maxFrequency
+		long bytes = IndexFootprint.objectBytes(2+5*IndexFootprint.REFERENCE+2*4);
+		if(keys!=null) {
+			bytes += IndexFootprint.arrayBytes(keys.length, 2)+IndexFootprint.arrayBytes(children.length, IndexFootprint.REFERENCE);
+		}
+		if(wide!=null) {
+			bytes += IndexFootprint.arrayBytes(wide.length, IndexFootprint.REFERENCE);
+		}
+		return bytes;
+	}
+	/**
+	 * Estimates the heap used by the prefix and word locations of this TrieNode (see IndexFootprint).
+	 * run-time: O(1)
+	 * @return returns the estimated bytes of the PostingLists.
+	 */
+	long postingBytes() {
+		return (values==null?0:values.heapBytes())+(completeWords==null?0:completeWords.heapBytes());
+	}
+	/**
+	 * Returns the number of stored word locations.
+	 * run-time: O(1)
+	 * @return returns the number of times a word finishing at this TrieNode occurs.
+	 */
+	public int getWordCount(){
+		if(completeWords==null) {
+			return 0;
+		}
+		return completeWords.getSize();
+	}
+	/**
+	 * Adds the prefix and word locations of another TrieNode after the locations of this TrieNode. If this
+	 * TrieNode has no locations of a kind the other TrieNode's PostingList is taken instead of copied, so
+	 * the other TrieNode must not be used afterwards.
+	 * run-time: O(m+y) m=size of the other prefix list, y=size of the other word list (O(1) if taken).
+	 * @param other TrieNode whose locations come after the locations of this TrieNode.
+	 */
+	void absorb(TrieNode other) {
+		if(other.values!=null) {
+			if(values==null) {
+				values = other.values;
+			}else {
+				values.addAll(other.values.view());
+			}
+		}
+		if(other.completeWords!=null) {
+			if(completeWords==null) {
+				completeWords = other.completeWords;
+			}else {
+				completeWords.addAll(other.completeWords.view());
+			}
+		}
+	}
+	/**
+	 * Compresses the prefix and word PostingLists of this TrieNode.
+	 * run-time: O(m+y) m=size of prefix list, y=size of word list
+	 */
+	public void compressPostings() {
+		if(values!=null) {
+			values.compress();
+		}
+		if(completeWords!=null) {
+			completeWords.compress();
+		}
+	}
+	/**
+	 * Add a child to this TrieNode. The child replaces any existing child with the same character.
+	 * run-time: O(n) n=number of children stored in that TrieNode.
 	 * @param newChar The new character to be stored in this child.
 	 */
 	public void addChild(TrieNode newChar) {
-		children.add(newChar);
+		char c = newChar.character;
+		int position = search(c);
+		if(position>=0) {
+			children[position] = newChar;
+		}else {
+			position = -(position+1);
+			if(keys==null) {
+				keys = new char[4];
+				children = new TrieNode[4];
+			}else if(childCount==keys.length) {
+				grow();
+			}
+			//shift larger characters along to keep the arrays sorted
+			System.arraycopy(keys, position, keys, position+1, childCount-position);
+			System.arraycopy(children, position, children, position+1, childCount-position);
+			keys[position] = c;
+			children[position] = newChar;
+			childCount++;
+		}
+		if(wide!=null) {
+			if(c<WIDE_RANGE) {
+				wide[c] = newChar;
+			}
+		}else if(childCount>WIDE_THRESHOLD) {
+			wide = new TrieNode[WIDE_RANGE];
+			for(int i=0;i<childCount;i++) {
+				if(keys[i]<WIDE_RANGE) {
+					wide[keys[i]] = children[i];
+				}
+			}
+		}
+	}
+	/**
+	 * Grows the sorted child arrays (4 -> 16 -> 48 -> double).
+	 * run-time: O(n) n=number of children stored in that TrieNode.
+	 */
+	private void grow() {
+		int newSize;
+		if(keys.length<16) {
+			newSize = 16;
+		}else if(keys.length<48) {
+			newSize = 48;
+		}else {
+			newSize = keys.length*2;
+		}
+		char[] newKeys = new char[newSize];
+		TrieNode[] newChildren = new TrieNode[newSize];
+		System.arraycopy(keys, 0, newKeys, 0, childCount);
+		System.arraycopy(children, 0, newChildren, 0, childCount);
+		keys = newKeys;
+		children = newChildren;
+	}
+	/**
+	 * Binary searches the sorted child characters.
+	 * run-time: O(log(n)) n=number of children stored in that TrieNode.
+	 * @param c character to be searched for.
+	 * @return returns the index of the character or -(insertion point+1) if it isn't a child.
+	 */
+	private int search(char c) {
+		int low = 0;
+		int high = childCount-1;
+		while(low<=high) {
+			int mid = (low+high)>>>1;
+			if(keys[mid]<c) {
+				low = mid+1;
+			}else if(keys[mid]>c) {
+				high = mid-1;
+			}else {
+				return mid;
+			}
+		}
+		return -(low+1);
+	}
+	/**
+	 * Finds the child storing the input character without allocating.
+	 * run-time: O(1) for wide nodes, O(log(n)) otherwise n=number of children stored in that TrieNode.
+	 * @param c character to be searched for.
+	 * @return returns the child storing the character or null if there isn't one.
+	 */
+	public TrieNode child(char c) {
+		if(wide!=null&&c<WIDE_RANGE) {
+			return wide[c];
+		}
+		if(childCount==0) {
+			return null;
+		}
+		int position = search(c);
+		if(position<0) {
+			return null;
+		}
+		return children[position];
+	}
+	/**
+	 * returns the number of children of this TrieNode.
+	 * run-time: O(1)
+	 * @return returns the number of children.
+	 */
+	public int getChildCount() {
+		return childCount;
+	}
+	/**
+	 * returns a child by position, children are ordered by character.
+	 * run-time: O(1)
+	 * @param index position of the child (0 to getChildCount()-1).
+	 * @return returns the child at the input position.
+	 */
+	public TrieNode getChild(int index) {
+		return children[index];
 	}
 	/**
 	 * returns all children of a TrieNode.
 	 * run-time: O(n) n=number of children stored in that TrieNode.
-	 * @return returns an array of all children to this TrieNode.
+	 * @return returns an array of all children to this TrieNode ordered by character or null if there are none.
 	 */
 	public TrieNode[] getChildren() {
-		if(children.getSize()==0) {
+		if(childCount==0) {
 			return null;
 		}
-		TrieNode[] trieNodeArray = new TrieNode[children.getSize()];
-		Node<TrieNode> current = children.getFront();
-		for(int i=0;i<children.getSize();i++) {
-			trieNodeArray[i] = current.element;
-			current = current.next;
-		}
+		TrieNode[] trieNodeArray = new TrieNode[childCount];
+		System.arraycopy(children, 0, trieNodeArray, 0, childCount);
 		return trieNodeArray;
 	}
 	/**
@@ -81,7 +325,10 @@ public class TrieNode {
 	 * @param row Row the occurrence is on.
 	 */
 	public void addOccurrence(int column, int row) {
-		values.add(new Values(column, row));
+		if(values==null) {
+			values = new PostingList();
+		}
+		values.add(column, row);
 	}
 	/**
 	 * Adds a word Occurrence to this TrieNode.
@@ -91,7 +338,10 @@ public class TrieNode {
 	 * @param row Row the occurrence is on.
 	 */
 	public void addFullWord(int column, int row) {
-		completeWords.add(new Values(column, row));
+		if(completeWords==null) {
+			completeWords = new PostingList();
+		}
+		completeWords.add(column, row);
 	}
 	/**
 	 * String representation of a TrieNode.
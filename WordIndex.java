@@ -0,0 +1,152 @@
+package MyADTS;
+/**
+ * The operations a Builder uses to store and search words. Implemented by Trie (one TrieNode per
+ * character), RadixTrie (single child chains merged into edge labels) and FrozenTrie.
+ * The nodes can also be walked from the root (getRoot, getChild, getLabelChar) so searches over the
+ * whole vocabulary (see TermSearch) work with every implementation.
+ * 
+ * @author Riley De Leacy
+ *
+ * @param <N> The node type returned by find and accepted by addExistingWord.
+ */
+public interface WordIndex<N> {
+	/**
+	 * Adds a word. A words prefixes and complete word locations can be stored or not. If complete word
+	 * locations aren't stored they can be added later using addExistingWord.
+	 * 
+	 * @param word The word to be added.
+	 * @param row the row the word occurred on.
+	 * @param column the column the word starts at.
+	 * @param addOcc add prefix and complete word occurrences (true=yes, false=no)
+	 */
+	public void addWord(String word, int row, int column, Boolean addOcc);
+	/**
+	 * Adds a formatted word and its prefix and complete word occurrences at a known column.
+	 * 
+	 * @param word buffer holding the formatted word (e.g. Tokenizer.buffer()).
+	 * @param length length of the word in the buffer.
+	 * @param row the row the word occurred on.
+	 * @param column the column the word starts at.
+	 */
+	public void addWord(char[] word, int length, int row, int column);
+	/**
+	 * Adds a complete word occurrence to a node returned by find.
+	 * 
+	 * @param word The node of the word to be added.
+	 * @param row The row the word occurred on.
+	 * @param column The column the word started at.
+	 */
+	public void addExistingWord(N word, int row, int column);
+	/**
+	 * Finds a word or prefix.
+	 * 
+	 * @param search word to be searched for.
+	 * @return returns the node the word finishes at or null if the word was not found.
+	 */
+	public N find(String search);
+	/**
+	 * Finds an already formatted word or prefix without creating a String.
+	 * 
+	 * @param word buffer holding the formatted word (e.g. Tokenizer.buffer()).
+	 * @param length length of the word in the buffer.
+	 * @return returns the node the word finishes at or null if the word was not found.
+	 */
+	public N find(char[] word, int length);
+	/**
+	 * finds an input word.
+	 * 
+	 * @param search word to be searched for.
+	 * @return returns a LinkedList of Values containing the locations of all words matching the input
+	 * or null if the word was not found.
+	 */
+	public LinkedList<Values> findWord(String search);
+	/**
+	 * finds the word locations of an input word without copying them.
+	 * 
+	 * @param search word to be searched for.
+	 * @return returns a read-only view of the word locations or null if the word was not found.
+	 */
+	public OccurrenceView findView(String search);
+	/**
+	 * finds the prefix locations of an input prefix without copying them.
+	 * 
+	 * @param prefix prefix to be searched for.
+	 * @return returns a read-only view of the prefix locations or null if the prefix was not found.
+	 */
+	public OccurrenceView prefixView(String prefix);
+	/**
+	 * finds the word or prefix locations of many formatted words at once. The words are expected in
+	 * ascending order so words sharing a prefix are next to each other and the shared part of their
+	 * path only has to be followed once.
+	 * 
+	 * @param words formatted words in ascending order (null words are never found).
+	 * @param prefixes find prefix locations (true) or word locations (false).
+	 * @return returns the locations of every word in the input order, null where a word was not found.
+	 */
+	public OccurrenceView[] findViews(String[] words, Boolean prefixes);
+	/**
+	 * Gets the node of the empty word, the index can be walked from it with getChild.
+	 * 
+	 * @return returns the root node.
+	 */
+	public N getRoot();
+	/**
+	 * @param node node of the index.
+	 * @return returns the number of children of the node.
+	 */
+	public int getChildCount(N node);
+	/**
+	 * @param node node of the index.
+	 * @param index index of the child, children are in ascending order of their first label character.
+	 * @return returns the child.
+	 */
+	public N getChild(N node, int index);
+	/**
+	 * @param node node of the index.
+	 * @return returns the number of characters on the edge into the node (0 for the root).
+	 */
+	public int getLabelLength(N node);
+	/**
+	 * @param node node of the index.
+	 * @param index index of the character on the edge into the node.
+	 * @return returns the character.
+	 */
+	public char getLabelChar(N node, int index);
+	/**
+	 * @param node node of the index.
+	 * @return returns a read-only view of the complete word locations of the node.
+	 */
+	public OccurrenceView getWordView(N node);
+	/**
+	 * @param node node of the index.
+	 * @return returns the most times any word at or below the node occurs.
+	 */
+	public int getMaxFrequency(N node);
+	/**
+	 * @return returns the number of characters from the root to the deepest node (at least the length
+	 * of the longest word).
+	 */
+	public int getMaxDepth();
+	/**
+	 * @return returns the number of word locations stored at the node.
+	 */
+	public int getWordCount(N node);
+	/**
+	 * @return returns the number of prefix locations stored at the node (0 if they aren't stored).
+	 */
+	public int getPrefixCount(N node);
+	/**
+	 * Estimates the heap used by a node and its child table, not counting its locations (see IndexFootprint).
+	 * 
+	 * @return returns the estimated bytes of the node.
+	 */
+	public long getNodeBytes(N node);
+	/**
+	 * @return returns the estimated heap bytes of the prefix and word locations stored at the node.
+	 */
+	public long getPostingBytes(N node);
+	/**
+	 * Compresses every stored location list.
+	 */
+	public void compressPostings();
+}